@@ -15,6 +15,6 @@ elif [ "$TRAVIS_BRANCH" != "$BRANCH" ]; then
   echo "Skipping snapshot deployment: wrong branch. Expected '$BRANCH' but was '$TRAVIS_BRANCH'."
 else
   echo "Deploying snapshot..."
-  "$PROJECT_DIR"/gradlew --no-daemon --info rx2assertj:bintrayUpload
+  "$PROJECT_DIR"/gradlew --no-daemon --info rxassertj-core:bintrayUpload rx2assertj:bintrayUpload
   echo "Snapshot deployed!"
 fi
@@ -1,18 +1,58 @@
 package com.github.nomisrev.rx2assertj;
 
 
+import com.github.nomisrev.rxassertj.core.AssertionCheck;
+import com.github.nomisrev.rxassertj.core.AssertionFuture;
+import com.github.nomisrev.rxassertj.core.Collectability;
+import com.github.nomisrev.rxassertj.core.EmissionTrace;
+import com.github.nomisrev.rxassertj.core.EventLog;
+import com.github.nomisrev.rxassertj.core.EventLogChecks;
+import com.github.nomisrev.rxassertj.core.ExpectedSequence;
+import com.github.nomisrev.rxassertj.core.Recorder;
+import com.github.nomisrev.rxassertj.core.SignalPattern;
+import com.github.nomisrev.rxassertj.core.StreamDigest;
+import io.reactivex.Scheduler;
+import io.reactivex.exceptions.Exceptions;
 import io.reactivex.functions.Predicate;
+import io.reactivex.internal.fuseable.QueueFuseable;
 import io.reactivex.observers.BaseTestConsumer;
 import org.assertj.core.api.*;
 
+import java.lang.ref.WeakReference;
 import java.util.Collection;
-import java.util.List;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T, P>> extends AbstractObjectAssert<AbstractTestConsumerAssert<T, P>, P> {
 
+    protected final EventLog<T> log;
+    private final RecordingConsumer<T> consumer;
+    private final Scheduling scheduling;
+
     public AbstractTestConsumerAssert(final P actual) {
+        this(actual, new TestConsumerLog<T>(actual));
+    }
+
+    /**
+     * Creates an assertion that reads the received signals from the given log instead of the TestObserver/TestSubscriber itself.
+     *
+     * @param actual the consumer that holds the subscription
+     * @param log    the log the values and terminal events were recorded into
+     */
+    protected AbstractTestConsumerAssert(final P actual, final EventLog<T> log) {
+        this(actual, log, null, null);
+    }
+
+    AbstractTestConsumerAssert(final P actual, final RecordingConsumer<T> consumer, final Scheduling scheduling) {
+        this(actual, consumer.recorder(), consumer, scheduling);
+    }
+
+    private AbstractTestConsumerAssert(final P actual, final EventLog<T> log, final RecordingConsumer<T> consumer, final Scheduling scheduling) {
         super(actual, AbstractTestConsumerAssert.class);
+        this.log = log;
+        this.consumer = consumer;
+        this.scheduling = scheduling;
     }
 
     /**
@@ -29,7 +69,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * Assert that this TestObserver/TestSubscriber received exactly one onComplete event.
      */
     public final AbstractTestConsumerAssert<T, P> isComplete() {
-        actual.assertComplete();
+        EventLogChecks.assertComplete(log);
         return this;
     }
 
@@ -44,7 +84,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * Assert that this TestObserver/TestSubscriber has not received any onComplete event.
      */
     public final AbstractTestConsumerAssert<T, P> isNotComplete() {
-        actual.assertNotComplete();
+        EventLogChecks.assertNotComplete(log);
         return this;
     }
 
@@ -52,7 +92,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * Assert that the TestObserver/TestSubscriber terminated (i.e., the terminal latch reached zero).
      */
     public final AbstractTestConsumerAssert<T, P> isTerminated() {
-        actual.assertTerminated();
+        EventLogChecks.assertTerminated(log);
         return this;
     }
 
@@ -60,7 +100,31 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * Assert that the TestObserver/TestSubscriber has not terminated (i.e., the terminal latch is still non-zero).
      */
     public final AbstractTestConsumerAssert<T, P> isNotTerminated() {
-        actual.assertNotTerminated();
+        EventLogChecks.assertNotTerminated(log);
+        return this;
+    }
+
+    /**
+     * Assert that this TestObserver/TestSubscriber cancelled or disposed its upstream, i.e. the subscription was stopped
+     * before the source terminated.
+     */
+    public final AbstractTestConsumerAssert<T, P> isCancelled() {
+        if (!actual.isDisposed()) {
+            throw EventLogChecks.fail(log, "Not cancelled");
+        }
+        return this;
+    }
+
+    /**
+     * Assert that the source stopped signalling once it was cancelled, e.g. by {@link Rx2Assertions#assertThatFirst(int, io.reactivex.Flowable)}
+     * or {@link Rx2Assertions#assertThatWithin(long, TimeUnit, io.reactivex.Flowable)}.
+     * <p>Only available on assertions created through {@link Rx2Assertions}, as it relies on the signals being recorded.
+     */
+    public final AbstractTestConsumerAssert<T, P> respectsCancellation() {
+        long lateSignals = recorder().lateSignals();
+        if (lateSignals != 0) {
+            throw EventLogChecks.fail(log, "Received " + lateSignals + " signal(s) after cancellation");
+        }
         return this;
     }
 
@@ -68,7 +132,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * Assert that this TestObserver/TestSubscriber has not received any onError event.
      */
     public final AbstractTestConsumerAssert<T, P> hasNoErrors() {
-        actual.assertNoErrors();
+        EventLogChecks.assertNoErrors(log);
         return this;
     }
 
@@ -85,13 +149,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @return an AssertJ assertion class to preform assertions on the error message.
      */
     public final AbstractCharSequenceAssert<?, String> hasErrorMessageThat() {
-        hasError(new Predicate<Throwable>() {
-            @Override
-            public boolean test(Throwable throwable) throws Exception {
-                return true;
-            }
-        });
-        return Assertions.assertThat(this.actual.errors().get(0).getMessage());
+        return Assertions.assertThat(EventLogChecks.singleError(log).getMessage());
     }
 
     /**
@@ -100,13 +158,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @return an AssertJ assertion class to preform assertions on the error.
      */
     public final AbstractThrowableAssert hasErrorThat() {
-        hasError(new Predicate<Throwable>() {
-            @Override
-            public boolean test(Throwable throwable) throws Exception {
-                return true;
-            }
-        });
-        return Assertions.assertThat(this.actual.errors().get(0));
+        return Assertions.assertThat(EventLogChecks.singleError(log));
     }
 
     /**
@@ -119,7 +171,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @see #hasError(Predicate)
      */
     public final AbstractTestConsumerAssert<T, P> hasError(Throwable error) {
-        actual.assertError(error);
+        EventLogChecks.assertError(log, error);
         return this;
     }
 
@@ -130,7 +182,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      */
     @SuppressWarnings({"unchecked", "rawtypes", "cast"})
     public final AbstractTestConsumerAssert<T, P> hasError(Class<? extends Throwable> errorClass) {
-        actual.assertError(errorClass);
+        EventLogChecks.assertError(log, errorClass);
         return this;
     }
 
@@ -140,7 +192,9 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param errorPredicate the predicate that receives the error Throwable and should return true for expected errors.
      */
     public final AbstractTestConsumerAssert<T, P> hasError(Predicate<Throwable> errorPredicate) {
-        actual.assertError(errorPredicate);
+        if (!test(errorPredicate, EventLogChecks.singleError(log))) {
+            throw EventLogChecks.fail(log, "Error not present");
+        }
         return this;
     }
 
@@ -150,7 +204,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param message the message expected
      */
     public final AbstractTestConsumerAssert<T, P> hasErrorMessage(String message) {
-        actual.assertErrorMessage(message);
+        EventLogChecks.assertErrorMessage(log, message);
         return this;
     }
 
@@ -162,10 +216,10 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param values the expected values, asserted in order
      */
     public final AbstractTestConsumerAssert<T, P> hasFailure(Class<? extends Throwable> error, T... values) {
-        actual.assertSubscribed()
-                .assertValues(values)
-                .assertError(error)
-                .assertNotComplete();
+        isSubscribed();
+        EventLogChecks.assertValues(log, values);
+        EventLogChecks.assertError(log, error);
+        EventLogChecks.assertNotComplete(log);
         return this;
     }
 
@@ -178,10 +232,10 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param values         the expected values, asserted in order
      */
     public final AbstractTestConsumerAssert<T, P> hasFailure(Predicate<Throwable> errorPredicate, T... values) {
-        actual.assertSubscribed()
-                .assertValues(values)
-                .assertError(errorPredicate)
-                .assertNotComplete();
+        isSubscribed();
+        EventLogChecks.assertValues(log, values);
+        hasError(errorPredicate);
+        EventLogChecks.assertNotComplete(log);
         return this;
     }
 
@@ -195,11 +249,11 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param values  the expected values, asserted in order
      */
     public final AbstractTestConsumerAssert<T, P> hasFailureAndMessage(Class<? extends Throwable> error, String message, T... values) {
-        actual.assertSubscribed()
-                .assertValues(values)
-                .assertError(error)
-                .assertErrorMessage(message)
-                .assertNotComplete();
+        isSubscribed();
+        EventLogChecks.assertValues(log, values);
+        EventLogChecks.assertError(log, error);
+        EventLogChecks.assertErrorMessage(log, message);
+        EventLogChecks.assertNotComplete(log);
         return this;
     }
 
@@ -209,7 +263,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param value the value to expect
      */
     public final AbstractTestConsumerAssert<T, P> hasSingleValue(T value) {
-        actual.assertValue(value);
+        EventLogChecks.assertValues(log, value);
         return this;
     }
 
@@ -219,7 +273,10 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param valuePredicate the predicate that receives the onNext value and should return true for the expected value.
      */
     public final AbstractTestConsumerAssert<T, P> hasSingleValue(Predicate<T> valuePredicate) {
-        actual.assertValue(valuePredicate);
+        EventLogChecks.assertValueCount(log, 1);
+        if (!test(valuePredicate, EventLogChecks.retainedValueAt(log, 0))) {
+            throw EventLogChecks.fail(log, "Value not present");
+        }
         return this;
     }
 
@@ -229,7 +286,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param values the expected values to be contained in the stream.
      */
     public final AbstractTestConsumerAssert<T, P> contains(T... values) {
-        Assertions.assertThat(actual.values()).contains(values);
+        EventLogChecks.assertContains(log, values);
         return this;
     }
 
@@ -239,7 +296,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param values the expected values to be not contained in the stream.
      */
     public final AbstractTestConsumerAssert<T, P> doesNotContain(T... values) {
-        Assertions.assertThat(actual.values()).doesNotContain(values);
+        EventLogChecks.assertDoesNotContain(log, values);
         return this;
     }
 
@@ -250,7 +307,9 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param valuePredicate the predicate that receives the onNext value and should return true for the expected value.
      */
     public final AbstractTestConsumerAssert<T, P> hasValueAt(int index, Predicate<T> valuePredicate) {
-        actual.assertValueAt(index, valuePredicate);
+        if (!test(valuePredicate, EventLogChecks.retainedValueAt(log, index))) {
+            throw EventLogChecks.fail(log, "Value not present");
+        }
         return this;
     }
 
@@ -260,7 +319,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param count the expected number of onNext events
      */
     public final AbstractTestConsumerAssert<T, P> hasValueCount(int count) {
-        actual.assertValueCount(count);
+        EventLogChecks.assertValueCount(log, count);
         return this;
     }
 
@@ -272,7 +331,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      */
     @SuppressWarnings("unchecked")
     public final AbstractTestConsumerAssert<T, P> hasValues(T... values) {
-        actual.assertValues(values);
+        EventLogChecks.assertValues(log, values);
         return this;
     }
 
@@ -284,7 +343,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      */
     @SuppressWarnings("unchecked")
     public final AbstractTestConsumerAssert<T, P> hasValueSet(Collection<? extends T> expected) {
-        actual.assertValueSet(expected);
+        EventLogChecks.assertValueSet(log, expected);
         return this;
     }
 
@@ -294,7 +353,32 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param sequence the sequence of expected values in order
      */
     public final AbstractTestConsumerAssert<T, P> hasValueSequence(Iterable<? extends T> sequence) {
-        actual.assertValueSequence(sequence);
+        EventLogChecks.assertValueSequence(log, sequence);
+        return this;
+    }
+
+    /**
+     * Assert that the values are the lazily produced expected sequence, walked in lockstep with the values up to the first
+     * mismatch. When the subscription is recorded with
+     * {@link com.github.nomisrev.rxassertj.core.Recording#comparingWith(ExpectedSequence)} for the same sequence, the values
+     * were compared as they arrived and need not be retained.
+     *
+     * @param sequence the expected values
+     */
+    public final AbstractTestConsumerAssert<T, P> hasValueSequence(ExpectedSequence<T> sequence) {
+        EventLogChecks.assertValueSequence(recorder(), sequence);
+        return this;
+    }
+
+    /**
+     * Assert that exactly {@code count} values were received, each equal to the value the generator computes for its index.
+     *
+     * @param count     the expected number of values
+     * @param generator computes the value expected at an index
+     * @see #hasValueSequence(ExpectedSequence)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasValueSequence(long count, ExpectedSequence.Generator<? extends T> generator) {
+        EventLogChecks.assertValueSequence(recorder(), ExpectedSequence.<T>generated(count, generator));
         return this;
     }
 
@@ -308,10 +392,10 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @see #hasFailureAndMessage(Class, String, Object...)
      */
     public final AbstractTestConsumerAssert<T, P> hasResult(T... values) {
-        actual.assertSubscribed()
-                .assertValues(values)
-                .assertNoErrors()
-                .assertComplete();
+        isSubscribed();
+        EventLogChecks.assertValues(log, values);
+        EventLogChecks.assertNoErrors(log);
+        EventLogChecks.assertComplete(log);
         return this;
     }
 
@@ -319,7 +403,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * Assert that this TestObserver/TestSubscriber has not received any onNext events.
      */
     public final AbstractTestConsumerAssert<T, P> hasNoValues() {
-        actual.assertValueCount(0);
+        EventLogChecks.assertValueCount(log, 0);
         return this;
     }
 
@@ -339,17 +423,71 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @throws RuntimeException wrapping an InterruptedException if the wait is interrupted
      */
     public final AbstractTestConsumerAssert<T, P> awaitDone(long time, TimeUnit unit) {
-        actual.awaitDone(time, unit);
+        try {
+            if (!log.await(time, unit)) {
+                actual.dispose();
+            }
+        } catch (InterruptedException ex) {
+            actual.dispose();
+            throw Exceptions.propagate(ex);
+        }
         return this;
     }
 
+    /**
+     * Runs the assertions once the source terminated or the recording was cancelled, without blocking the calling thread.
+     * They run on the thread that ended the recording, or right away if it already ended.
+     * <pre>{@code
+     * Future<Void> verified = assertThatSubscriberTo(source).whenDone(new AssertionCheck<AbstractTestConsumerAssert<Integer, ?>>() {
+     *     public void check(AbstractTestConsumerAssert<Integer, ?> assertion) {
+     *         assertion.isComplete().hasValueCount(10);
+     *     }
+     * });
+     * }</pre>
+     * <p>Only available on assertions created through {@link Rx2Assertions}, as it relies on the signals being recorded.
+     *
+     * @param assertions the assertions to run against this assertion
+     * @return a future failing with the {@link AssertionError} of the assertions
+     */
+    public final Future<Void> whenDone(final AssertionCheck<? super AbstractTestConsumerAssert<T, P>> assertions) {
+        return AssertionFuture.whenDone(recorder(), this, assertions);
+    }
+
+    /**
+     * Returns a future completing once the source terminated or the recording was cancelled, without blocking the calling
+     * thread.
+     *
+     * @see #whenDone(AssertionCheck)
+     */
+    public final Future<Void> toFuture() {
+        return AssertionFuture.whenDone(recorder(), this, null);
+    }
+
     /**
      * Assert that all emitted items meet a {@link Condition}.
+     * <p>When the values were recorded with a sampling {@link com.github.nomisrev.rxassertj.core.Retention}, only the sampled
+     * items are checked, see {@link #sampleSatisfies(Condition)}.
      *
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> eachItemMatches(final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).are(condition);
+        EventLogChecks.assertEach(log, condition);
+        return this;
+    }
+
+    /**
+     * Assert that all sampled items meet a {@link Condition}, for assertions recorded with {@link com.github.nomisrev.rxassertj.core.Retention#reservoir(int)}.
+     * <p>Every emitted item is equally likely to be in the sample, so a condition failing for a fraction {@code p} of all
+     * items goes unnoticed with probability {@code (1 - p)^n} for a sample of {@code n} items. A sample of 300 items
+     * detects a 1% failure rate with 95% confidence.
+     *
+     * @param condition the AssertJ {@link Condition} to check
+     */
+    public final AbstractTestConsumerAssert<T, P> sampleSatisfies(final Condition<? super T> condition) {
+        if (log.values().isEmpty() && log.valueCount() != 0) {
+            throw EventLogChecks.fail(log, "No values were sampled");
+        }
+        EventLogChecks.assertEach(log, condition);
         return this;
     }
 
@@ -359,7 +497,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> noItemMatches(final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).areNot(condition);
+        EventLogChecks.assertNone(log, condition);
         return this;
     }
 
@@ -369,7 +507,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> atLeastOneItemMatches(final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).areAtLeastOne(condition);
+        EventLogChecks.assertAtLeast(log, 1, condition);
         return this;
     }
 
@@ -380,7 +518,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> haveAtLeast(final int times, final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).haveAtLeast(times, condition);
+        EventLogChecks.assertAtLeast(log, times, condition);
         return this;
     }
 
@@ -391,7 +529,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> areAtLeast(final int times, final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).areAtLeast(times, condition);
+        EventLogChecks.assertAtLeast(log, times, condition);
         return this;
     }
 
@@ -402,7 +540,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> haveAtMost(final int times, final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).haveAtMost(times, condition);
+        EventLogChecks.assertAtMost(log, times, condition);
         return this;
     }
 
@@ -413,7 +551,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> areAtMost(final int times, final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).areAtMost(times, condition);
+        EventLogChecks.assertAtMost(log, times, condition);
         return this;
     }
 
@@ -424,7 +562,7 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> haveExactly(final int times, final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).haveExactly(times, condition);
+        EventLogChecks.assertExactly(log, times, condition);
         return this;
     }
 
@@ -435,7 +573,383 @@ public abstract class AbstractTestConsumerAssert<T, P extends BaseTestConsumer<T
      * @param condition the AssertJ {@link Condition} to check
      */
     public final AbstractTestConsumerAssert<T, P> areExactly(final int times, final Condition<? super T> condition) {
-        Assertions.assertThat(actual.values()).areExactly(times, condition);
+        EventLogChecks.assertExactly(log, times, condition);
+        return this;
+    }
+
+    /**
+     * Assert that the mean of the emitted numbers is between the given bounds, inclusive.
+     * <p>Needs the subscription to be recorded with {@link com.github.nomisrev.rxassertj.core.Recording#withStatistics()},
+     * which computes the statistics while the items arrive, so they cover every item whatever is retained.
+     *
+     * @param min the lower bound
+     * @param max the upper bound
+     */
+    public final AbstractTestConsumerAssert<T, P> hasMeanBetween(final double min, final double max) {
+        EventLogChecks.assertMeanBetween(recorder(), min, max);
+        return this;
+    }
+
+    /**
+     * Assert that the sample standard deviation of the emitted numbers is below the given limit.
+     *
+     * @param limit the exclusive upper bound
+     * @see #hasMeanBetween(double, double)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasStdDevBelow(final double limit) {
+        EventLogChecks.assertStandardDeviationBelow(recorder(), limit);
+        return this;
+    }
+
+    /**
+     * Assert that the smallest emitted number is at least the given limit.
+     *
+     * @param limit the inclusive lower bound
+     * @see #hasMeanBetween(double, double)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasMinAtLeast(final double limit) {
+        EventLogChecks.assertMinAtLeast(recorder(), limit);
+        return this;
+    }
+
+    /**
+     * Assert that the largest emitted number is at most the given limit.
+     *
+     * @param limit the inclusive upper bound
+     * @see #hasMeanBetween(double, double)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasMaxAtMost(final double limit) {
+        EventLogChecks.assertMaxAtMost(recorder(), limit);
+        return this;
+    }
+
+    /**
+     * Assert that the emitted numbers at the given quantile are below the given limit, e.g. {@code hasQuantileBelow(0.99, 5)}
+     * for the 99th percentile. The quantile is estimated with a relative error of at most
+     * {@link com.github.nomisrev.rxassertj.core.NumericStatistics#QUANTILE_ACCURACY}.
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @param limit    the exclusive upper bound
+     * @see #hasMeanBetween(double, double)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasQuantileBelow(final double quantile, final double limit) {
+        EventLogChecks.assertQuantileBelow(recorder(), quantile, limit);
+        return this;
+    }
+
+    /**
+     * Assert that every gap between two consecutive items is shorter than the given time.
+     * <p>Needs the subscription to be recorded with {@link com.github.nomisrev.rxassertj.core.Recording#withArrivalTimes()}.
+     *
+     * @param time the exclusive upper bound
+     * @param unit the unit of the time
+     */
+    public final AbstractTestConsumerAssert<T, P> hasMaxGapBelow(final long time, final TimeUnit unit) {
+        EventLogChecks.assertMaxGapBelow(recorder(), time, unit);
+        return this;
+    }
+
+    /**
+     * Assert that the jitter, the 99th minus the 50th percentile of the gaps between consecutive items, is below the given
+     * time, so the items arrive at an even pace even if single gaps are long.
+     *
+     * @param time the exclusive upper bound
+     * @param unit the unit of the time
+     * @see #hasMaxGapBelow(long, TimeUnit)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasJitterBelow(final long time, final TimeUnit unit) {
+        EventLogChecks.assertJitterBelow(recorder(), time, unit);
+        return this;
+    }
+
+    /**
+     * Assert that no signal took longer than the given time to arrive, including the first item after subscribing and the
+     * terminal event after the last item. An unfinished stream is measured up to now.
+     *
+     * @param time the inclusive upper bound
+     * @param unit the unit of the time
+     * @see #hasMaxGapBelow(long, TimeUnit)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasNoStallLongerThan(final long time, final TimeUnit unit) {
+        EventLogChecks.assertNoStallLongerThan(recorder(), time, unit);
+        return this;
+    }
+
+    /**
+     * Returns the recorded values with the time each arrived, to be written to a file with
+     * {@link EmissionTrace#writeTo(java.io.OutputStream, EmissionTrace.Codec)} and replayed with {@link TraceReplay}.
+     * <p>Needs the subscription to be recorded with {@link com.github.nomisrev.rxassertj.core.Recording#withArrivalTimes()}
+     * and every value to be retained.
+     */
+    public final EmissionTrace<T> trace() {
+        return EmissionTrace.of(recorder());
+    }
+
+    /**
+     * Assert that every signal was delivered on a thread whose name matches the given regular expression, e.g.
+     * {@code "RxComputationThreadPool-\\d+"}.
+     * <p>Only available on assertions created through {@link Rx2Assertions}, as it relies on the signals being recorded.
+     *
+     * @param pattern the regular expression the thread names need to match
+     */
+    public final AbstractTestConsumerAssert<T, P> deliversOnThreadMatching(final String pattern) {
+        EventLogChecks.assertDeliveredOnThreadsMatching(recorder(), Pattern.compile(pattern));
+        return this;
+    }
+
+    /**
+     * Assert that the signals were delivered on at most the given number of distinct threads.
+     *
+     * @param count the maximum number of threads
+     * @see #deliversOnThreadMatching(String)
+     */
+    public final AbstractTestConsumerAssert<T, P> usesAtMostThreads(final int count) {
+        EventLogChecks.assertAtMostThreads(recorder(), count);
+        return this;
+    }
+
+    /**
+     * Assert that a signal was delivered on another thread than the signal before it at most the given number of times.
+     * A pipeline with a single {@code observeOn} delivers every signal on the same thread and has no hops.
+     *
+     * @param count the maximum number of thread hops
+     * @see #deliversOnThreadMatching(String)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasAtMostThreadHops(final long count) {
+        EventLogChecks.assertAtMostThreadHops(recorder(), count);
+        return this;
+    }
+
+    /**
+     * Assert that no signal started while another one was still being delivered, i.e. the source serialized its signals.
+     * <p>Only available on assertions subscribed with {@link com.github.nomisrev.rxassertj.core.Recording#concurrent()},
+     * which records every value of a source that emits concurrently instead of losing some.
+     *
+     * @see #hasConcurrentOnNextCount(long)
+     */
+    public final AbstractTestConsumerAssert<T, P> isSerialized() {
+        EventLogChecks.assertSerialized(recorder());
+        return this;
+    }
+
+    /**
+     * Assert that exactly {@code count} onNext signals started while another signal was still being delivered.
+     *
+     * @param count the expected number of overlapping onNext signals
+     * @see #isSerialized()
+     */
+    public final AbstractTestConsumerAssert<T, P> hasConcurrentOnNextCount(final long count) {
+        EventLogChecks.assertOverlappingValues(recorder(), count);
+        return this;
+    }
+
+    /**
+     * Assert that the signals match the pattern, e.g. one or more values matching a condition followed by completion.
+     * <p>Walks the recorded values, which must all be retained. To match long streams without retaining them, subscribe
+     * with {@link com.github.nomisrev.rxassertj.core.Recording#matching(SignalPattern)} and pass the same pattern here.
+     *
+     * @param pattern the compiled pattern
+     */
+    public final AbstractTestConsumerAssert<T, P> matchesPattern(final SignalPattern<T> pattern) {
+        EventLogChecks.assertMatchesPattern(recorder(), pattern);
+        return this;
+    }
+
+    /**
+     * Assert that the ordered digest of the values equals the expected one, e.g. the digest of a reference run. The values
+     * are compared in constant memory when the subscription is recorded with
+     * {@link com.github.nomisrev.rxassertj.core.Recording#withDigest(StreamDigest.Hasher)} for the same hasher, otherwise
+     * every value must be retained.
+     *
+     * @param expected the expected {@link StreamDigest#ordered()} digest
+     * @param hasher   hashes each value
+     * @see #digest(StreamDigest.Hasher)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasSameDigestAs(final long expected, final StreamDigest.Hasher<? super T> hasher) {
+        EventLogChecks.assertOrderedDigest(recorder(), expected, hasher);
+        return this;
+    }
+
+    /**
+     * Assert that the unordered digest of the values equals the expected one, so the same values were emitted in any order.
+     *
+     * @param expected the expected {@link StreamDigest#unordered()} digest
+     * @param hasher   hashes each value
+     * @see #hasSameDigestAs(long, StreamDigest.Hasher)
+     */
+    public final AbstractTestConsumerAssert<T, P> hasSameUnorderedDigestAs(final long expected, final StreamDigest.Hasher<? super T> hasher) {
+        EventLogChecks.assertUnorderedDigest(recorder(), expected, hasher);
+        return this;
+    }
+
+    /**
+     * Assert that the values have the same ordered digest and count as the reference sequence, which is iterated once and can
+     * be read lazily.
+     *
+     * @param reference the expected values
+     * @param hasher    hashes each value
+     * @see #hasSameDigestAs(long, StreamDigest.Hasher)
+     */
+    public final AbstractTestConsumerAssert<T, P> emitsSequenceWithDigest(final Iterable<? extends T> reference,
+                                                                         final StreamDigest.Hasher<? super T> hasher) {
+        EventLogChecks.assertSequenceDigest(recorder(), reference, hasher);
+        return this;
+    }
+
+    /**
+     * Returns the digests of the values, to be kept as reference for {@link #hasSameDigestAs(long, StreamDigest.Hasher)}.
+     */
+    public final StreamDigest<T> digest(final StreamDigest.Hasher<? super T> hasher) {
+        return EventLogChecks.digest(recorder(), hasher);
+    }
+
+    /**
+     * Assert that at most the given number of tasks were scheduled, on any scheduler, while the source was recorded.
+     * <p>Only available on assertions created through {@link Rx2Assertions#assertThatScheduling(long, TimeUnit, java.util.concurrent.Callable)}.
+     *
+     * @param count the maximum number of scheduled tasks
+     */
+    public final AbstractTestConsumerAssert<T, P> schedulesAtMost(final long count) {
+        Scheduling scheduling = requireScheduling();
+        if (scheduling.total() > count) {
+            throw EventLogChecks.fail(log, "Expected at most " + count + " scheduled task(s) but there were " + scheduling.total()
+                    + " [" + scheduling + "]");
+        }
+        return this;
+    }
+
+    /**
+     * Assert that at most the given number of tasks were scheduled on the given scheduler, e.g. {@code Schedulers.computation()}.
+     *
+     * @param scheduler the scheduler
+     * @param count     the maximum number of scheduled tasks
+     * @see #schedulesAtMost(long)
+     */
+    public final AbstractTestConsumerAssert<T, P> schedulesAtMostOn(final Scheduler scheduler, final long count) {
+        long scheduled = requireScheduling().count(scheduler);
+        if (scheduled > count) {
+            throw EventLogChecks.fail(log, "Expected at most " + count + " task(s) scheduled on " + scheduling.name(scheduler) + " but there were "
+                    + scheduled + " [" + scheduling + "]");
+        }
+        return this;
+    }
+
+    /**
+     * Assert that no task was scheduled on the given scheduler, e.g. {@code Schedulers.io()}.
+     *
+     * @param scheduler the scheduler
+     * @see #schedulesAtMost(long)
+     */
+    public final AbstractTestConsumerAssert<T, P> schedulesNothingOn(final Scheduler scheduler) {
+        return schedulesAtMostOn(scheduler, 0);
+    }
+
+    /**
+     * Assert that the source accepted synchronous queue fusion, so its values were polled without any {@code onNext} call.
+     * <p>Only available on assertions created through {@link Rx2Assertions#assertThatSubscriberTo(io.reactivex.Flowable, FusionMode)}
+     * or {@link Rx2Assertions#assertThatSubscriberTo(io.reactivex.Observable, FusionMode)}.
+     */
+    public final AbstractTestConsumerAssert<T, P> isFusedSync() {
+        return hasFusionMode(QueueFuseable.SYNC);
+    }
+
+    /**
+     * Assert that the source accepted asynchronous queue fusion, so its values were polled whenever it signalled that values
+     * were available.
+     *
+     * @see #isFusedSync()
+     */
+    public final AbstractTestConsumerAssert<T, P> isFusedAsync() {
+        return hasFusionMode(QueueFuseable.ASYNC);
+    }
+
+    /**
+     * Assert that the source rejected the requested queue fusion, or does not support it, and emitted through {@code onNext}.
+     *
+     * @see #isFusedSync()
+     */
+    public final AbstractTestConsumerAssert<T, P> isNotFused() {
+        return hasFusionMode(QueueFuseable.NONE);
+    }
+
+    private AbstractTestConsumerAssert<T, P> hasFusionMode(int expected) {
+        if (consumer == null || !consumer.requestsFusion()) {
+            failWithMessage("Expected fusion to be requested, subscribe through assertThatSubscriberTo(source, FusionMode)");
+        }
+        int mode = consumer.fusionMode();
+        if (mode != expected) {
+            throw EventLogChecks.fail(log, "Expected fusion mode " + RecordingConsumer.fusionModeName(expected) + " but it was "
+                    + RecordingConsumer.fusionModeName(mode));
+        }
         return this;
     }
-}
\ No newline at end of file
+
+    /**
+     * Assert that the pipeline released its upstream once it terminated or was cancelled: the subscription or disposable
+     * received from the source is garbage collected after the recording dropped its own reference to it, within
+     * {@link Collectability#ATTEMPTS} collections.
+     * <p>Only available on assertions created through {@link Rx2Assertions}, as it relies on the signals being recorded.
+     */
+    public final AbstractTestConsumerAssert<T, P> releasesUpstreamAfterTermination() {
+        RecordingConsumer<T> consumer = requireConsumer();
+        if (!log.isTerminated() && !consumer.recorder().isCancelled()) {
+            throw EventLogChecks.fail(log, "Expected the source to be terminated or cancelled before checking its release");
+        }
+        WeakReference<Object> upstream = consumer.upstream();
+        if (upstream == null) {
+            throw EventLogChecks.fail(log, "Not subscribed!");
+        }
+        if (!Collectability.isCollected(upstream)) {
+            throw EventLogChecks.fail(log, "Expected the upstream to be released after termination but " + consumer.upstreamName()
+                    + " is still reachable after " + Collectability.ATTEMPTS + " garbage collections");
+        }
+        return this;
+    }
+
+    /**
+     * Disposes the subscription and asserts that the weakly referenced object is garbage collected within
+     * {@link Collectability#ATTEMPTS} collections, e.g. a listener captured by an operator of the pipeline.
+     * <p>Pass a {@link WeakReference} and drop every strong reference to the object before, as a reference held by the test
+     * itself keeps it reachable.
+     *
+     * @param referent a weak reference to the object that should be released
+     */
+    public final AbstractTestConsumerAssert<T, P> isCollectableAfterDispose(final WeakReference<?> referent) {
+        requireConsumer().stop();
+        if (!Collectability.isCollected(referent)) {
+            throw EventLogChecks.fail(log, "Expected the referent to be collected after disposing but it is still reachable after "
+                    + Collectability.ATTEMPTS + " garbage collections");
+        }
+        return this;
+    }
+
+    private RecordingConsumer<T> requireConsumer() {
+        if (consumer == null) {
+            failWithMessage("Expected the signals to be recorded by Rx2Assertions, subscribe through assertThatSubscriberTo instead of assertThat(TestObserver/TestSubscriber)");
+        }
+        return consumer;
+    }
+
+    private Scheduling requireScheduling() {
+        if (scheduling == null) {
+            failWithMessage("Expected the scheduling to be counted, use Rx2Assertions.assertThatScheduling to create the assertion");
+        }
+        return scheduling;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Recorder<T> recorder() {
+        if (!(log instanceof Recorder)) {
+            failWithMessage("Expected the signals to be recorded by Rx2Assertions, subscribe through assertThatSubscriberTo instead of assertThat(TestObserver/TestSubscriber)");
+        }
+        return (Recorder<T>) log;
+    }
+
+    private static <V> boolean test(Predicate<? super V> predicate, V value) {
+        try {
+            return predicate.test(value);
+        } catch (Exception ex) {
+            throw Exceptions.propagate(ex);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.Expectation;
+import io.reactivex.CompletableObserver;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.MaybeObserver;
+import io.reactivex.Observer;
+import io.reactivex.SingleObserver;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer that verifies the signals of one subscription against an {@link Expectation} while they arrive, without recording
+ * them. Create one per subscription with {@link Rx2Assertions#subscriberFor(Expectation)}, the expectation itself can be
+ * shared between any number of them.
+ * <pre>{@code
+ * ExpectationSubscriber<Integer> subscriber = source.subscribeWith(Rx2Assertions.subscriberFor(expectation));
+ * subscriber.awaitSatisfied(5, TimeUnit.SECONDS);
+ * }</pre>
+ */
+public final class ExpectationSubscriber<T> implements FlowableSubscriber<T>, Observer<T>, SingleObserver<T>,
+        MaybeObserver<T>, CompletableObserver, Disposable {
+
+    private final Expectation.Verification<T> verification;
+
+    private volatile Subscription subscription;
+    private volatile Disposable disposable;
+    private volatile boolean disposed;
+
+    ExpectationSubscriber(final Expectation<T> expectation) {
+        this.verification = expectation.newVerification();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        subscription = s;
+        if (disposed) {
+            s.cancel();
+        } else {
+            s.request(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Disposable d) {
+        disposable = d;
+        if (disposed) {
+            d.dispose();
+        }
+    }
+
+    @Override
+    public void onNext(T value) {
+        verification.onNext(value);
+    }
+
+    @Override
+    public void onSuccess(T value) {
+        verification.onNext(value);
+        verification.onComplete();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        verification.onError(error);
+    }
+
+    @Override
+    public void onComplete() {
+        verification.onComplete();
+    }
+
+    /**
+     * Throws an {@link AssertionError} if the signals received so far do not satisfy the expectation.
+     */
+    public void assertSatisfied() {
+        verification.assertSatisfied();
+    }
+
+    /**
+     * Waits for the source to terminate and verifies the expectation. The upstream is disposed if it did not terminate in time.
+     */
+    public void awaitSatisfied(long time, TimeUnit unit) {
+        try {
+            if (!verification.await(time, unit)) {
+                dispose();
+            }
+        } catch (InterruptedException ex) {
+            dispose();
+            throw Exceptions.propagate(ex);
+        }
+        verification.assertSatisfied();
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        Subscription s = subscription;
+        if (s != null) {
+            s.cancel();
+        }
+        Disposable d = disposable;
+        if (d != null) {
+            d.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.nomisrev.rx2assertj;
+
+import io.reactivex.internal.fuseable.QueueFuseable;
+
+/**
+ * The queue fusion mode {@link Rx2Assertions} requests from the source, see
+ * {@link Rx2Assertions#assertThatSubscriberTo(io.reactivex.Flowable, FusionMode)}.
+ * <p>A fused source hands its values over through its own queue instead of calling {@code onNext}, which saves a queue per
+ * operator boundary. Which mode was established is checked with {@link AbstractTestConsumerAssert#isFusedSync()},
+ * {@link AbstractTestConsumerAssert#isFusedAsync()} and {@link AbstractTestConsumerAssert#isNotFused()}.
+ */
+public enum FusionMode {
+
+    /**
+     * Requests synchronous fusion, where the values are polled until the queue is empty, which completes the source.
+     */
+    SYNC(QueueFuseable.SYNC),
+
+    /**
+     * Requests asynchronous fusion, where {@code onNext} only signals that values can be polled.
+     */
+    ASYNC(QueueFuseable.ASYNC),
+
+    /**
+     * Requests either mode, leaving the choice to the source.
+     */
+    ANY(QueueFuseable.ANY);
+
+    final int mode;
+
+    FusionMode(int mode) {
+        this.mode = mode;
+    }
+}
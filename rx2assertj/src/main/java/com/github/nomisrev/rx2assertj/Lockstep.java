@@ -0,0 +1,200 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.EventLogChecks;
+import com.github.nomisrev.rxassertj.core.LockstepComparison;
+import com.github.nomisrev.rxassertj.core.Recording;
+import com.github.nomisrev.rxassertj.core.Retention;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Notification;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Observer;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Consumer;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subscribers.TestSubscriber;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscribes a candidate and a reference source at the same time and compares them with a {@link LockstepComparison}. The
+ * candidate is recorded without retaining its values, so the assertion returned for it only knows their count.
+ */
+final class Lockstep {
+
+    static <T> Rx2Assertions.TestSubscriberAssert<T> verify(final Flowable<T> candidate, final Publisher<? extends T> reference,
+                                                            final Comparator<? super T> comparator, final long time, final TimeUnit unit) {
+        final LockstepComparison<T> comparison = new LockstepComparison<T>(comparator, Flowable.bufferSize());
+        final TestSubscriber<T> subscriber = new TestSubscriber<T>(0L);
+        final RecordingConsumer<T> consumer = new RecordingConsumer<T>(
+                Recording.retaining(Retention.countOnly()).<T>newRecorder(), subscriber);
+        comparison.attach(LockstepComparison.CANDIDATE, new LockstepComparison.Demand() {
+            @Override
+            public void request(long n) {
+                subscriber.request(n);
+            }
+
+            @Override
+            public void cancel() {
+                consumer.stop();
+            }
+        });
+        candidate.doOnEach(new Feed<T>(comparison)).subscribe(consumer);
+        Flowable.fromPublisher(reference).subscribe(new ReferenceSubscriber<T>(comparison));
+        await(comparison, consumer, time, unit);
+        return consumer.subscriberAssertion();
+    }
+
+    static <T> Rx2Assertions.TestObserverAssert<T> verify(final Observable<T> candidate, final ObservableSource<? extends T> reference,
+                                                          final Comparator<? super T> comparator, final long time, final TimeUnit unit) {
+        final LockstepComparison<T> comparison = new LockstepComparison<T>(comparator, Flowable.bufferSize());
+        final RecordingConsumer<T> consumer = new RecordingConsumer<T>(
+                Recording.retaining(Retention.countOnly()).<T>newRecorder(), new TestObserver<T>());
+        comparison.attach(LockstepComparison.CANDIDATE, new LockstepComparison.Demand() {
+            @Override
+            public void request(long n) {
+                // no backpressure
+            }
+
+            @Override
+            public void cancel() {
+                consumer.stop();
+            }
+        });
+        candidate.doOnEach(new Feed<T>(comparison)).subscribe(consumer);
+        Observable.wrap(reference).subscribe(new ReferenceObserver<T>(comparison));
+        await(comparison, consumer, time, unit);
+        return consumer.assertion();
+    }
+
+    private static void await(LockstepComparison<?> comparison, RecordingConsumer<?> consumer, long time, TimeUnit unit) {
+        try {
+            if (!comparison.await(time, unit)) {
+                comparison.timeout(time, unit);
+            }
+        } catch (InterruptedException ex) {
+            comparison.timeout(time, unit);
+            throw Exceptions.propagate(ex);
+        }
+        String mismatch = comparison.mismatch();
+        if (mismatch != null) {
+            throw EventLogChecks.fail(consumer.recorder(), mismatch);
+        }
+        // the comparison sees the terminal event of the candidate before the recorder does
+        consumer.stopAfter(time, unit);
+    }
+
+    /**
+     * Feeds the signals of the candidate into the comparison before they are recorded.
+     */
+    private static final class Feed<T> implements Consumer<Notification<T>> {
+
+        private final LockstepComparison<T> comparison;
+
+        Feed(LockstepComparison<T> comparison) {
+            this.comparison = comparison;
+        }
+
+        @Override
+        public void accept(Notification<T> notification) {
+            if (notification.isOnNext()) {
+                comparison.onNext(LockstepComparison.CANDIDATE, notification.getValue());
+            } else if (notification.isOnError()) {
+                comparison.onError(LockstepComparison.CANDIDATE, notification.getError());
+            } else {
+                comparison.onComplete(LockstepComparison.CANDIDATE);
+            }
+        }
+    }
+
+    private static final class ReferenceSubscriber<T> implements FlowableSubscriber<T>, LockstepComparison.Demand {
+
+        private final LockstepComparison<T> comparison;
+        private volatile Subscription subscription;
+
+        ReferenceSubscriber(LockstepComparison<T> comparison) {
+            this.comparison = comparison;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            comparison.attach(LockstepComparison.REFERENCE, this);
+        }
+
+        @Override
+        public void onNext(T value) {
+            comparison.onNext(LockstepComparison.REFERENCE, value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            comparison.onError(LockstepComparison.REFERENCE, error);
+        }
+
+        @Override
+        public void onComplete() {
+            comparison.onComplete(LockstepComparison.REFERENCE);
+        }
+
+        @Override
+        public void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            subscription.cancel();
+        }
+    }
+
+    private static final class ReferenceObserver<T> implements Observer<T>, LockstepComparison.Demand {
+
+        private final LockstepComparison<T> comparison;
+        private volatile Disposable disposable;
+
+        ReferenceObserver(LockstepComparison<T> comparison) {
+            this.comparison = comparison;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            disposable = d;
+            comparison.attach(LockstepComparison.REFERENCE, this);
+        }
+
+        @Override
+        public void onNext(T value) {
+            comparison.onNext(LockstepComparison.REFERENCE, value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            comparison.onError(LockstepComparison.REFERENCE, error);
+        }
+
+        @Override
+        public void onComplete() {
+            comparison.onComplete(LockstepComparison.REFERENCE);
+        }
+
+        @Override
+        public void request(long n) {
+            // no backpressure
+        }
+
+        @Override
+        public void cancel() {
+            disposable.dispose();
+        }
+    }
+
+    private Lockstep() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.EventLogChecks;
+import com.github.nomisrev.rxassertj.core.MarbleDiagram;
+import com.github.nomisrev.rxassertj.core.Recorder;
+import io.reactivex.Flowable;
+import io.reactivex.Notification;
+import io.reactivex.functions.Consumer;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subscribers.TestSubscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays and verifies {@link MarbleDiagram}s on a {@link TestScheduler}, a frame lasting {@link MarbleDiagram#FRAME_MILLIS}
+ * of virtual time.
+ */
+final class Marbles {
+
+    /**
+     * Returns a processor emitting the signals of the diagram as the virtual time of the scheduler passes, starting now.
+     */
+    static <T> PublishProcessor<T> hot(final String diagram, final Map<String, ? extends T> values, final TestScheduler scheduler) {
+        final PublishProcessor<T> processor = PublishProcessor.create();
+        for (final MarbleDiagram.Marble marble : MarbleDiagram.parse(diagram).marbles()) {
+            final T value = marble.kind() == MarbleDiagram.Marble.VALUE ? value(marble, values) : null;
+            scheduler.scheduleDirect(new Runnable() {
+                @Override
+                public void run() {
+                    switch (marble.kind()) {
+                        case MarbleDiagram.Marble.VALUE:
+                            processor.onNext(value);
+                            break;
+                        case MarbleDiagram.Marble.ERROR:
+                            processor.onError(new MarbleException(diagram));
+                            break;
+                        default:
+                            processor.onComplete();
+                            break;
+                    }
+                }
+            }, marble.frame() * MarbleDiagram.FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return processor;
+    }
+
+    /**
+     * Subscribes to the source, lets the virtual time of the diagram pass and checks that every signal arrived in its frame.
+     */
+    static <T> Rx2Assertions.TestSubscriberAssert<T> verify(final Flowable<T> source, final String diagram,
+                                                             final Map<String, ? extends T> values, final TestScheduler scheduler) {
+        MarbleDiagram expected = MarbleDiagram.parse(diagram);
+        List<Signal> expectedSignals = new ArrayList<Signal>(expected.marbles().size());
+        for (MarbleDiagram.Marble marble : expected.marbles()) {
+            Object value = marble.kind() == MarbleDiagram.Marble.VALUE ? value(marble, values) : null;
+            expectedSignals.add(new Signal(marble.frame() * MarbleDiagram.FRAME_MILLIS, marble.kind(), value));
+        }
+
+        final long start = scheduler.now(TimeUnit.MILLISECONDS);
+        final List<Signal> actualSignals = new ArrayList<Signal>();
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(), new TestSubscriber<T>());
+        source.doOnEach(new Consumer<Notification<T>>() {
+            @Override
+            public void accept(Notification<T> notification) {
+                long time = scheduler.now(TimeUnit.MILLISECONDS) - start;
+                if (notification.isOnNext()) {
+                    actualSignals.add(new Signal(time, MarbleDiagram.Marble.VALUE, notification.getValue()));
+                } else if (notification.isOnError()) {
+                    actualSignals.add(new Signal(time, MarbleDiagram.Marble.ERROR, null));
+                } else {
+                    actualSignals.add(new Signal(time, MarbleDiagram.Marble.COMPLETE, null));
+                }
+            }
+        }).subscribe(consumer);
+        scheduler.advanceTimeBy(expected.frames() * MarbleDiagram.FRAME_MILLIS, TimeUnit.MILLISECONDS);
+
+        if (!expectedSignals.equals(actualSignals)) {
+            throw EventLogChecks.fail(consumer.recorder(), "Marbles differ for " + diagram + "; Expected: " + expectedSignals
+                    + ", Actual: " + actualSignals);
+        }
+        return consumer.subscriberAssertion();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T value(MarbleDiagram.Marble marble, Map<String, ? extends T> values) {
+        if (values == null) {
+            return (T) marble.symbol();
+        }
+        if (!values.containsKey(marble.symbol())) {
+            throw new IllegalArgumentException("No value for marble '" + marble.symbol() + "'");
+        }
+        return values.get(marble.symbol());
+    }
+
+    /**
+     * A signal and the virtual time it happened at, relative to the subscription.
+     */
+    private static final class Signal {
+
+        final long time;
+        final int kind;
+        final Object value;
+
+        Signal(long time, int kind, Object value) {
+            this.time = time;
+            this.kind = kind;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Signal)) {
+                return false;
+            }
+            Signal other = (Signal) o;
+            return time == other.time && kind == other.kind && (value != null ? value.equals(other.value) : other.value == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (int) (time ^ (time >>> 32)) + kind) + (value != null ? value.hashCode() : 0);
+        }
+
+        @Override
+        public String toString() {
+            String signal = kind == MarbleDiagram.Marble.VALUE ? String.valueOf(value)
+                    : kind == MarbleDiagram.Marble.ERROR ? "#" : "|";
+            return signal + "@" + time + "ms";
+        }
+    }
+
+    /**
+     * The error signalled by {@code #} in a diagram played by {@link #hot(String, Map, TestScheduler)}.
+     */
+    static final class MarbleException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        MarbleException(String diagram) {
+            super("Error in marble diagram " + diagram);
+        }
+    }
+
+    private Marbles() {
+        throw new AssertionError();
+    }
+}
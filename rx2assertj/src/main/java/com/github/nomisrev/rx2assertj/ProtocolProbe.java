@@ -0,0 +1,125 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.ProtocolLog;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.FlowableTransformer;
+import org.assertj.core.api.Condition;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Wraps a live source to count its Reactive Streams protocol violations and check a sample of its values, without
+ * buffering or throwing, checked with {@link Rx2Assertions#assertThat(ProtocolProbe)} or read from {@link #log()}.
+ * <pre>{@code
+ * ProtocolProbe<Quote> probe = ProtocolProbe.sampling(1000, validQuote);
+ * quotes.compose(probe).subscribe(...);
+ * metrics.gauge("quotes.violations", probe.log().violations());
+ * }</pre>
+ * Every signal is forwarded as is, except for signals after a terminal event, errors included, which are counted and
+ * dropped, and duplicate subscriptions, which are cancelled.
+ *
+ * @param <T> the value type
+ */
+public final class ProtocolProbe<T> implements FlowableTransformer<T, T> {
+
+    private final ProtocolLog<T> log;
+
+    private ProtocolProbe(ProtocolLog<T> log) {
+        this.log = log;
+    }
+
+    /**
+     * Creates a probe only checking the protocol.
+     */
+    public static <T> ProtocolProbe<T> create() {
+        return new ProtocolProbe<T>(new ProtocolLog<T>(null, 1));
+    }
+
+    /**
+     * Creates a probe also checking every {@code sampleEvery}-th value of each subscription against the condition.
+     */
+    public static <T> ProtocolProbe<T> sampling(long sampleEvery, Condition<? super T> condition) {
+        if (condition == null) {
+            throw new NullPointerException("condition is null");
+        }
+        return new ProtocolProbe<T>(new ProtocolLog<T>(condition, sampleEvery));
+    }
+
+    public ProtocolLog<T> log() {
+        return log;
+    }
+
+    /**
+     * Wraps the source. Unlike {@link Flowable#fromPublisher(Publisher)}, a plain {@code Publisher} is not made to follow
+     * the protocol first, so its violations are seen by the probe.
+     */
+    public Flowable<T> wrap(final Publisher<? extends T> source) {
+        return new Flowable<T>() {
+            @Override
+            protected void subscribeActual(Subscriber<? super T> s) {
+                source.subscribe(new ProbeSubscriber<T>(s, log.newSession()));
+            }
+        };
+    }
+
+    @Override
+    public Publisher<T> apply(Flowable<T> upstream) {
+        return wrap(upstream);
+    }
+
+    private static final class ProbeSubscriber<T> implements FlowableSubscriber<T>, Subscription {
+
+        private final Subscriber<? super T> actual;
+        private final ProtocolLog<T>.Session session;
+        private Subscription upstream;
+
+        ProbeSubscriber(Subscriber<? super T> actual, ProtocolLog<T>.Session session) {
+            this.actual = actual;
+            this.session = session;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (session.onSubscribe()) {
+                upstream = s;
+                actual.onSubscribe(this);
+            } else {
+                s.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(T value) {
+            if (session.onNext(value)) {
+                actual.onNext(value);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            if (session.onTerminal()) {
+                actual.onError(error);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (session.onTerminal()) {
+                actual.onComplete();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            session.onRequest(n);
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.Recorder;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.Observer;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.internal.fuseable.QueueDisposable;
+import io.reactivex.internal.fuseable.QueueFuseable;
+import io.reactivex.internal.fuseable.QueueSubscription;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subscribers.TestSubscriber;
+import org.reactivestreams.Subscription;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer subscribed by {@link Rx2Assertions} that feeds every value straight into a {@link Recorder}.
+ * <p>The {@link TestObserver}/{@link TestSubscriber} behind the assertion only receives the subscription and the terminal
+ * event, so values are stored once and subscription state keeps working as before.
+ * <p>When a {@link FusionMode} is given, queue fusion is requested from the source. In synchronous mode the values are polled
+ * right after subscribing, in asynchronous mode every {@code onNext} drains the queue.
+ */
+final class RecordingConsumer<T> implements FlowableSubscriber<T>, Observer<T>, Subscription, Disposable {
+
+    private final Recorder<T> recorder;
+    private final TestSubscriber<T> subscriber;
+    private final TestObserver<T> observer;
+    private final int requestedFusion;
+
+    private volatile Subscription subscription;
+    private volatile Disposable disposable;
+    private volatile int fusionMode = NOT_SUBSCRIBED;
+    private volatile WeakReference<Object> upstream;
+    private volatile String upstreamName;
+    private QueueFuseable<T> queue;
+    private boolean pollFailed;
+
+    /**
+     * The {@link #fusionMode()} until the source called onSubscribe.
+     */
+    static final int NOT_SUBSCRIBED = -1;
+
+    RecordingConsumer(final Recorder<T> recorder, final TestSubscriber<T> subscriber) {
+        this(recorder, subscriber, null);
+    }
+
+    RecordingConsumer(final Recorder<T> recorder, final TestSubscriber<T> subscriber, final FusionMode fusion) {
+        this.recorder = recorder;
+        this.subscriber = subscriber;
+        this.observer = null;
+        this.requestedFusion = fusion != null ? fusion.mode : QueueFuseable.NONE;
+    }
+
+    RecordingConsumer(final Recorder<T> recorder, final TestObserver<T> observer) {
+        this(recorder, observer, null);
+    }
+
+    RecordingConsumer(final Recorder<T> recorder, final TestObserver<T> observer, final FusionMode fusion) {
+        this.recorder = recorder;
+        this.subscriber = null;
+        this.observer = observer;
+        this.requestedFusion = fusion != null ? fusion.mode : QueueFuseable.NONE;
+    }
+
+    Recorder<T> recorder() {
+        return recorder;
+    }
+
+    /**
+     * Returns true if a {@link FusionMode} was requested.
+     */
+    boolean requestsFusion() {
+        return requestedFusion != QueueFuseable.NONE;
+    }
+
+    /**
+     * Returns the fusion mode established with the source, or {@link #NOT_SUBSCRIBED}.
+     */
+    int fusionMode() {
+        return fusionMode;
+    }
+
+    /**
+     * Returns a weak reference to the subscription or disposable received from the source, or null before onSubscribe.
+     * The consumer drops its own reference once the source terminated or was disposed.
+     */
+    WeakReference<Object> upstream() {
+        return upstream;
+    }
+
+    /**
+     * Returns the class name of the upstream, which stays available once it was collected.
+     */
+    String upstreamName() {
+        return upstreamName;
+    }
+
+    static String fusionModeName(int mode) {
+        switch (mode) {
+            case QueueFuseable.NONE:
+                return "NONE";
+            case QueueFuseable.SYNC:
+                return "SYNC";
+            case QueueFuseable.ASYNC:
+                return "ASYNC";
+            default:
+                return "NOT_SUBSCRIBED";
+        }
+    }
+
+    Rx2Assertions.TestObserverAssert<T> assertion() {
+        return new Rx2Assertions.TestObserverAssert<T>(observer, this);
+    }
+
+    Rx2Assertions.TestSubscriberAssert<T> subscriberAssertion() {
+        return new Rx2Assertions.TestSubscriberAssert<T>(subscriber, this, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onSubscribe(Subscription s) {
+        subscription = s;
+        upstream(s);
+        int mode = QueueFuseable.NONE;
+        if (requestedFusion != QueueFuseable.NONE && s instanceof QueueSubscription) {
+            mode = ((QueueSubscription<T>) s).requestFusion(requestedFusion);
+            if (mode != QueueFuseable.NONE) {
+                queue = (QueueSubscription<T>) s;
+            }
+        }
+        fusionMode = mode;
+        subscriber.onSubscribe(this);
+        if (mode == QueueFuseable.SYNC) {
+            drainSync();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onSubscribe(Disposable d) {
+        disposable = d;
+        upstream(d);
+        int mode = QueueFuseable.NONE;
+        if (requestedFusion != QueueFuseable.NONE && d instanceof QueueDisposable) {
+            mode = ((QueueDisposable<T>) d).requestFusion(requestedFusion);
+            if (mode != QueueFuseable.NONE) {
+                queue = (QueueDisposable<T>) d;
+            }
+        }
+        fusionMode = mode;
+        observer.onSubscribe(this);
+        if (mode == QueueFuseable.SYNC) {
+            drainSync();
+        }
+    }
+
+    private void upstream(Object upstream) {
+        this.upstream = new WeakReference<Object>(upstream);
+        this.upstreamName = upstream.getClass().getName();
+    }
+
+    /**
+     * Drops every reference to the upstream, so a terminated or disposed pipeline is only reachable through the source.
+     */
+    private void release() {
+        subscription = null;
+        disposable = null;
+        queue = null;
+    }
+
+    @Override
+    public void onNext(T value) {
+        if (pollFailed) {
+            return;
+        }
+        if (fusionMode == QueueFuseable.ASYNC) {
+            drainAsync();
+        } else {
+            record(value);
+        }
+    }
+
+    private boolean record(T value) {
+        if (!recorder.onNext(value)) {
+            if (!recorder.isCancelled()) {
+                stop();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Polls the synchronously fused queue, which signals completion by returning null.
+     */
+    private void drainSync() {
+        QueueFuseable<T> q = queue;
+        try {
+            for (;;) {
+                if (recorder.isCancelled()) {
+                    return;
+                }
+                T value = q.poll();
+                if (value == null) {
+                    onComplete();
+                    return;
+                }
+                if (!record(value)) {
+                    return;
+                }
+            }
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            error(ex);
+        }
+    }
+
+    /**
+     * Polls the values made available by the asynchronously fused source so far.
+     */
+    private void drainAsync() {
+        QueueFuseable<T> q = queue;
+        try {
+            for (;;) {
+                T value = q.poll();
+                if (value == null || !record(value)) {
+                    return;
+                }
+            }
+        } catch (Throwable ex) {
+            Exceptions.throwIfFatal(ex);
+            pollFailed = true;
+            q.clear();
+            dispose();
+            error(ex);
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        if (pollFailed) {
+            return;
+        }
+        if (fusionMode == QueueFuseable.ASYNC) {
+            drainAsync();
+            if (pollFailed) {
+                return;
+            }
+        }
+        error(error);
+    }
+
+    private void error(Throwable error) {
+        release();
+        recorder.onError(error);
+        if (subscriber != null) {
+            subscriber.onError(error);
+        } else {
+            observer.onError(error);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (pollFailed) {
+            return;
+        }
+        if (fusionMode == QueueFuseable.ASYNC) {
+            drainAsync();
+            if (pollFailed) {
+                return;
+            }
+        }
+        release();
+        recorder.onComplete();
+        if (subscriber != null) {
+            subscriber.onComplete();
+        } else {
+            observer.onComplete();
+        }
+    }
+
+    /**
+     * Cancels the recording and the upstream through the TestObserver/TestSubscriber, so both agree on the subscription state.
+     */
+    void stop() {
+        if (subscriber != null) {
+            subscriber.cancel();
+        } else {
+            observer.dispose();
+        }
+        recorder.cancel();
+    }
+
+    /**
+     * Blocks until the recording is done or the time elapses, in which case the recording is stopped.
+     */
+    void stopAfter(long time, TimeUnit unit) {
+        try {
+            if (!recorder.await(time, unit)) {
+                stop();
+            }
+        } catch (InterruptedException ex) {
+            stop();
+            throw Exceptions.propagate(ex);
+        }
+    }
+
+    @Override
+    public void request(long n) {
+        Subscription s = subscription;
+        if (s != null && fusionMode != QueueFuseable.SYNC) {
+            s.request(n);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        Subscription s = subscription;
+        if (s != null) {
+            s.cancel();
+        }
+        Disposable d = disposable;
+        if (d != null) {
+            d.dispose();
+        }
+        release();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return subscriber != null ? subscriber.isCancelled() : observer.isDisposed();
+    }
+}
@@ -1,12 +1,35 @@
 package com.github.nomisrev.rx2assertj;
 
+import com.github.nomisrev.rxassertj.core.AbstractSingleSlotAssert;
+import com.github.nomisrev.rxassertj.core.AbstractSingleValueAssert;
+import com.github.nomisrev.rxassertj.core.EventLogChecks;
+import com.github.nomisrev.rxassertj.core.Expectation;
+import com.github.nomisrev.rxassertj.core.MarbleDiagram;
+import com.github.nomisrev.rxassertj.core.ProtocolChecks;
+import com.github.nomisrev.rxassertj.core.Recorder;
+import com.github.nomisrev.rxassertj.core.Recording;
+import com.github.nomisrev.rxassertj.core.SingleSlot;
+import com.github.nomisrev.rxassertj.core.UpstreamChecks;
 import io.reactivex.Completable;
 import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
 import io.reactivex.Single;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Predicate;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.TestScheduler;
 import io.reactivex.subscribers.TestSubscriber;
+import org.assertj.core.api.AbstractObjectAssert;
+import org.reactivestreams.Publisher;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 public final class Rx2Assertions {
 
@@ -18,61 +41,335 @@ public final class Rx2Assertions {
         return new TestSubscriberAssert<T>(observer);
     }
 
+    public static UpstreamProbeAssert assertThat(final UpstreamProbe probe) {
+        return new UpstreamProbeAssert(probe);
+    }
+
+    public static <T> ProtocolProbeAssert<T> assertThat(final ProtocolProbe<T> probe) {
+        return new ProtocolProbeAssert<T>(probe);
+    }
+
     public static <T> TestObserverAssert<T> assertThatSubscriberTo(final Observable<T> observable) {
-        TestObserver<T> subscriber = new TestObserver<T>();
-        observable.subscribe(subscriber);
-        return new TestObserverAssert<T>(subscriber);
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(), new TestObserver<T>());
+        observable.subscribe(consumer);
+        return consumer.assertion();
     }
 
     public static <T> TestObserverAssert<T> assertThat(final Observable<T> observable) {
         return assertThatSubscriberTo(observable);
     }
 
-    public static <T> TestObserverAssert<T> assertThatSubscriberTo(final Completable completable) {
-        TestObserver<T> subscriber = new TestObserver<T>();
-        completable.subscribe(subscriber);
-        return new TestObserverAssert<T>(subscriber);
+    /**
+     * Subscribes to the {@code Completable} with a consumer that only keeps its terminal event.
+     */
+    public static CompletableAssert assertThatSubscriberTo(final Completable completable) {
+        SingleSlotObserver<Object> observer = new SingleSlotObserver<Object>();
+        completable.subscribe(observer);
+        return new CompletableAssert(observer);
     }
 
-    public static <T> TestObserverAssert<T> assertThat(final Completable completable) {
+    public static CompletableAssert assertThat(final Completable completable) {
         return assertThatSubscriberTo(completable);
     }
 
-    public static <T> TestObserverAssert<T> assertThatSubscriberTo(final Single<T> single) {
-        TestObserver<T> subscriber = new TestObserver<T>();
-        single.subscribe(subscriber);
-        return new TestObserverAssert<T>(subscriber);
+    /**
+     * Subscribes to the {@code Single} with a consumer that only keeps its value or error.
+     */
+    public static <T> SingleAssert<T> assertThatSubscriberTo(final Single<T> single) {
+        SingleSlotObserver<T> observer = new SingleSlotObserver<T>();
+        single.subscribe(observer);
+        return new SingleAssert<T>(observer);
     }
 
-    public static <T> TestObserverAssert<T> assertThat(final Single<T> single) {
+    public static <T> SingleAssert<T> assertThat(final Single<T> single) {
         return assertThatSubscriberTo(single);
     }
 
-    public static <T> TestObserverAssert<T> assertThatSubscriberTo(final Maybe<T> maybe) {
-        TestObserver<T> subscriber = new TestObserver<T>();
-        maybe.subscribe(subscriber);
-        return new TestObserverAssert<T>(subscriber);
+    /**
+     * Subscribes to the {@code Maybe} with a consumer that only keeps its value or terminal event.
+     */
+    public static <T> MaybeAssert<T> assertThatSubscriberTo(final Maybe<T> maybe) {
+        SingleSlotObserver<T> observer = new SingleSlotObserver<T>();
+        maybe.subscribe(observer);
+        return new MaybeAssert<T>(observer);
     }
 
-    public static <T> TestObserverAssert<T> assertThat(final Maybe<T> maybe) {
+    public static <T> MaybeAssert<T> assertThat(final Maybe<T> maybe) {
         return assertThatSubscriberTo(maybe);
     }
 
     public static <T> TestSubscriberAssert<T> assertThatSubscriberTo(final Flowable<T> flowable) {
-        TestSubscriber<T> subscriber = new TestSubscriber<T>();
-        flowable.subscribe(subscriber);
-        return new TestSubscriberAssert<T>(subscriber);
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(), new TestSubscriber<T>());
+        flowable.subscribe(consumer);
+        return consumer.subscriberAssertion();
     }
 
     public static <T> TestSubscriberAssert<T> assertThat(final Flowable<T> flowable) {
         return assertThatSubscriberTo(flowable);
     }
 
+    /**
+     * Subscribes to the {@code Observable}, recording its signals as described by the given recording, e.g. only keeping a
+     * sample of the values of a long running stream.
+     *
+     * @param recording describes what to record
+     */
+    public static <T> TestObserverAssert<T> assertThatSubscriberTo(final Observable<T> observable, final Recording<? super T> recording) {
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(recording.<T>newRecorder(), new TestObserver<T>());
+        observable.subscribe(consumer);
+        return consumer.assertion();
+    }
+
+    /**
+     * Subscribes to the {@code Flowable}, recording its signals as described by the given recording, e.g. only keeping a
+     * sample of the values of a long running stream.
+     *
+     * @param recording describes what to record
+     */
+    public static <T> TestSubscriberAssert<T> assertThatSubscriberTo(final Flowable<T> flowable, final Recording<? super T> recording) {
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(recording.<T>newRecorder(), new TestSubscriber<T>());
+        flowable.subscribe(consumer);
+        return consumer.subscriberAssertion();
+    }
+
+    /**
+     * Subscribes to the {@code Observable}, requesting queue fusion in the given mode. Values of a fused source are polled
+     * from its queue, so the assertions cover the fused path of the operators under test.
+     *
+     * @param fusion the fusion mode to request
+     * @see AbstractTestConsumerAssert#isFusedSync()
+     */
+    public static <T> TestObserverAssert<T> assertThatSubscriberTo(final Observable<T> observable, final FusionMode fusion) {
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(), new TestObserver<T>(), fusion);
+        observable.subscribe(consumer);
+        return consumer.assertion();
+    }
+
+    /**
+     * Subscribes to the {@code Flowable}, requesting queue fusion in the given mode. Values of a fused source are polled
+     * from its queue, so the assertions cover the fused path of the operators under test.
+     *
+     * @param fusion the fusion mode to request
+     * @see AbstractTestConsumerAssert#isFusedSync()
+     */
+    public static <T> TestSubscriberAssert<T> assertThatSubscriberTo(final Flowable<T> flowable, final FusionMode fusion) {
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(), new TestSubscriber<T>(), fusion);
+        flowable.subscribe(consumer);
+        return consumer.subscriberAssertion();
+    }
+
+    /**
+     * Subscribes to the {@code Observable} and records only its first {@code count} values, after which the upstream is
+     * disposed. Use it on infinite or hot sources instead of adding a {@code take} to the pipeline under test.
+     *
+     * @param count the number of values to record, must be positive
+     * @see AbstractTestConsumerAssert#respectsCancellation()
+     */
+    public static <T> TestObserverAssert<T> assertThatFirst(final int count, final Observable<T> observable) {
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(count), new TestObserver<T>());
+        observable.subscribe(consumer);
+        return consumer.assertion();
+    }
+
+    /**
+     * Subscribes to the {@code Flowable}, requests and records only its first {@code count} values, after which the upstream
+     * is cancelled. Use it on infinite or hot sources instead of adding a {@code take} to the pipeline under test.
+     *
+     * @param count the number of values to request and record, must be positive
+     * @see AbstractTestConsumerAssert#respectsCancellation()
+     */
+    public static <T> TestSubscriberAssert<T> assertThatFirst(final int count, final Flowable<T> flowable) {
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(count), new TestSubscriber<T>(count));
+        flowable.subscribe(consumer);
+        return consumer.subscriberAssertion();
+    }
+
+    /**
+     * Subscribes to the {@code Observable} and records it until it terminates or the time elapses, after which the upstream
+     * is disposed. Blocks the calling thread for at most the given time.
+     *
+     * @param time the recording time
+     * @param unit the time unit of the recording time
+     * @see AbstractTestConsumerAssert#respectsCancellation()
+     */
+    public static <T> TestObserverAssert<T> assertThatWithin(final long time, final TimeUnit unit, final Observable<T> observable) {
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(), new TestObserver<T>());
+        observable.subscribe(consumer);
+        consumer.stopAfter(time, unit);
+        return consumer.assertion();
+    }
+
+    /**
+     * Subscribes to the {@code Flowable} and records it until it terminates or the time elapses, after which the upstream
+     * is cancelled. Blocks the calling thread for at most the given time.
+     *
+     * @param time the recording time
+     * @param unit the time unit of the recording time
+     * @see AbstractTestConsumerAssert#respectsCancellation()
+     */
+    public static <T> TestSubscriberAssert<T> assertThatWithin(final long time, final TimeUnit unit, final Flowable<T> flowable) {
+        RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(), new TestSubscriber<T>());
+        flowable.subscribe(consumer);
+        consumer.stopAfter(time, unit);
+        return consumer.subscriberAssertion();
+    }
+
+    /**
+     * Subscribes to the {@code Flowable} created by the factory and records it until it terminates or the time elapses,
+     * counting the tasks it schedules meanwhile. The counting hooks are installed through {@link RxJavaPlugins} while the
+     * source is created and recorded, and restored afterwards.
+     * <p>Tasks are counted per scheduler for the computation, io, newThread and single schedulers resolved within the
+     * factory or while recording. As the hooks are global, do not run other tests scheduling work concurrently.
+     *
+     * @param time    the recording time
+     * @param unit    the time unit of the recording time
+     * @param factory creates the {@code Flowable} under test, called once with the counting hooks installed
+     * @see AbstractTestConsumerAssert#schedulesAtMost(long)
+     */
+    public static <T> TestSubscriberAssert<T> assertThatScheduling(final long time, final TimeUnit unit, final Callable<? extends Flowable<T>> factory) {
+        final Scheduling scheduling = new Scheduling();
+        final TestSubscriber<T> subscriber = new TestSubscriber<T>();
+        final RecordingConsumer<T> consumer = new RecordingConsumer<T>(new Recorder<T>(), subscriber);
+        scheduling.call(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                factory.call().subscribe(consumer);
+                consumer.stopAfter(time, unit);
+                return null;
+            }
+        });
+        return new TestSubscriberAssert<T>(subscriber, consumer, scheduling);
+    }
+
+    /**
+     * Subscribes to the candidate and the reference at the same time and asserts that they emit equal values and terminate
+     * the same way, failing with the first differing index. Both are requested from in small batches and paired as the
+     * values arrive, so the source running ahead only buffers a batch and neither output is kept in memory. Blocks the
+     * calling thread until a difference is found, both terminated or the time elapsed.
+     * <p>The returned assertion only knows the number of values of the candidate, its values are not retained. Errors are
+     * the same if they are of the same class.
+     *
+     * @param candidate the {@code Flowable} under test
+     * @param reference the source with the expected output, e.g. a legacy implementation
+     * @param time      the maximum time to wait for the verdict
+     * @param unit      the time unit of the maximum time
+     */
+    public static <T> TestSubscriberAssert<T> assertThatEmitsSameAs(final Flowable<T> candidate, final Publisher<? extends T> reference,
+                                                                    final long time, final TimeUnit unit) {
+        return Lockstep.verify(candidate, reference, null, time, unit);
+    }
+
+    /**
+     * Compares the candidate and the reference in lockstep, pairs of values being the same if the comparator returns zero.
+     *
+     * @see #assertThatEmitsSameAs(Flowable, Publisher, long, TimeUnit)
+     */
+    public static <T> TestSubscriberAssert<T> assertThatEmitsSameAs(final Flowable<T> candidate, final Publisher<? extends T> reference,
+                                                                    final Comparator<? super T> comparator, final long time, final TimeUnit unit) {
+        if (comparator == null) {
+            throw new NullPointerException("comparator is null");
+        }
+        return Lockstep.verify(candidate, reference, comparator, time, unit);
+    }
+
+    /**
+     * Compares the candidate and the reference in lockstep. As an {@code Observable} can not be asked to wait, the source
+     * running ahead buffers every value the other one did not emit yet.
+     *
+     * @see #assertThatEmitsSameAs(Flowable, Publisher, long, TimeUnit)
+     */
+    public static <T> TestObserverAssert<T> assertThatEmitsSameAs(final Observable<T> candidate, final ObservableSource<? extends T> reference,
+                                                                  final long time, final TimeUnit unit) {
+        return Lockstep.verify(candidate, reference, null, time, unit);
+    }
+
+    /**
+     * Compares the candidate and the reference in lockstep, pairs of values being the same if the comparator returns zero.
+     *
+     * @see #assertThatEmitsSameAs(Observable, ObservableSource, long, TimeUnit)
+     */
+    public static <T> TestObserverAssert<T> assertThatEmitsSameAs(final Observable<T> candidate, final ObservableSource<? extends T> reference,
+                                                                  final Comparator<? super T> comparator, final long time, final TimeUnit unit) {
+        if (comparator == null) {
+            throw new NullPointerException("comparator is null");
+        }
+        return Lockstep.verify(candidate, reference, comparator, time, unit);
+    }
+
+    /**
+     * Subscribes to the {@code Flowable}, lets the virtual time of the marble diagram pass on the scheduler and asserts that
+     * every signal arrived in its frame, e.g. {@code assertThatMarbles(source, "-a--b-c|", values, scheduler)}. A frame lasts
+     * {@link MarbleDiagram#FRAME_MILLIS} milliseconds, see {@link MarbleDiagram} for the syntax.
+     * <p>Operators of the source that are timed, like {@code debounce} or {@code sample}, have to run on the given scheduler.
+     *
+     * @param marbles   the expected timeline
+     * @param values    the values the letters of the diagram stand for
+     * @param scheduler the scheduler driving the source
+     * @see #hotMarbles(String, Map, TestScheduler)
+     */
+    public static <T> TestSubscriberAssert<T> assertThatMarbles(final Flowable<T> flowable, final String marbles,
+                                                               final Map<String, ? extends T> values, final TestScheduler scheduler) {
+        if (values == null) {
+            throw new NullPointerException("values is null");
+        }
+        return Marbles.verify(flowable, marbles, values, scheduler);
+    }
+
+    /**
+     * Asserts the timeline of a {@code Flowable} of strings, each letter of the diagram standing for itself.
+     *
+     * @see #assertThatMarbles(Flowable, String, Map, TestScheduler)
+     */
+    public static TestSubscriberAssert<String> assertThatMarbles(final Flowable<String> flowable, final String marbles,
+                                                                 final TestScheduler scheduler) {
+        return Marbles.verify(flowable, marbles, null, scheduler);
+    }
+
+    /**
+     * Returns a processor that emits the signals of the marble diagram as the virtual time of the scheduler passes, starting
+     * now. Use it as input of the pipeline under test, a {@code #} fails the processor with a {@link RuntimeException}.
+     *
+     * @param marbles   the timeline to emit
+     * @param values    the values the letters of the diagram stand for
+     * @param scheduler the scheduler emitting the signals
+     */
+    public static <T> PublishProcessor<T> hotMarbles(final String marbles, final Map<String, ? extends T> values,
+                                                     final TestScheduler scheduler) {
+        if (values == null) {
+            throw new NullPointerException("values is null");
+        }
+        return Marbles.hot(marbles, values, scheduler);
+    }
+
+    /**
+     * Returns a processor of strings that emits the signals of the marble diagram, each letter standing for itself.
+     *
+     * @see #hotMarbles(String, Map, TestScheduler)
+     */
+    public static PublishProcessor<String> hotMarbles(final String marbles, final TestScheduler scheduler) {
+        return Marbles.hot(marbles, null, scheduler);
+    }
+
+    /**
+     * Returns a consumer verifying a single subscription against the expectation while the signals arrive. The expectation
+     * is only built once and can back any number of consumers, also concurrently.
+     *
+     * @param expectation the expected signals
+     * @see ExpectationSubscriber#awaitSatisfied(long, TimeUnit)
+     */
+    public static <T> ExpectationSubscriber<T> subscriberFor(final Expectation<T> expectation) {
+        return new ExpectationSubscriber<T>(expectation);
+    }
+
    public static class TestObserverAssert<T> extends  AbstractTestConsumerAssert<T,TestObserver<T>> {
        public TestObserverAssert(final TestObserver<T> actual) {
            super(actual);
        }
 
+       TestObserverAssert(final TestObserver<T> actual, final RecordingConsumer<T> consumer) {
+           super(actual, consumer, null);
+       }
+
        /**
         * {@inheritDoc}
         */
@@ -97,6 +394,10 @@ public final class Rx2Assertions {
             super(actual);
         }
 
+        TestSubscriberAssert(final TestSubscriber<T> actual, final RecordingConsumer<T> consumer, final Scheduling scheduling) {
+            super(actual, consumer, scheduling);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -116,8 +417,251 @@ public final class Rx2Assertions {
         }
     }
 
+    /**
+     * The checks of the {@code Single} and {@code Maybe} assertions taking RxJava 2 predicates.
+     *
+     * @param <S> the type of the assertion
+     * @param <T> the value type
+     */
+    public abstract static class SingleValueAssert<S extends SingleValueAssert<S, T>, T> extends AbstractSingleValueAssert<S, T> {
+
+        protected SingleValueAssert(final SingleSlot<T> actual, final Class<?> selfType) {
+            super(actual, selfType);
+        }
+
+        /**
+         * Assert that the source succeeded with a value for which the predicate returns true.
+         *
+         * @param valuePredicate the predicate that receives the value and should return true for the expected value.
+         */
+        public final S hasSingleValue(Predicate<T> valuePredicate) {
+            EventLogChecks.assertValueCount(actual, 1);
+            if (!test(valuePredicate, actual.valueAt(0))) {
+                throw EventLogChecks.fail(actual, "Value not present");
+            }
+            return myself;
+        }
+
+        /**
+         * Assert that the source succeeded with a value at the given index, i.e. zero, for which the predicate returns true.
+         *
+         * @param index          the position to assert on
+         * @param valuePredicate the predicate that receives the value and should return true for the expected value.
+         */
+        public final S hasValueAt(int index, Predicate<T> valuePredicate) {
+            if (!test(valuePredicate, EventLogChecks.retainedValueAt(actual, index))) {
+                throw EventLogChecks.fail(actual, "Value not present");
+            }
+            return myself;
+        }
+
+        /**
+         * Assert that the source failed with exactly one error for which the predicate returns true.
+         *
+         * @param errorPredicate the predicate that receives the error Throwable and should return true for expected errors.
+         */
+        public final S hasError(Predicate<Throwable> errorPredicate) {
+            if (!test(errorPredicate, EventLogChecks.singleError(actual))) {
+                throw EventLogChecks.fail(actual, "Error not present");
+            }
+            return myself;
+        }
+
+        /**
+         * Assert that the source failed with an error for which the predicate returns true.
+         *
+         * @param errorPredicate the predicate that receives the error Throwable
+         *                       and should return true for expected errors.
+         * @param values         the expected values, kept for the signature shared with the test consumer assertions
+         * @see #hasFailure(Class, Object...)
+         */
+        public final S hasFailure(Predicate<Throwable> errorPredicate, T... values) {
+            isSubscribed();
+            EventLogChecks.assertValues(actual, values);
+            hasError(errorPredicate);
+            EventLogChecks.assertNotComplete(actual);
+            return myself;
+        }
+    }
+
+    public static class SingleAssert<T> extends SingleValueAssert<SingleAssert<T>, T> {
+
+        public SingleAssert(final SingleSlot<T> actual) {
+            super(actual, SingleAssert.class);
+        }
+
+        /**
+         * Assert that the {@code Single} succeeded with a value equal to the given one and without errors.
+         *
+         * @param value the value to expect
+         */
+        public SingleAssert<T> hasResult(T value) {
+            EventLogChecks.assertValues(actual, value);
+            EventLogChecks.assertNoErrors(actual);
+            EventLogChecks.assertComplete(actual);
+            return this;
+        }
+    }
+
+    public static class MaybeAssert<T> extends SingleValueAssert<MaybeAssert<T>, T> {
+
+        public MaybeAssert(final SingleSlot<T> actual) {
+            super(actual, MaybeAssert.class);
+        }
+
+        /**
+         * Assert that the {@code Maybe} succeeded with the given value, or completed empty if none is given, without errors.
+         *
+         * @param values the value to expect, if any
+         */
+        public MaybeAssert<T> hasResult(T... values) {
+            EventLogChecks.assertValues(actual, values);
+            EventLogChecks.assertNoErrors(actual);
+            EventLogChecks.assertComplete(actual);
+            return this;
+        }
+    }
+
+    public static class CompletableAssert extends AbstractSingleSlotAssert<CompletableAssert, Object> {
+
+        public CompletableAssert(final SingleSlot<Object> actual) {
+            super(actual, CompletableAssert.class);
+        }
+
+        /**
+         * Assert that the {@code Completable} failed with exactly one error for which the predicate returns true.
+         *
+         * @param errorPredicate the predicate that receives the error Throwable and should return true for expected errors.
+         */
+        public CompletableAssert hasError(Predicate<Throwable> errorPredicate) {
+            if (!test(errorPredicate, EventLogChecks.singleError(actual))) {
+                throw EventLogChecks.fail(actual, "Error not present");
+            }
+            return this;
+        }
+
+        /**
+         * Assert that the {@code Completable} failed with an error for which the predicate returns true.
+         *
+         * @param errorPredicate the predicate that receives the error Throwable
+         *                       and should return true for expected errors.
+         * @see #hasFailure(Class)
+         */
+        public CompletableAssert hasFailure(Predicate<Throwable> errorPredicate) {
+            isSubscribed();
+            hasError(errorPredicate);
+            EventLogChecks.assertNotComplete(actual);
+            return this;
+        }
+    }
+
+    public static class UpstreamProbeAssert extends AbstractObjectAssert<UpstreamProbeAssert, UpstreamProbe> {
+
+        public UpstreamProbeAssert(final UpstreamProbe actual) {
+            super(actual, UpstreamProbeAssert.class);
+        }
+
+        /**
+         * Asserts that the probed source was subscribed to exactly the given number of times, counting re-subscriptions
+         * such as those of {@code retry} or {@code repeat}. A source shared through {@code cache()} or {@code share()} is
+         * subscribed to once however many consumers there are.
+         *
+         * @param count the expected number of subscriptions
+         */
+        public UpstreamProbeAssert subscribedUpstreamExactly(long count) {
+            UpstreamChecks.assertSubscriptions(actual.log(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that the probed source was subscribed to at most the given number of times.
+         *
+         * @param count the maximum number of subscriptions
+         * @see #subscribedUpstreamExactly(long)
+         */
+        public UpstreamProbeAssert subscribedUpstreamAtMost(long count) {
+            UpstreamChecks.assertSubscriptionsAtMost(actual.log(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that no request for {@code Long.MAX_VALUE} items reached the probed source, which would turn its
+         * backpressure off.
+         */
+        public UpstreamProbeAssert neverRequestsUnbounded() {
+            UpstreamChecks.assertNoUnboundedRequests(actual.log());
+            return this;
+        }
+
+        /**
+         * Asserts that the items requested from the probed source but not yet delivered never exceeded the given number,
+         * for any one subscription. This bounds what the source may buffer for the pipeline.
+         *
+         * @param count the maximum outstanding demand
+         */
+        public UpstreamProbeAssert maxOutstandingDemandAtMost(long count) {
+            UpstreamChecks.assertMaxOutstandingDemandAtMost(actual.log(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that the probed source was requested from, and never for more than the given number of items at once,
+         * e.g. {@code requestBatchesOf(128)} for an {@code observeOn} with the default prefetch, which replenishes in
+         * smaller batches after its first request.
+         *
+         * @param count the largest allowed request
+         */
+        public UpstreamProbeAssert requestBatchesOf(long count) {
+            UpstreamChecks.assertRequestBatchesAtMost(actual.log(), count);
+            return this;
+        }
+    }
+
+    public static class ProtocolProbeAssert<T> extends AbstractObjectAssert<ProtocolProbeAssert<T>, ProtocolProbe<T>> {
+
+        public ProtocolProbeAssert(final ProtocolProbe<T> actual) {
+            super(actual, ProtocolProbeAssert.class);
+        }
+
+        /**
+         * Asserts that the probed source never signalled after a terminal event, was never subscribed twice, never
+         * delivered more than requested and was never requested a non-positive amount.
+         */
+        public ProtocolProbeAssert<T> hasNoProtocolViolations() {
+            ProtocolChecks.assertNoViolations(actual.log());
+            return this;
+        }
+
+        /**
+         * Asserts that every sampled value matched the condition of the probe.
+         */
+        public ProtocolProbeAssert<T> hasNoConditionFailures() {
+            ProtocolChecks.assertNoConditionFailures(actual.log());
+            return this;
+        }
+
+        /**
+         * Asserts that at least the given number of values were checked against the condition, so a passing
+         * {@link #hasNoConditionFailures()} is not vacuous.
+         *
+         * @param count the minimum number of sampled values
+         */
+        public ProtocolProbeAssert<T> sampledAtLeast(long count) {
+            ProtocolChecks.assertSampledAtLeast(actual.log(), count);
+            return this;
+        }
+    }
+
 
     private Rx2Assertions() {
         throw new AssertionError();
     }
-}
\ No newline at end of file
+
+    private static <V> boolean test(Predicate<? super V> predicate, V value) {
+        try {
+            return predicate.test(value);
+        } catch (Exception ex) {
+            throw Exceptions.propagate(ex);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.nomisrev.rx2assertj;
+
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.exceptions.Exceptions;
+import io.reactivex.functions.Function;
+import io.reactivex.plugins.RxJavaPlugins;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the tasks scheduled while an action runs, through {@link RxJavaPlugins}.
+ * <p>The schedule handler counts every task, whatever scheduler it runs on. The computation, io, newThread and single
+ * schedulers are additionally wrapped in a scheduler counting its own tasks, so only pipelines assembled while the hooks
+ * are installed are counted per scheduler. As the plugins are global, tasks scheduled by other threads in the meantime are
+ * counted too.
+ */
+final class Scheduling {
+
+    private final AtomicLong total = new AtomicLong();
+    private final List<CountingScheduler> schedulers = new ArrayList<CountingScheduler>(4);
+
+    /**
+     * Runs the given action with the counting hooks installed, restoring the previous hooks afterwards.
+     */
+    <R> R call(final Callable<R> action) {
+        if (RxJavaPlugins.isLockdown()) {
+            throw new IllegalStateException("RxJavaPlugins are locked down, scheduling can not be counted");
+        }
+        final Function<? super Runnable, ? extends Runnable> schedule = RxJavaPlugins.getScheduleHandler();
+        Function<? super Scheduler, ? extends Scheduler> computation = RxJavaPlugins.getComputationSchedulerHandler();
+        Function<? super Scheduler, ? extends Scheduler> io = RxJavaPlugins.getIoSchedulerHandler();
+        Function<? super Scheduler, ? extends Scheduler> newThread = RxJavaPlugins.getNewThreadSchedulerHandler();
+        Function<? super Scheduler, ? extends Scheduler> single = RxJavaPlugins.getSingleSchedulerHandler();
+        RxJavaPlugins.setScheduleHandler(new Function<Runnable, Runnable>() {
+            @Override
+            public Runnable apply(Runnable run) throws Exception {
+                total.incrementAndGet();
+                return schedule != null ? schedule.apply(run) : run;
+            }
+        });
+        RxJavaPlugins.setComputationSchedulerHandler(counting("computation", computation));
+        RxJavaPlugins.setIoSchedulerHandler(counting("io", io));
+        RxJavaPlugins.setNewThreadSchedulerHandler(counting("newThread", newThread));
+        RxJavaPlugins.setSingleSchedulerHandler(counting("single", single));
+        try {
+            return action.call();
+        } catch (Exception ex) {
+            throw Exceptions.propagate(ex);
+        } finally {
+            RxJavaPlugins.setScheduleHandler(schedule);
+            RxJavaPlugins.setComputationSchedulerHandler(computation);
+            RxJavaPlugins.setIoSchedulerHandler(io);
+            RxJavaPlugins.setNewThreadSchedulerHandler(newThread);
+            RxJavaPlugins.setSingleSchedulerHandler(single);
+        }
+    }
+
+    /**
+     * Returns the number of tasks scheduled on any scheduler.
+     */
+    long total() {
+        return total.get();
+    }
+
+    /**
+     * Returns the number of tasks scheduled on the given scheduler, e.g. {@code Schedulers.io()}.
+     */
+    long count(Scheduler scheduler) {
+        CountingScheduler counting = find(scheduler);
+        return counting != null ? counting.count.get() : 0;
+    }
+
+    /**
+     * Returns the name of the given scheduler, e.g. {@code io}, if it was counted.
+     */
+    String name(Scheduler scheduler) {
+        CountingScheduler counting = find(scheduler);
+        return counting != null ? counting.name : String.valueOf(scheduler);
+    }
+
+    private CountingScheduler find(Scheduler scheduler) {
+        synchronized (schedulers) {
+            for (CountingScheduler counting : schedulers) {
+                if (counting.delegate == scheduler || counting == scheduler) {
+                    return counting;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder("total=").append(total.get());
+        synchronized (schedulers) {
+            for (CountingScheduler counting : schedulers) {
+                b.append(", ").append(counting.name).append('=').append(counting.count.get());
+            }
+        }
+        return b.toString();
+    }
+
+    private Function<Scheduler, Scheduler> counting(final String name, final Function<? super Scheduler, ? extends Scheduler> previous) {
+        return new Function<Scheduler, Scheduler>() {
+            @Override
+            public Scheduler apply(Scheduler scheduler) throws Exception {
+                Scheduler delegate = previous != null ? previous.apply(scheduler) : scheduler;
+                synchronized (schedulers) {
+                    for (CountingScheduler counting : schedulers) {
+                        if (counting.delegate == delegate) {
+                            return counting;
+                        }
+                    }
+                    CountingScheduler counting = new CountingScheduler(name, delegate);
+                    schedulers.add(counting);
+                    return counting;
+                }
+            }
+        };
+    }
+
+    static final class CountingScheduler extends Scheduler {
+
+        final String name;
+        final Scheduler delegate;
+        final AtomicLong count = new AtomicLong();
+
+        CountingScheduler(final String name, final Scheduler delegate) {
+            this.name = name;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Worker createWorker() {
+            return new CountingWorker(delegate.createWorker(), count);
+        }
+
+        @Override
+        public long now(TimeUnit unit) {
+            return delegate.now(unit);
+        }
+
+        @Override
+        public Disposable scheduleDirect(Runnable run, long delay, TimeUnit unit) {
+            count.incrementAndGet();
+            return delegate.scheduleDirect(run, delay, unit);
+        }
+
+        @Override
+        public Disposable schedulePeriodicallyDirect(Runnable run, long initialDelay, long period, TimeUnit unit) {
+            count.incrementAndGet();
+            return delegate.schedulePeriodicallyDirect(run, initialDelay, period, unit);
+        }
+    }
+
+    static final class CountingWorker extends Scheduler.Worker {
+
+        private final Scheduler.Worker delegate;
+        private final AtomicLong count;
+
+        CountingWorker(final Scheduler.Worker delegate, final AtomicLong count) {
+            this.delegate = delegate;
+            this.count = count;
+        }
+
+        @Override
+        public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+            count.incrementAndGet();
+            return delegate.schedule(run, delay, unit);
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+            count.incrementAndGet();
+            return delegate.schedulePeriodically(run, initialDelay, period, unit);
+        }
+
+        @Override
+        public long now(TimeUnit unit) {
+            return delegate.now(unit);
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return delegate.isDisposed();
+        }
+    }
+}
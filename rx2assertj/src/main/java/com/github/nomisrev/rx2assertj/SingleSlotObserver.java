@@ -0,0 +1,50 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.SingleSlot;
+import io.reactivex.CompletableObserver;
+import io.reactivex.MaybeObserver;
+import io.reactivex.SingleObserver;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.disposables.DisposableHelper;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consumer subscribed by {@link Rx2Assertions} to a {@code Single}, {@code Maybe} or {@code Completable}. The consumer is
+ * its own {@link SingleSlot}, so a subscription allocates nothing but this object and the disposable reference.
+ */
+final class SingleSlotObserver<T> extends SingleSlot<T> implements SingleObserver<T>, MaybeObserver<T>, CompletableObserver,
+        Disposable {
+
+    private final AtomicReference<Disposable> upstream = new AtomicReference<Disposable>();
+
+    @Override
+    public void onSubscribe(Disposable d) {
+        DisposableHelper.setOnce(upstream, d);
+    }
+
+    @Override
+    public boolean isSubscribed() {
+        return upstream.get() != null;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return isDisposed();
+    }
+
+    @Override
+    public void cancel() {
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        DisposableHelper.dispose(upstream);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return DisposableHelper.isDisposed(upstream.get());
+    }
+}
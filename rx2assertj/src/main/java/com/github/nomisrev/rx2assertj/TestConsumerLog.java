@@ -0,0 +1,54 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.EventLog;
+import io.reactivex.observers.BaseTestConsumer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EventLog} view over the lists of a {@link BaseTestConsumer} that was subscribed by the caller.
+ */
+final class TestConsumerLog<T> implements EventLog<T> {
+
+    private final BaseTestConsumer<T, ?> consumer;
+
+    TestConsumerLog(final BaseTestConsumer<T, ?> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public long valueCount() {
+        return consumer.valueCount();
+    }
+
+    @Override
+    public T valueAt(int index) {
+        return consumer.values().get(index);
+    }
+
+    @Override
+    public List<T> values() {
+        return consumer.values();
+    }
+
+    @Override
+    public List<Throwable> errors() {
+        return consumer.errors();
+    }
+
+    @Override
+    public long completions() {
+        return consumer.completions();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return consumer.isTerminated();
+    }
+
+    @Override
+    public boolean await(long time, TimeUnit unit) throws InterruptedException {
+        return consumer.await(time, unit);
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.EmissionTrace;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import org.reactivestreams.Publisher;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays an {@link EmissionTrace} as a {@code Flowable} that emits the recorded values with their recorded timing.
+ * <pre>{@code
+ * EmissionTrace<String> trace = EmissionTrace.readFrom(in, EmissionTrace.STRINGS);
+ * TestScheduler scheduler = new TestScheduler();
+ * TestSubscriber<List<String>> subscriber = pipeline(TraceReplay.replay(trace, scheduler)).test();
+ * scheduler.advanceTimeBy(trace.terminationOffset(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+ * }</pre>
+ * On a {@code TestScheduler} the whole trace plays as soon as its virtual time is advanced, on a real scheduler it can be
+ * sped up. A trace of a failed stream fails with a {@link RuntimeException} carrying the recorded error.
+ */
+public final class TraceReplay {
+
+    /**
+     * Replays the trace at its recorded speed, each subscription starting from the first value.
+     */
+    public static <T> Flowable<T> replay(final EmissionTrace<T> trace, final Scheduler scheduler) {
+        return replay(trace, 1, scheduler);
+    }
+
+    /**
+     * Replays the trace sped up by the given factor, {@code 2} playing it in half the recorded time.
+     *
+     * @param speed the factor the recorded offsets of the signals are divided by, must be positive
+     */
+    public static <T> Flowable<T> replay(final EmissionTrace<T> trace, final double speed, final Scheduler scheduler) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed > 0 required but it was " + speed);
+        }
+        return Flowable.defer(new Callable<Publisher<T>>() {
+            @Override
+            public Publisher<T> call() {
+                final long start = scheduler.now(TimeUnit.NANOSECONDS);
+                return Flowable.range(0, trace.size())
+                        .concatMap(new Function<Integer, Publisher<T>>() {
+                            @Override
+                            public Publisher<T> apply(final Integer index) {
+                                return Flowable.timer(delay(trace.offsetAt(index, TimeUnit.NANOSECONDS), speed, start, scheduler),
+                                        TimeUnit.NANOSECONDS, scheduler)
+                                        .map(new Function<Long, T>() {
+                                            @Override
+                                            public T apply(Long tick) {
+                                                return trace.values().get(index);
+                                            }
+                                        });
+                            }
+                        })
+                        .concatWith(termination(trace, speed, start, scheduler));
+            }
+        });
+    }
+
+    private static <T> Flowable<T> termination(final EmissionTrace<T> trace, final double speed, final long start,
+                                               final Scheduler scheduler) {
+        if (trace.termination() == EmissionTrace.RUNNING) {
+            return Flowable.never();
+        }
+        return Flowable.defer(new Callable<Publisher<Long>>() {
+            @Override
+            public Publisher<Long> call() {
+                return Flowable.timer(delay(trace.terminationOffset(TimeUnit.NANOSECONDS), speed, start, scheduler),
+                        TimeUnit.NANOSECONDS, scheduler);
+            }
+        })
+                .flatMap(new Function<Long, Publisher<T>>() {
+                    @Override
+                    public Publisher<T> apply(Long tick) {
+                        return trace.termination() == EmissionTrace.FAILED
+                                ? Flowable.<T>error(new RuntimeException(trace.errorMessage()))
+                                : Flowable.<T>empty();
+                    }
+                });
+    }
+
+    /**
+     * Returns the time left until the signal at the given offset is due, measured from the start of the subscription so
+     * processing delays and rounding do not add up over the trace.
+     */
+    private static long delay(long offset, double speed, long start, Scheduler scheduler) {
+        long elapsed = scheduler.now(TimeUnit.NANOSECONDS) - start;
+        return Math.max(0, scaled(offset, speed) - elapsed);
+    }
+
+    private static long scaled(long offset, double speed) {
+        return (long) (offset / speed);
+    }
+
+    private TraceReplay() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.nomisrev.rx2assertj;
+
+import com.github.nomisrev.rxassertj.core.UpstreamLog;
+import io.reactivex.Completable;
+import io.reactivex.CompletableSource;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeSource;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Single;
+import io.reactivex.SingleSource;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.LongConsumer;
+import org.reactivestreams.Publisher;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Wraps a source to count what reaches it from the pipeline built on top of it, checked with
+ * {@link Rx2Assertions#assertThat(UpstreamProbe)}.
+ * <pre>{@code
+ * UpstreamProbe probe = new UpstreamProbe();
+ * Single<User> user = repository.user(probe.wrap(api.fetchUser()));
+ * assertThatSubscriberTo(user.zipWith(user, ...)).isComplete();
+ * assertThat(probe).subscribedUpstreamExactly(1);
+ * }</pre>
+ */
+public final class UpstreamProbe {
+
+    private final UpstreamLog log = new UpstreamLog();
+
+    public UpstreamLog log() {
+        return log;
+    }
+
+    /**
+     * Wraps the {@code Flowable}, also counting the requests that reach it and the values it delivers.
+     */
+    public <T> Flowable<T> wrap(final Flowable<T> source) {
+        return Flowable.defer(new Callable<Publisher<T>>() {
+            @Override
+            public Publisher<T> call() {
+                final UpstreamLog.Demand demand = log.onSubscribe();
+                return source
+                        .doOnNext(new Consumer<T>() {
+                            @Override
+                            public void accept(T value) {
+                                demand.onDeliver();
+                            }
+                        })
+                        .doOnRequest(new LongConsumer() {
+                            @Override
+                            public void accept(long n) {
+                                demand.onRequest(n);
+                            }
+                        });
+            }
+        });
+    }
+
+    public <T> Observable<T> wrap(final Observable<T> source) {
+        return Observable.defer(new Callable<ObservableSource<T>>() {
+            @Override
+            public ObservableSource<T> call() {
+                log.onSubscribe();
+                return source;
+            }
+        });
+    }
+
+    public <T> Single<T> wrap(final Single<T> source) {
+        return Single.defer(new Callable<SingleSource<T>>() {
+            @Override
+            public SingleSource<T> call() {
+                log.onSubscribe();
+                return source;
+            }
+        });
+    }
+
+    public <T> Maybe<T> wrap(final Maybe<T> source) {
+        return Maybe.defer(new Callable<MaybeSource<T>>() {
+            @Override
+            public MaybeSource<T> call() {
+                log.onSubscribe();
+                return source;
+            }
+        });
+    }
+
+    public Completable wrap(final Completable source) {
+        return Completable.defer(new Callable<CompletableSource>() {
+            @Override
+            public CompletableSource call() {
+                log.onSubscribe();
+                return source;
+            }
+        });
+    }
+}
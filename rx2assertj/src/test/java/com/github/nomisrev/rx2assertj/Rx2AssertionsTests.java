@@ -1,24 +1,61 @@
 package com.github.nomisrev.rx2assertj;
 
 
+import com.github.nomisrev.rxassertj.core.AssertionCheck;
+import com.github.nomisrev.rxassertj.core.BulkAssertions;
+import com.github.nomisrev.rxassertj.core.EmissionTrace;
+import com.github.nomisrev.rxassertj.core.Expectation;
+import com.github.nomisrev.rxassertj.core.ExpectedSequence;
+import com.github.nomisrev.rxassertj.core.Recording;
+import com.github.nomisrev.rxassertj.core.Retention;
+import com.github.nomisrev.rxassertj.core.SignalPattern;
+import com.github.nomisrev.rxassertj.core.StreamDigest;
 import io.reactivex.*;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.BiFunction;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.LongConsumer;
 import io.reactivex.functions.Predicate;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subscribers.TestSubscriber;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.Condition;
 import org.assertj.core.api.exception.RuntimeIOException;
 import org.junit.Before;
 import org.junit.Test;
+import io.reactivex.internal.subscriptions.BooleanSubscription;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.condition.AllOf.allOf;
 import static org.assertj.core.util.Sets.newLinkedHashSet;
@@ -528,6 +565,1014 @@ public class Rx2AssertionsTests {
                 .isComplete();
     }
 
+    @Test
+    public void firstShouldCancelInfiniteFlowableOnceQuotaIsMet() {
+        Rx2Assertions.assertThatFirst(3, Flowable.interval(1, TimeUnit.MILLISECONDS))
+                .awaitDone(1, TimeUnit.SECONDS)
+                .hasValues(0L, 1L, 2L)
+                .isNotTerminated()
+                .isCancelled()
+                .respectsCancellation();
+    }
+
+    @Test
+    public void firstShouldDisposeHotObservableOnceQuotaIsMet() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        Rx2Assertions.TestObserverAssert<Integer> assertion = Rx2Assertions.assertThatFirst(2, subject);
+        subject.onNext(1);
+        subject.onNext(2);
+        subject.onNext(3);
+        assertion.hasValues(1, 2)
+                .isCancelled()
+                .respectsCancellation();
+        Assertions.assertThat(subject.hasObservers()).isFalse();
+    }
+
+    @Test
+    public void firstShouldOnlyRequestQuotaFromFlowable() {
+        final List<Long> requests = new ArrayList<Long>();
+        Rx2Assertions.assertThatFirst(2, Flowable.range(1, 10).doOnRequest(new LongConsumer() {
+            @Override
+            public void accept(long n) throws Exception {
+                requests.add(n);
+            }
+        }))
+                .hasValues(1, 2)
+                .respectsCancellation();
+        Assertions.assertThat(requests).containsExactly(2L);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void sourceIgnoringCancellationShouldFailRespectsCancellation() {
+        Rx2Assertions.assertThatFirst(1, Observable.unsafeCreate(new ObservableSource<Integer>() {
+            @Override
+            public void subscribe(Observer<? super Integer> observer) {
+                observer.onSubscribe(Disposables.empty());
+                observer.onNext(1);
+                observer.onNext(2);
+                observer.onComplete();
+            }
+        }))
+                .hasValues(1)
+                .isNotComplete()
+                .respectsCancellation();
+    }
+
+    @Test
+    public void withinShouldCancelSourceThatDoesNotTerminateInTime() {
+        Rx2Assertions.assertThatWithin(50, TimeUnit.MILLISECONDS, Flowable.never())
+                .hasNoValues()
+                .isNotTerminated()
+                .isCancelled()
+                .respectsCancellation();
+    }
+
+    @Test
+    public void withinShouldRecordSourceThatTerminatesInTime() {
+        Rx2Assertions.assertThatWithin(1, TimeUnit.SECONDS, Observable.just(1).delay(10, TimeUnit.MILLISECONDS))
+                .hasResult(1);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void completedSourceShouldFailCancelledCheck() {
+        Rx2Assertions.assertThatSubscriberTo(Observable.just(1))
+                .isCancelled();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void respectsCancellationShouldFailWithoutRecording() {
+        Rx2Assertions.assertThat(testObserver)
+                .respectsCancellation();
+    }
+
+    @Test
+    public void reservoirRecordingShouldCountEveryValueAndSampleSome() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 100000), Recording.retaining(Retention.reservoir(100)))
+                .hasValueCount(100000)
+                .isComplete()
+                .sampleSatisfies(new Condition<Integer>("in range") {
+                    @Override
+                    public boolean matches(Integer value) {
+                        return value >= 0 && value < 100000;
+                    }
+                })
+                .eachItemMatches(new Condition<Integer>("not null") {
+                    @Override
+                    public boolean matches(Integer value) {
+                        return value != null;
+                    }
+                });
+    }
+
+    @Test(expected = AssertionError.class)
+    public void sampleSatisfiesShouldFailOnNonMatchingSample() {
+        Rx2Assertions.assertThatSubscriberTo(Observable.range(0, 1000), Recording.retaining(Retention.reservoir(1000)))
+                .sampleSatisfies(FAILING_CONDITION);
+    }
+
+    @Test
+    public void lastRetentionShouldCheckTailOfLongStream() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 1000000), Recording.retaining(Retention.last(10)))
+                .hasValueCount(1000000)
+                .isComplete()
+                .hasValueAt(999999, new Predicate<Integer>() {
+                    @Override
+                    public boolean test(Integer value) {
+                        return value == 999999;
+                    }
+                });
+    }
+
+    @Test(expected = AssertionError.class)
+    public void valueChecksShouldFailOnSampledRecording() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 3), Recording.retaining(Retention.reservoir(2)))
+                .hasValues(0, 1, 2);
+    }
+
+    @Test
+    public void statisticsShouldCoverEveryEmittedNumber() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(1, 100000), Recording.retaining(Retention.reservoir(10)).withStatistics())
+                .hasValueCount(100000)
+                .hasMeanBetween(50000, 50001)
+                .hasStdDevBelow(30000)
+                .hasMinAtLeast(1)
+                .hasMaxAtMost(100000)
+                .hasQuantileBelow(0.5, 51000)
+                .hasQuantileBelow(0.99, 100000);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void quantileCheckShouldFailOnSlowTail() {
+        Rx2Assertions.assertThatSubscriberTo(Observable.range(1, 100), Recording.defaults().withStatistics())
+                .hasQuantileBelow(0.99, 90);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void statisticsChecksShouldFailWithoutStatisticsRecording() {
+        Rx2Assertions.assertThatSubscriberTo(Observable.range(1, 100))
+                .hasMeanBetween(0, 100);
+    }
+
+    @Test
+    public void arrivalTimesShouldPassForSteadySource() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.interval(1, TimeUnit.MILLISECONDS).take(20), Recording.defaults().withArrivalTimes())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(20)
+                .hasMaxGapBelow(1, TimeUnit.SECONDS)
+                .hasJitterBelow(1, TimeUnit.SECONDS)
+                .hasNoStallLongerThan(1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void maxGapCheckShouldFailOnStall() {
+        Observable<Integer> stalling = Observable.just(1, 2).concatWith(Observable.just(3).delay(100, TimeUnit.MILLISECONDS));
+        Rx2Assertions.assertThatSubscriberTo(stalling, Recording.defaults().withArrivalTimes())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(3)
+                .hasMaxGapBelow(50, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void stallCheckShouldFailOnLateFirstItem() {
+        Rx2Assertions.assertThatSubscriberTo(Observable.just(1).delay(100, TimeUnit.MILLISECONDS), Recording.defaults().withArrivalTimes())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasMaxGapBelow(1, TimeUnit.MILLISECONDS)
+                .hasNoStallLongerThan(50, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void observeOnShouldDeliverOnOneComputationThread() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 100).observeOn(Schedulers.computation()))
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(100)
+                .deliversOnThreadMatching("RxComputationThreadPool-\\d+")
+                .usesAtMostThreads(1)
+                .hasAtMostThreadHops(0);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void threadHopCheckShouldFailWhenDeliveryMovesThreads() {
+        Observable<Integer> hopping = Observable.just(1).concatWith(Observable.just(2).subscribeOn(Schedulers.io()));
+        Rx2Assertions.assertThatSubscriberTo(hopping)
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValues(1, 2)
+                .hasAtMostThreadHops(0);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void threadNameCheckShouldFailOnCallerThread() {
+        Rx2Assertions.assertThatSubscriberTo(Observable.just(1))
+                .deliversOnThreadMatching("RxComputationThreadPool-\\d+");
+    }
+
+    @Test
+    public void batchedObserveOnShouldScheduleFewTasks() {
+        Rx2Assertions.assertThatScheduling(5, TimeUnit.SECONDS, new Callable<Flowable<Integer>>() {
+            @Override
+            public Flowable<Integer> call() {
+                return Flowable.range(0, 100).observeOn(Schedulers.computation());
+            }
+        })
+                .hasValueCount(100)
+                .isComplete()
+                .schedulesAtMost(10)
+                .schedulesAtMostOn(Schedulers.computation(), 10)
+                .schedulesNothingOn(Schedulers.io());
+        Assertions.assertThat(RxJavaPlugins.getScheduleHandler()).isNull();
+        Assertions.assertThat(RxJavaPlugins.getComputationSchedulerHandler()).isNull();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void taskPerItemShouldFailScheduleLimit() {
+        Rx2Assertions.assertThatScheduling(5, TimeUnit.SECONDS, new Callable<Flowable<Integer>>() {
+            @Override
+            public Flowable<Integer> call() {
+                return Flowable.range(0, 100).concatMap(new Function<Integer, Flowable<Integer>>() {
+                    @Override
+                    public Flowable<Integer> apply(Integer value) {
+                        return Flowable.just(value).subscribeOn(Schedulers.computation());
+                    }
+                });
+            }
+        })
+                .hasValueCount(100)
+                .schedulesAtMost(10);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void ioCheckShouldFailWhenWorkRunsOnIo() {
+        Rx2Assertions.assertThatScheduling(5, TimeUnit.SECONDS, new Callable<Flowable<Integer>>() {
+            @Override
+            public Flowable<Integer> call() {
+                return Flowable.just(1).subscribeOn(Schedulers.io());
+            }
+        })
+                .hasValues(1)
+                .schedulesNothingOn(Schedulers.io());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void schedulingChecksShouldFailWithoutCounting() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.just(1))
+                .schedulesAtMost(1);
+    }
+
+    @Test
+    public void rangeShouldFuseSynchronously() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(1, 5).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer value) {
+                return value * 2;
+            }
+        }), FusionMode.ANY)
+                .isFusedSync()
+                .hasValues(2, 4, 6, 8, 10)
+                .isComplete();
+    }
+
+    @Test
+    public void observableRangeShouldFuseSynchronously() {
+        Rx2Assertions.assertThatSubscriberTo(Observable.range(1, 3), FusionMode.SYNC)
+                .isFusedSync()
+                .hasValues(1, 2, 3)
+                .isComplete();
+    }
+
+    @Test
+    public void observeOnShouldFuseAsynchronously() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(1, 100).observeOn(Schedulers.computation()), FusionMode.ASYNC)
+                .awaitDone(5, TimeUnit.SECONDS)
+                .isFusedAsync()
+                .hasValueCount(100)
+                .isComplete();
+    }
+
+    @Test
+    public void hiddenSourceShouldNotFuse() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(1, 3).hide(), FusionMode.ANY)
+                .isNotFused()
+                .hasValues(1, 2, 3)
+                .isComplete();
+    }
+
+    @Test
+    public void failingPollShouldBeRecordedAsError() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(1, 3).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer value) {
+                if (value == 2) {
+                    throw new IllegalStateException();
+                }
+                return value;
+            }
+        }), FusionMode.SYNC)
+                .isFusedSync()
+                .hasValues(1)
+                .hasError(IllegalStateException.class);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void fusionChecksShouldFailWithoutRequestingFusion() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(1, 3))
+                .isNotFused();
+    }
+
+    @Test
+    public void probeShouldCountEverySubscription() {
+        UpstreamProbe probe = new UpstreamProbe();
+        Single<Integer> call = probe.wrap(Single.just(1));
+        Rx2Assertions.assertThatSubscriberTo(call.zipWith(call, new BiFunction<Integer, Integer, Integer>() {
+            @Override
+            public Integer apply(Integer first, Integer second) {
+                return first + second;
+            }
+        }))
+                .hasValues(2);
+        Rx2Assertions.assertThat(probe)
+                .subscribedUpstreamExactly(2)
+                .subscribedUpstreamAtMost(2);
+    }
+
+    @Test
+    public void probeShouldSeeSingleSubscriptionBehindCache() {
+        UpstreamProbe probe = new UpstreamProbe();
+        Single<Integer> call = probe.wrap(Single.just(1)).cache();
+        Rx2Assertions.assertThatSubscriberTo(call.concatWith(call))
+                .hasValues(1, 1);
+        Rx2Assertions.assertThat(probe)
+                .subscribedUpstreamExactly(1);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void probeShouldCountRetries() {
+        UpstreamProbe probe = new UpstreamProbe();
+        Rx2Assertions.assertThatSubscriberTo(probe.wrap(Flowable.<Integer>error(new IOException())).retry(2))
+                .hasError(IOException.class);
+        Rx2Assertions.assertThat(probe)
+                .subscribedUpstreamAtMost(1);
+    }
+
+    @Test
+    public void probeShouldAccountDemandBehindObserveOn() {
+        UpstreamProbe probe = new UpstreamProbe();
+        Rx2Assertions.assertThatSubscriberTo(probe.wrap(Flowable.range(0, 1000)).observeOn(Schedulers.computation()))
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(1000);
+        Rx2Assertions.assertThat(probe)
+                .neverRequestsUnbounded()
+                .requestBatchesOf(128)
+                .maxOutstandingDemandAtMost(128);
+        Assertions.assertThat(probe.log().delivered()).isEqualTo(1000);
+        Assertions.assertThat(probe.log().totalRequested()).isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void probeShouldDetectUnboundedRequest() {
+        UpstreamProbe probe = new UpstreamProbe();
+        Rx2Assertions.assertThatSubscriberTo(probe.wrap(Flowable.range(0, 10)).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer value) {
+                return value;
+            }
+        }))
+                .hasValueCount(10);
+        Rx2Assertions.assertThat(probe)
+                .neverRequestsUnbounded();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void probeShouldDetectLargePrefetch() {
+        UpstreamProbe probe = new UpstreamProbe();
+        Rx2Assertions.assertThatSubscriberTo(probe.wrap(Flowable.range(0, 1000)).observeOn(Schedulers.computation(), false, 512))
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(1000);
+        Rx2Assertions.assertThat(probe)
+                .neverRequestsUnbounded()
+                .maxOutstandingDemandAtMost(128);
+    }
+
+    @Test
+    public void terminatedSourceShouldReleaseUpstream() {
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(1, 3).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer value) {
+                return value;
+            }
+        }))
+                .isComplete()
+                .releasesUpstreamAfterTermination();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void sourceKeepingItsDisposableShouldFailReleaseCheck() {
+        final List<Disposable> leaked = new ArrayList<Disposable>();
+        Rx2Assertions.assertThatSubscriberTo(Observable.unsafeCreate(new ObservableSource<Integer>() {
+            @Override
+            public void subscribe(Observer<? super Integer> observer) {
+                Disposable disposable = Disposables.empty();
+                leaked.add(disposable);
+                observer.onSubscribe(disposable);
+                observer.onComplete();
+            }
+        }))
+                .isComplete()
+                .releasesUpstreamAfterTermination();
+    }
+
+    @Test
+    public void disposedPipelineShouldReleaseCapturedObject() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        List<WeakReference<Object>> captured = new ArrayList<WeakReference<Object>>();
+        Rx2Assertions.assertThatSubscriberTo(capturingPipeline(subject, captured))
+                .isCollectableAfterDispose(captured.get(0));
+        Assertions.assertThat(subject.hasObservers()).isFalse();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void stronglyHeldObjectShouldFailCollectableCheck() {
+        Rx2Assertions.assertThatSubscriberTo(Observable.never())
+                .isCollectableAfterDispose(new WeakReference<Object>(testObserver));
+    }
+
+    private static Observable<Integer> capturingPipeline(Observable<Integer> source, List<WeakReference<Object>> captured) {
+        final Object listener = new Object();
+        captured.add(new WeakReference<Object>(listener));
+        return source.map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer value) {
+                return listener.hashCode();
+            }
+        });
+    }
+
+    @Test
+    public void bulkAssertionsShouldCheckManySinglesConcurrently() {
+        List<Single<Integer>> fixtures = new ArrayList<Single<Integer>>();
+        for (int i = 0; i < 200; i++) {
+            fixtures.add(Single.just(i).subscribeOn(Schedulers.computation()));
+        }
+        BulkAssertions.assertAll(fixtures, new AssertionCheck<Single<Integer>>() {
+            @Override
+            public void check(Single<Integer> fixture) {
+                Rx2Assertions.assertThatSubscriberTo(fixture)
+                        .awaitDone(5, TimeUnit.SECONDS)
+                        .hasValueCount(1)
+                        .isComplete();
+            }
+        }, 8);
+    }
+
+    @Test
+    public void expectationShouldVerifyManySubscriptionsConcurrently() {
+        Expectation<Integer> expectation = Expectation.<Integer>builder()
+                .values(1, 2, 3, 4, 5)
+                .completes()
+                .build();
+        List<ExpectationSubscriber<Integer>> subscribers = new ArrayList<ExpectationSubscriber<Integer>>();
+        for (int i = 0; i < 50; i++) {
+            subscribers.add(Flowable.range(1, 5).subscribeOn(Schedulers.computation())
+                    .subscribeWith(Rx2Assertions.subscriberFor(expectation)));
+        }
+        for (ExpectationSubscriber<Integer> subscriber : subscribers) {
+            subscriber.awaitSatisfied(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(expected = AssertionError.class)
+    public void expectationShouldFailForUnexpectedValue() {
+        Expectation<Integer> expectation = Expectation.<Integer>builder()
+                .values(1, 2)
+                .completes()
+                .build();
+        Observable.just(1, 3).subscribeWith(Rx2Assertions.subscriberFor(expectation)).assertSatisfied();
+    }
+
+    @Test
+    public void matchesPatternShouldMatchRetainedValues() {
+        Condition<Integer> small = new Condition<Integer>("small") {
+            @Override
+            public boolean matches(Integer value) {
+                return value < 10;
+            }
+        };
+        Condition<Integer> large = new Condition<Integer>("large") {
+            @Override
+            public boolean matches(Integer value) {
+                return value >= 10;
+            }
+        };
+        SignalPattern<Integer> pattern = SignalPattern.<Integer>builder()
+                .oneOrMore(small)
+                .atMost(3, large)
+                .completes()
+                .build();
+        Rx2Assertions.assertThat(Flowable.just(1, 2, 3, 10, 20))
+                .matchesPattern(pattern);
+    }
+
+    @Test
+    public void matchesPatternShouldMatchLongStreamsWhileRecording() {
+        Condition<Integer> positive = new Condition<Integer>("positive") {
+            @Override
+            public boolean matches(Integer value) {
+                return value > 0;
+            }
+        };
+        SignalPattern<Integer> pattern = SignalPattern.<Integer>builder()
+                .oneOrMore(positive)
+                .completes()
+                .build();
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(1, 1000000),
+                Recording.retaining(Retention.reservoir(100)).matching(pattern))
+                .matchesPattern(pattern);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void matchesPatternShouldFailForUnexpectedTerminalEvent() {
+        Condition<Integer> positive = new Condition<Integer>("positive") {
+            @Override
+            public boolean matches(Integer value) {
+                return value > 0;
+            }
+        };
+        SignalPattern<Integer> pattern = SignalPattern.<Integer>builder()
+                .oneOrMore(positive)
+                .completes()
+                .build();
+        Rx2Assertions.assertThat(Observable.just(1).concatWith(Observable.<Integer>error(new IOException())))
+                .matchesPattern(pattern);
+    }
+
+    @Test
+    public void marblesShouldVerifyDebounceInVirtualTime() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<String> input = Rx2Assertions.hotMarbles("-a-b----c---|", scheduler);
+        Rx2Assertions.assertThatMarbles(input.debounce(20, TimeUnit.MILLISECONDS, scheduler), "-----b----c-|", scheduler)
+                .hasValueCount(2);
+    }
+
+    @Test
+    public void marblesShouldMapLettersToValues() {
+        TestScheduler scheduler = new TestScheduler();
+        Map<String, Integer> values = new HashMap<String, Integer>();
+        values.put("a", 1);
+        values.put("b", 2);
+        values.put("c", 3);
+        PublishProcessor<Integer> input = Rx2Assertions.hotMarbles("ab-c|", values, scheduler);
+        Rx2Assertions.assertThatMarbles(input.throttleFirst(20, TimeUnit.MILLISECONDS, scheduler), "a--c|", values, scheduler)
+                .isComplete();
+    }
+
+    @Test
+    public void marblesShouldReportSignalsInTheWrongFrame() {
+        TestScheduler scheduler = new TestScheduler();
+        try {
+            Rx2Assertions.assertThatMarbles(Flowable.just("a").delay(30, TimeUnit.MILLISECONDS, scheduler), "--a|", scheduler);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Marbles differ for --a|; Expected: [a@20ms, |@30ms], Actual: [a@30ms, |@30ms]");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void traceShouldReplayWithRecordedTimingOnTestScheduler() throws IOException {
+        EmissionTrace<Long> trace = Rx2Assertions.assertThatSubscriberTo(
+                Flowable.intervalRange(0, 3, 0, 20, TimeUnit.MILLISECONDS), Recording.defaults().withArrivalTimes())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .isComplete()
+                .trace();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out, EmissionTrace.LONGS);
+        EmissionTrace<Long> replayed = EmissionTrace.readFrom(new ByteArrayInputStream(out.toByteArray()), EmissionTrace.LONGS);
+
+        TestScheduler scheduler = new TestScheduler();
+        TestSubscriber<Long> subscriber = TraceReplay.replay(replayed, scheduler).test();
+        scheduler.advanceTimeBy(replayed.offsetAt(1, TimeUnit.NANOSECONDS) - 1, TimeUnit.NANOSECONDS);
+        subscriber.assertValues(0L);
+        scheduler.advanceTimeBy(replayed.terminationOffset(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        Rx2Assertions.assertThat(subscriber)
+                .hasValues(0L, 1L, 2L)
+                .isComplete();
+    }
+
+    @Test
+    public void traceShouldReplayFasterOnRealScheduler() {
+        EmissionTrace<Long> trace = Rx2Assertions.assertThatSubscriberTo(
+                Flowable.intervalRange(0, 3, 0, 50, TimeUnit.MILLISECONDS), Recording.defaults().withArrivalTimes())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .trace();
+        long start = System.nanoTime();
+        Rx2Assertions.assertThat(TraceReplay.replay(trace, 10, Schedulers.computation()))
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValues(0L, 1L, 2L);
+        Assertions.assertThat(System.nanoTime() - start).isLessThan(trace.terminationOffset(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void digestShouldCompareLongStreamsInConstantMemory() {
+        Recording<Object> digesting = Recording.retaining(Retention.countOnly()).withDigest(StreamDigest.HASH_CODES);
+        long reference = Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 1000000), digesting)
+                .isComplete()
+                .digest(StreamDigest.HASH_CODES)
+                .ordered();
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 1000000).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer value) {
+                return value * 2 / 2;
+            }
+        }), digesting)
+                .hasSameDigestAs(reference, StreamDigest.HASH_CODES);
+    }
+
+    @Test
+    public void emitsSequenceWithDigestShouldDetectReordering() {
+        Rx2Assertions.assertThat(Flowable.just("a", "b", "c"))
+                .emitsSequenceWithDigest(Arrays.asList("a", "b", "c"), StreamDigest.STRINGS)
+                .hasSameUnorderedDigestAs(StreamDigest.of(Arrays.asList("c", "a", "b"), StreamDigest.STRINGS).unordered(),
+                        StreamDigest.STRINGS);
+        try {
+            Rx2Assertions.assertThat(Flowable.just("a", "c", "b"))
+                    .emitsSequenceWithDigest(Arrays.asList("a", "b", "c"), StreamDigest.STRINGS);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Digests differ; Expected: ");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void lazySequenceShouldCompareLongStreamWithoutRetainingIt() {
+        ExpectedSequence<Long> ascending = ExpectedSequence.generated(1000000, new ExpectedSequence.Generator<Long>() {
+            @Override
+            public Long valueAt(long index) {
+                return index;
+            }
+        });
+        Rx2Assertions.assertThatSubscriberTo(Flowable.rangeLong(0, 1000000),
+                Recording.retaining(Retention.countOnly()).comparingWith(ascending))
+                .isComplete()
+                .hasValueSequence(ascending);
+    }
+
+    @Test
+    public void lazySequenceShouldCancelSourceAtFirstMismatch() {
+        ExpectedSequence<Long> ascending = ExpectedSequence.generated(100000000, new ExpectedSequence.Generator<Long>() {
+            @Override
+            public Long valueAt(long index) {
+                return index == 5 ? -1L : index;
+            }
+        });
+        final AtomicLong emitted = new AtomicLong();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        Flowable<Long> source = Flowable.rangeLong(0, 100000000)
+                .doOnNext(new Consumer<Long>() {
+                    @Override
+                    public void accept(Long value) {
+                        emitted.incrementAndGet();
+                    }
+                })
+                .doOnCancel(new Action() {
+                    @Override
+                    public void run() {
+                        cancelled.set(true);
+                    }
+                });
+        Rx2Assertions.TestSubscriberAssert<Long> assertion = Rx2Assertions.assertThatSubscriberTo(source,
+                Recording.retaining(Retention.countOnly()).comparingWith(ascending));
+        Assertions.assertThat(cancelled.get()).isTrue();
+        Assertions.assertThat(emitted.get()).isEqualTo(6);
+        try {
+            assertion.hasValueSequence(ascending);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Values at position 5 differ");
+            return;
+        }
+        throw new AssertionError("Expected the mismatch to be reported");
+    }
+
+    @Test(expected = AssertionError.class)
+    public void generatedSequenceShouldFailForMissingValues() {
+        Rx2Assertions.assertThat(Flowable.rangeLong(0, 9))
+                .hasValueSequence(10, new ExpectedSequence.Generator<Long>() {
+                    @Override
+                    public Long valueAt(long index) {
+                        return index;
+                    }
+                });
+    }
+
+    @Test
+    public void rewrittenPipelineShouldEmitSameAsReference() {
+        Flowable<Integer> reference = Flowable.range(0, 100000).map(new Function<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer value) {
+                return value * 2;
+            }
+        });
+        Flowable<Integer> candidate = Flowable.range(0, 100000).observeOn(Schedulers.computation())
+                .concatMap(new Function<Integer, Flowable<Integer>>() {
+                    @Override
+                    public Flowable<Integer> apply(Integer value) {
+                        return Flowable.just(value + value);
+                    }
+                });
+        Rx2Assertions.assertThatEmitsSameAs(candidate, reference, 5, TimeUnit.SECONDS)
+                .isComplete()
+                .hasValueCount(100000);
+    }
+
+    @Test
+    public void emitsSameAsShouldReportFirstDifferingIndex() {
+        try {
+            Rx2Assertions.assertThatEmitsSameAs(Flowable.range(0, 1000).map(new Function<Integer, Integer>() {
+                @Override
+                public Integer apply(Integer value) {
+                    return value == 500 ? -1 : value;
+                }
+            }), Flowable.range(0, 1000), 5, TimeUnit.SECONDS);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Values at position 500 differ; Candidate: -1");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test(expected = AssertionError.class)
+    public void emitsSameAsShouldFailOnShorterCandidate() {
+        Rx2Assertions.assertThatEmitsSameAs(Observable.just("a", "b"), Observable.just("A", "B", "C"),
+                String.CASE_INSENSITIVE_ORDER, 1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void emitsSameAsShouldTimeOut() {
+        Rx2Assertions.assertThatEmitsSameAs(Flowable.<Integer>never(), Flowable.just(1), 50, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void singleSlotAssertsShouldCoverSingleMaybeAndCompletable() {
+        Rx2Assertions.assertThat(Single.just("a"))
+                .isSubscribed()
+                .hasResult("a")
+                .hasSingleValue(new Predicate<String>() {
+                    @Override
+                    public boolean test(String value) {
+                        return value.length() == 1;
+                    }
+                });
+        Rx2Assertions.assertThat(Maybe.<String>empty())
+                .hasResult()
+                .hasNoValues();
+        Rx2Assertions.assertThat(Completable.error(new IllegalStateException("boom")))
+                .isTerminated()
+                .isNotComplete()
+                .hasError(IllegalStateException.class)
+                .hasErrorMessage("boom");
+    }
+
+    @Test
+    public void singleSlotAssertsShouldKeepFailureAndPredicateChecks() {
+        Rx2Assertions.assertThat(Single.<String>error(new IllegalStateException("boom")))
+                .hasFailure(IllegalStateException.class)
+                .hasFailureAndMessage(IllegalStateException.class, "boom")
+                .hasFailure(new Predicate<Throwable>() {
+                    @Override
+                    public boolean test(Throwable error) {
+                        return error instanceof IllegalStateException;
+                    }
+                })
+                .hasError(new Predicate<Throwable>() {
+                    @Override
+                    public boolean test(Throwable error) {
+                        return "boom".equals(error.getMessage());
+                    }
+                });
+        Rx2Assertions.assertThat(Maybe.just("a"))
+                .hasValueAt(0, "a")
+                .hasValueAt(0, new Predicate<String>() {
+                    @Override
+                    public boolean test(String value) {
+                        return value.length() == 1;
+                    }
+                })
+                .eachItemMatches(new Condition<String>("one character") {
+                    @Override
+                    public boolean matches(String value) {
+                        return value.length() == 1;
+                    }
+                });
+        Rx2Assertions.assertThat(Completable.error(new IllegalStateException("boom")))
+                .hasFailureAndMessage(IllegalStateException.class, "boom")
+                .hasFailure(new Predicate<Throwable>() {
+                    @Override
+                    public boolean test(Throwable error) {
+                        return error instanceof IllegalStateException;
+                    }
+                });
+        Rx2Assertions.assertThat(Completable.never())
+                .awaitDone(10, TimeUnit.MILLISECONDS)
+                .isCancelled();
+    }
+
+    @Test
+    public void singleSlotAwaitShouldDisposeOnTimeout() {
+        Rx2Assertions.assertThat(Single.timer(10, TimeUnit.MILLISECONDS))
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasResult(0L);
+        Rx2Assertions.assertThat(Maybe.never())
+                .awaitDone(10, TimeUnit.MILLISECONDS)
+                .isNotTerminated();
+    }
+
+    @Test
+    public void whenDoneShouldVerifyManyStreamsWithoutBlocking() throws Exception {
+        List<Future<Void>> verifications = new ArrayList<Future<Void>>();
+        for (int i = 0; i < 1000; i++) {
+            verifications.add(Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 10).delay(10, TimeUnit.MILLISECONDS))
+                    .whenDone(new AssertionCheck<AbstractTestConsumerAssert<Integer, ?>>() {
+                        @Override
+                        public void check(AbstractTestConsumerAssert<Integer, ?> assertion) {
+                            assertion.isComplete().hasValueCount(10);
+                        }
+                    }));
+        }
+        for (Future<Void> verification : verifications) {
+            verification.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void whenDoneShouldFailFutureWithAssertionError() throws Exception {
+        Future<Void> verification = Rx2Assertions.assertThatSubscriberTo(Observable.just(1))
+                .whenDone(new AssertionCheck<AbstractTestConsumerAssert<Integer, ?>>() {
+                    @Override
+                    public void check(AbstractTestConsumerAssert<Integer, ?> assertion) {
+                        assertion.hasValueCount(2);
+                    }
+                });
+        Assertions.assertThat(verification.isDone()).isTrue();
+        try {
+            verification.get();
+        } catch (ExecutionException expected) {
+            Assertions.assertThat(expected.getCause()).isInstanceOf(AssertionError.class);
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void concurrentRecordingShouldCatchUnserializedEmitter() {
+        Flowable<Integer> broken = Flowable.unsafeCreate(new Publisher<Integer>() {
+            @Override
+            public void subscribe(final Subscriber<? super Integer> subscriber) {
+                subscriber.onSubscribe(new BooleanSubscription());
+                List<Thread> threads = new ArrayList<Thread>();
+                for (int t = 0; t < 4; t++) {
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            for (int i = 0; i < 10000; i++) {
+                                subscriber.onNext(i);
+                            }
+                        }
+                    });
+                    thread.start();
+                    threads.add(thread);
+                }
+                for (Thread thread : threads) {
+                    try {
+                        thread.join();
+                    } catch (InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+                subscriber.onComplete();
+            }
+        });
+        Rx2Assertions.assertThatSubscriberTo(broken, Recording.concurrent())
+                .isComplete()
+                .hasValueCount(40000);
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 1000).observeOn(Schedulers.computation()), Recording.concurrent())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .isSerialized()
+                .hasConcurrentOnNextCount(0);
+    }
+
+    @Test
+    public void protocolProbeShouldPassWellBehavedSource() {
+        ProtocolProbe<Integer> probe = ProtocolProbe.sampling(10, new Condition<Integer>("non-negative") {
+            @Override
+            public boolean matches(Integer value) {
+                return value >= 0;
+            }
+        });
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 1000).compose(probe).observeOn(Schedulers.computation()))
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(1000);
+        Rx2Assertions.assertThat(probe)
+                .hasNoProtocolViolations()
+                .hasNoConditionFailures()
+                .sampledAtLeast(100);
+    }
+
+    @Test
+    public void protocolProbeShouldCountViolationsWithoutThrowing() {
+        Publisher<Integer> broken = new Publisher<Integer>() {
+            @Override
+            public void subscribe(Subscriber<? super Integer> s) {
+                s.onSubscribe(new BooleanSubscription());
+                s.onSubscribe(new BooleanSubscription());
+                s.onNext(1);
+                s.onNext(2);
+                s.onComplete();
+                s.onNext(3);
+                s.onComplete();
+            }
+        };
+        ProtocolProbe<Integer> probe = ProtocolProbe.create();
+        TestSubscriber<Integer> subscriber = probe.wrap(broken).test(1);
+        Rx2Assertions.assertThat(subscriber)
+                .hasValues(1, 2)
+                .isComplete();
+        Assertions.assertThat(probe.log().duplicateSubscriptions()).isEqualTo(1);
+        Assertions.assertThat(probe.log().demandViolations()).isEqualTo(1);
+        Assertions.assertThat(probe.log().signalsAfterTerminal()).isEqualTo(2);
+    }
+
+    @Test
+    public void protocolProbeShouldDropErrorsAfterTerminal() {
+        Publisher<Integer> broken = new Publisher<Integer>() {
+            @Override
+            public void subscribe(Subscriber<? super Integer> s) {
+                s.onSubscribe(new BooleanSubscription());
+                s.onComplete();
+                s.onError(new IllegalStateException("late"));
+            }
+        };
+        final List<Throwable> undeliverable = new ArrayList<Throwable>();
+        RxJavaPlugins.setErrorHandler(new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable error) {
+                undeliverable.add(error);
+            }
+        });
+        try {
+            ProtocolProbe<Integer> probe = ProtocolProbe.create();
+            Rx2Assertions.assertThat(probe.wrap(broken).test())
+                    .hasNoErrors()
+                    .isComplete();
+            Assertions.assertThat(probe.log().signalsAfterTerminal()).isEqualTo(1);
+            Assertions.assertThat(undeliverable).isEmpty();
+        } finally {
+            RxJavaPlugins.reset();
+        }
+    }
+
+    @Test
+    public void protocolProbeShouldReportInvalidRequests() {
+        Publisher<Integer> silent = new Publisher<Integer>() {
+            @Override
+            public void subscribe(Subscriber<? super Integer> s) {
+                s.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        // accepts any request, so nothing is reported to RxJavaPlugins
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+            }
+        };
+        ProtocolProbe<Integer> probe = ProtocolProbe.create();
+        probe.wrap(silent).test(0).request(-1);
+        Assertions.assertThat(probe.log().invalidRequests()).isEqualTo(1);
+        try {
+            Rx2Assertions.assertThat(probe)
+                    .hasNoProtocolViolations();
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageContaining("invalid requests = 1");
+            return;
+        }
+        throw new AssertionError("Expected the invalid request to be reported");
+    }
+
+    @Test(expected = AssertionError.class)
+    public void protocolProbeShouldReportSampledConditionFailures() {
+        ProtocolProbe<Integer> probe = ProtocolProbe.sampling(2, new Condition<Integer>("small") {
+            @Override
+            public boolean matches(Integer value) {
+                return value < 5;
+            }
+        });
+        Rx2Assertions.assertThatSubscriberTo(Flowable.range(0, 10).compose(probe))
+                .hasValueCount(10);
+        Rx2Assertions.assertThat(probe)
+                .hasNoProtocolViolations()
+                .hasNoConditionFailures();
+    }
+
     @Test
     public void emptyObservableShouldEmitNothing() {
         Rx2Assertions.assertThat(Observable.empty())
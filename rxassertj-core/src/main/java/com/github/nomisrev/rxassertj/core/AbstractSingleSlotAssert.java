@@ -0,0 +1,200 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.AbstractAssert;
+import org.assertj.core.api.AbstractCharSequenceAssert;
+import org.assertj.core.api.AbstractThrowableAssert;
+import org.assertj.core.api.Assertions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The subscription, terminal event and error checks shared by the assertions on a {@link SingleSlot}, which is all a
+ * {@code Completable} can be checked for. The value checks of a {@code Single} or {@code Maybe} are added by
+ * {@link AbstractSingleValueAssert}.
+ *
+ * @param <S> the type of the assertion
+ * @param <T> the value type
+ */
+public abstract class AbstractSingleSlotAssert<S extends AbstractSingleSlotAssert<S, T>, T> extends AbstractAssert<S, SingleSlot<T>> {
+
+    protected AbstractSingleSlotAssert(final SingleSlot<T> actual, final Class<?> selfType) {
+        super(actual, selfType);
+    }
+
+    /**
+     * Assert that the source called onSubscribe.
+     */
+    public final S isSubscribed() {
+        if (!actual.isSubscribed()) {
+            throw EventLogChecks.fail(actual, "Not subscribed");
+        }
+        return myself;
+    }
+
+    /**
+     * Assert that the source did not call onSubscribe.
+     */
+    public final S isNotSubscribed() {
+        if (actual.isSubscribed()) {
+            throw EventLogChecks.fail(actual, "Subscribed");
+        }
+        return myself;
+    }
+
+    /**
+     * Assert that the consumer cancelled its upstream, i.e. the subscription was stopped before the source terminated.
+     */
+    public final S isCancelled() {
+        if (!actual.isCancelled()) {
+            throw EventLogChecks.fail(actual, "Not cancelled");
+        }
+        return myself;
+    }
+
+    /**
+     * Assert that the source completed, or succeeded with a value, exactly once.
+     */
+    public final S isComplete() {
+        EventLogChecks.assertComplete(actual);
+        return myself;
+    }
+
+    /**
+     * Assert that the source completed, or succeeded with a value, exactly once.
+     */
+    public final S completes() {
+        return isComplete();
+    }
+
+    /**
+     * Assert that the source neither completed nor succeeded.
+     */
+    public final S isNotComplete() {
+        EventLogChecks.assertNotComplete(actual);
+        return myself;
+    }
+
+    /**
+     * Assert that the source signalled its terminal event.
+     */
+    public final S isTerminated() {
+        EventLogChecks.assertTerminated(actual);
+        return myself;
+    }
+
+    /**
+     * Assert that the source did not signal a terminal event yet.
+     */
+    public final S isNotTerminated() {
+        EventLogChecks.assertNotTerminated(actual);
+        return myself;
+    }
+
+    /**
+     * Assert that the source did not fail.
+     */
+    public final S hasNoErrors() {
+        EventLogChecks.assertNoErrors(actual);
+        return myself;
+    }
+
+    /**
+     * Assert that the source did not fail.
+     */
+    public final S withoutErrors() {
+        return hasNoErrors();
+    }
+
+    /**
+     * Assert that the source failed with exactly the given error, compared with {@code equals}.
+     *
+     * @param error the error to check
+     */
+    public final S hasError(Throwable error) {
+        EventLogChecks.assertError(actual, error);
+        return myself;
+    }
+
+    /**
+     * Assert that the source failed with an instance of the given class.
+     *
+     * @param errorClass the error class to expect
+     */
+    public final S hasError(Class<? extends Throwable> errorClass) {
+        EventLogChecks.assertError(actual, errorClass);
+        return myself;
+    }
+
+    /**
+     * Assert that the source failed with an error with the given message.
+     *
+     * @param message the message expected
+     */
+    public final S hasErrorMessage(String message) {
+        EventLogChecks.assertErrorMessage(actual, message);
+        return myself;
+    }
+
+    /**
+     * Assert that the source failed with a specific class or subclass of Throwable, like {@code assertFailure} of the test
+     * consumers.
+     *
+     * @param error the expected exception (parent) class
+     */
+    public final S hasFailure(Class<? extends Throwable> error) {
+        isSubscribed();
+        EventLogChecks.assertError(actual, error);
+        EventLogChecks.assertNotComplete(actual);
+        return myself;
+    }
+
+    /**
+     * Assert that the source failed with a specific class or subclass of Throwable and with the given exact error message.
+     *
+     * @param error   the expected exception (parent) class
+     * @param message the expected failure message
+     * @see #hasFailure(Class)
+     */
+    public final S hasFailureAndMessage(Class<? extends Throwable> error, String message) {
+        hasFailure(error);
+        EventLogChecks.assertErrorMessage(actual, message);
+        return myself;
+    }
+
+    /**
+     * Assert that the source failed.
+     *
+     * @return an AssertJ assertion class to preform assertions on the error.
+     */
+    public final AbstractThrowableAssert<?, ? extends Throwable> hasErrorThat() {
+        return Assertions.assertThat(EventLogChecks.singleError(actual));
+    }
+
+    /**
+     * Assert that the source failed.
+     *
+     * @return an AssertJ assertion class to preform assertions on the error message.
+     */
+    public final AbstractCharSequenceAssert<?, String> hasErrorMessageThat() {
+        return Assertions.assertThat(EventLogChecks.singleError(actual).getMessage());
+    }
+
+    /**
+     * Awaits the terminal event of the source for at most the given time, after which the upstream is cancelled.
+     *
+     * @param time the waiting time
+     * @param unit the time unit of the waiting time
+     */
+    public final S awaitDone(long time, TimeUnit unit) {
+        try {
+            if (!actual.await(time, unit)) {
+                actual.cancel();
+            }
+        } catch (InterruptedException ex) {
+            actual.cancel();
+            Thread.currentThread().interrupt();
+            throw EventLogChecks.fail(actual, "Interrupted while awaiting the terminal event");
+        }
+        return myself;
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Condition;
+
+/**
+ * The checks of the assertions on a {@link SingleSlot} of a source succeeding with at most one value, like a {@code Single}
+ * or {@code Maybe}.
+ *
+ * @param <S> the type of the assertion
+ * @param <T> the value type
+ */
+public abstract class AbstractSingleValueAssert<S extends AbstractSingleValueAssert<S, T>, T> extends AbstractSingleSlotAssert<S, T> {
+
+    protected AbstractSingleValueAssert(final SingleSlot<T> actual, final Class<?> selfType) {
+        super(actual, selfType);
+    }
+
+    /**
+     * Assert that the source succeeded with a value equal to the given one.
+     *
+     * @param value the value to expect
+     */
+    public final S hasSingleValue(T value) {
+        EventLogChecks.assertValues(actual, value);
+        return myself;
+    }
+
+    /**
+     * Assert that the source succeeded with the given value, or did not succeed with a value if none is given.
+     *
+     * @param values the value to expect, if any
+     */
+    public final S hasValues(T... values) {
+        EventLogChecks.assertValues(actual, values);
+        return myself;
+    }
+
+    /**
+     * Assert that the source succeeded with a value exactly {@code count} times, i.e. zero or once.
+     *
+     * @param count the expected number of values
+     */
+    public final S hasValueCount(int count) {
+        EventLogChecks.assertValueCount(actual, count);
+        return myself;
+    }
+
+    /**
+     * Assert that the source succeeded with a value equal to the given one at the given index, i.e. zero.
+     *
+     * @param index the position to assert on
+     * @param value the value to expect
+     */
+    public final S hasValueAt(int index, T value) {
+        EventLogChecks.assertValueAt(actual, index, value);
+        return myself;
+    }
+
+    /**
+     * Assert that the source did not succeed with a value.
+     */
+    public final S hasNoValues() {
+        EventLogChecks.assertValueCount(actual, 0);
+        return myself;
+    }
+
+    /**
+     * Assert that the value of the source, if any, meets a {@link Condition}.
+     *
+     * @param condition the AssertJ {@link Condition} to check
+     */
+    public final S eachItemMatches(final Condition<? super T> condition) {
+        EventLogChecks.assertEach(actual, condition);
+        return myself;
+    }
+
+    /**
+     * Assert that the source did not succeed with a value meeting a {@link Condition}.
+     *
+     * @param condition the AssertJ {@link Condition} to check
+     */
+    public final S noItemMatches(final Condition<? super T> condition) {
+        EventLogChecks.assertNone(actual, condition);
+        return myself;
+    }
+
+    /**
+     * Assert that the source failed with a specific class or subclass of Throwable, like {@code assertFailure} of the test
+     * consumers. As a success counts as a value and a completion, this only passes when no value is given.
+     *
+     * @param error  the expected exception (parent) class
+     * @param values the expected values, kept for the signature shared with the test consumer assertions
+     */
+    public final S hasFailure(Class<? extends Throwable> error, T... values) {
+        isSubscribed();
+        EventLogChecks.assertValues(actual, values);
+        EventLogChecks.assertError(actual, error);
+        EventLogChecks.assertNotComplete(actual);
+        return myself;
+    }
+
+    /**
+     * Assert that the source failed with a specific class or subclass of Throwable and with the given exact error message.
+     *
+     * @param error   the expected exception (parent) class
+     * @param message the expected failure message
+     * @param values  the expected values, kept for the signature shared with the test consumer assertions
+     * @see #hasFailure(Class, Object...)
+     */
+    public final S hasFailureAndMessage(Class<? extends Throwable> error, String message, T... values) {
+        isSubscribed();
+        EventLogChecks.assertValues(actual, values);
+        EventLogChecks.assertError(actual, error);
+        EventLogChecks.assertErrorMessage(actual, message);
+        EventLogChecks.assertNotComplete(actual);
+        return myself;
+    }
+}
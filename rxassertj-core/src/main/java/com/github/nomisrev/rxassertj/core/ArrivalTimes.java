@@ -0,0 +1,116 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.Arrays;
+
+/**
+ * The {@link System#nanoTime()} at which each value arrived, kept in a growable {@code long[]} so recording costs no
+ * allocation per value.
+ * <p>Recorded by a {@link Recorder} when {@link Recording#withArrivalTimes()} is set, together with the time the recording
+ * started and the time it terminated or was cancelled.
+ */
+public final class ArrivalTimes {
+
+    private final long start;
+    private long[] times = new long[16];
+    private int size;
+    private long end;
+    private boolean ended;
+
+    ArrivalTimes(long start) {
+        this.start = start;
+    }
+
+    void add(long time) {
+        long[] t = times;
+        int s = size;
+        if (s == t.length) {
+            t = Arrays.copyOf(t, s + (s >> 1));
+            times = t;
+        }
+        t[s] = time;
+        size = s + 1;
+    }
+
+    void end(long time) {
+        if (!ended) {
+            end = time;
+            ended = true;
+        }
+    }
+
+    /**
+     * Returns the time the recording started.
+     */
+    public long startTime() {
+        return start;
+    }
+
+    /**
+     * Returns the time the recording terminated or was cancelled, or -1 while it is still running.
+     */
+    public long endTime() {
+        return ended ? end : -1;
+    }
+
+    /**
+     * Returns the number of recorded arrival times.
+     */
+    public int count() {
+        return size;
+    }
+
+    /**
+     * Returns the arrival time of the value at the given index.
+     */
+    public long timeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return times[index];
+    }
+
+    /**
+     * Returns the longest time between two consecutive values in nanoseconds, or zero if there were less than two values.
+     */
+    public long maxGap() {
+        long max = 0;
+        for (int i = 1; i < size; i++) {
+            max = Math.max(max, times[i] - times[i - 1]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the time between two consecutive values at the given quantile in nanoseconds, or zero if there were less than
+     * two values.
+     *
+     * @param quantile the quantile, between 0 and 1
+     */
+    public long gapQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("0 <= quantile <= 1 required but it was " + quantile);
+        }
+        if (size < 2) {
+            return 0;
+        }
+        long[] gaps = new long[size - 1];
+        for (int i = 1; i < size; i++) {
+            gaps[i - 1] = times[i] - times[i - 1];
+        }
+        Arrays.sort(gaps);
+        return gaps[(int) Math.ceil(quantile * (gaps.length - 1))];
+    }
+
+    /**
+     * Returns the longest time without any signal in nanoseconds: between the start of the recording and the first value,
+     * between two values, or between the last value and the end of the recording. A recording that did not end yet is
+     * measured up to now.
+     */
+    public long longestStall() {
+        long last = ended ? end : System.nanoTime();
+        if (size == 0) {
+            return last - start;
+        }
+        return Math.max(Math.max(times[0] - start, maxGap()), last - times[size - 1]);
+    }
+}
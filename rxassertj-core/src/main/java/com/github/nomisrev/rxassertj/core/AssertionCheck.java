@@ -0,0 +1,13 @@
+package com.github.nomisrev.rxassertj.core;
+
+/**
+ * Assertions run against a single subject, failing by throwing. Run against many sources by
+ * {@link BulkAssertions#assertAll(Iterable, AssertionCheck)}, or against an assertion once its recording is done by
+ * {@link AssertionFuture#whenDone(Recorder, Object, AssertionCheck)}.
+ *
+ * @param <S> the type of the subject
+ */
+public interface AssertionCheck<S> {
+
+    void check(S source) throws Exception;
+}
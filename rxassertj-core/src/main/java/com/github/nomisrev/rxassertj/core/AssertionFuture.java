@@ -0,0 +1,92 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The outcome of assertions that run once a recording is done, instead of a thread parking until it is. No thread is held
+ * while the stream runs, so any number of streams can be verified concurrently and their futures collected at the end.
+ * <p>The future completes normally if the assertions passed, {@link #get()} throws an {@link ExecutionException} with the
+ * {@link AssertionError} or exception of the assertions as cause otherwise. It can not be cancelled.
+ */
+public final class AssertionFuture implements Future<Void> {
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Throwable failure;
+
+    private AssertionFuture() {
+    }
+
+    /**
+     * Runs the check against the assertion once the recorder is done, on the thread that ended the recording.
+     *
+     * @param recorder  the recording the assertion is about
+     * @param assertion the assertion passed to the check
+     * @param check     the assertions to run, or null to only wait for the recording
+     */
+    public static <A> AssertionFuture whenDone(final Recorder<?> recorder, final A assertion, final AssertionCheck<? super A> check) {
+        final AssertionFuture future = new AssertionFuture();
+        recorder.whenDone(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (check != null) {
+                        check.check(assertion);
+                    }
+                } catch (Throwable ex) {
+                    future.failure = ex;
+                } finally {
+                    future.done.countDown();
+                }
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    @Override
+    public Void get() throws InterruptedException, ExecutionException {
+        done.await();
+        return result();
+    }
+
+    @Override
+    public Void get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException("Recording not done within " + timeout + " " + unit.toString().toLowerCase());
+        }
+        return result();
+    }
+
+    private Void result() throws ExecutionException {
+        Throwable ex = failure;
+        if (ex != null) {
+            throw new ExecutionException(ex);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the failure of the assertions, or null if they passed or did not run yet.
+     */
+    public Throwable failure() {
+        return failure;
+    }
+}
@@ -0,0 +1,212 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the same check against many independent sources concurrently and reports every failing source at once.
+ * <pre>{@code
+ * BulkAssertions.assertAll(fixtures, new AssertionCheck<Single<Integer>>() {
+ *     public void check(Single<Integer> fixture) {
+ *         assertThatSubscriberTo(fixture).awaitDone(5, SECONDS).hasSingleValue(42);
+ *     }
+ * });
+ * }</pre>
+ * The checks run on a pool of {@code parallelism} threads, and at most twice as many sources are taken from the iterable
+ * ahead of the running checks, so the sources can be created lazily. Checks must not share state without synchronization.
+ */
+public final class BulkAssertions {
+
+    /**
+     * The maximum number of failures listed in the message of the aggregated {@link AssertionError}.
+     */
+    public static final int LISTED_FAILURES = 100;
+
+    /**
+     * Runs the check against every source on as many threads as there are processors.
+     *
+     * @see #assertAll(Iterable, AssertionCheck, int)
+     */
+    public static <S> void assertAll(Iterable<? extends S> sources, AssertionCheck<? super S> check) {
+        assertAll(sources, check, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Runs the check against every source, identified by their position in the iterable.
+     *
+     * @param sources     the sources to check
+     * @param check       the check to run against each source
+     * @param parallelism the number of checks to run concurrently
+     * @throws AssertionError listing every failing source, with the first failure as cause
+     */
+    public static <S> void assertAll(Iterable<? extends S> sources, AssertionCheck<? super S> check, int parallelism) {
+        final Iterator<? extends S> iterator = sources.iterator();
+        run(new Iterator<Entry<S>>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Entry<S> next() {
+                return new Entry<S>("#" + index++, iterator.next());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        }, check, parallelism);
+    }
+
+    /**
+     * Runs the check against every source, identified by their key.
+     *
+     * @param sources     the sources to check by their identifier
+     * @param check       the check to run against each source
+     * @param parallelism the number of checks to run concurrently
+     * @throws AssertionError listing every failing source, with the first failure as cause
+     */
+    public static <K, S> void assertAll(Map<K, ? extends S> sources, AssertionCheck<? super S> check, int parallelism) {
+        final Iterator<? extends Map.Entry<K, ? extends S>> iterator = sources.entrySet().iterator();
+        run(new Iterator<Entry<S>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Entry<S> next() {
+                Map.Entry<K, ? extends S> entry = iterator.next();
+                return new Entry<S>(entry.getKey(), entry.getValue());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        }, check, parallelism);
+    }
+
+    /**
+     * Runs the check against the identified sources of the iterator.
+     */
+    private static <S> void run(Iterator<Entry<S>> sources, final AssertionCheck<? super S> check, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+        }
+        final List<Failure> failures = Collections.synchronizedList(new ArrayList<Failure>());
+        final Semaphore slots = new Semaphore(2 * parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new CheckThreadFactory());
+        int count = 0;
+        try {
+            while (sources.hasNext()) {
+                final Entry<S> entry = sources.next();
+                final int position = count++;
+                slots.acquire();
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            check.check(entry.source);
+                        } catch (Throwable ex) {
+                            failures.add(new Failure(position, entry.key, ex));
+                        } finally {
+                            slots.release();
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // keep waiting for the running checks
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted", ex);
+        } finally {
+            if (!executor.isTerminated()) {
+                executor.shutdownNow();
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw aggregate(failures, count);
+        }
+    }
+
+    private static AssertionError aggregate(List<Failure> failures, int count) {
+        Collections.sort(failures, new Comparator<Failure>() {
+            @Override
+            public int compare(Failure a, Failure b) {
+                return a.position < b.position ? -1 : (a.position == b.position ? 0 : 1);
+            }
+        });
+        StringBuilder b = new StringBuilder();
+        b.append(failures.size()).append(" of ").append(count).append(" sources failed:");
+        for (int i = 0; i < failures.size() && i < LISTED_FAILURES; i++) {
+            Failure failure = failures.get(i);
+            b.append("\n  [").append(failure.source).append("] ").append(failure.error);
+        }
+        if (failures.size() > LISTED_FAILURES) {
+            b.append("\n  ... and ").append(failures.size() - LISTED_FAILURES).append(" more");
+        }
+        AssertionError error = new AssertionError(b.toString());
+        error.initCause(failures.get(0).error);
+        return error;
+    }
+
+    /**
+     * A source and the key identifying it in the failure message.
+     */
+    private static final class Entry<S> {
+
+        final Object key;
+        final S source;
+
+        Entry(Object key, S source) {
+            this.key = key;
+            this.source = source;
+        }
+    }
+
+    private static final class Failure {
+
+        final int position;
+        final Object source;
+        final Throwable error;
+
+        Failure(int position, Object source, Throwable error) {
+            this.position = position;
+            this.source = source;
+            this.error = error;
+        }
+    }
+
+    private static final class CheckThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable run) {
+            Thread thread = new Thread(run, "BulkAssertions-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private BulkAssertions() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.lang.ref.Reference;
+
+/**
+ * Waits for weakly referenced objects to be garbage collected, to check that a pipeline released them.
+ * <p>A single {@link System#gc()} is only a hint, so collection is requested a bounded number of times with a short pause
+ * in between before the object is considered strongly reachable.
+ */
+public final class Collectability {
+
+    /**
+     * The number of times collection is requested before giving up.
+     */
+    public static final int ATTEMPTS = 10;
+
+    private static final long PAUSE_MILLIS = 20;
+
+    /**
+     * Returns true once the referent was collected, false if it is still reachable after {@link #ATTEMPTS} collections.
+     *
+     * @param reference a weak reference to the object, the caller must not hold a strong reference to it
+     */
+    public static boolean isCollected(Reference<?> reference) {
+        for (int i = 0; i < ATTEMPTS; i++) {
+            if (reference.get() == null) {
+                return true;
+            }
+            System.gc();
+            try {
+                Thread.sleep(PAUSE_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return reference.get() == null;
+    }
+
+    private Collectability() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The threads that delivered the signals recorded by a {@link Recorder}.
+ * <p>Only a change of thread between two consecutive signals costs more than a reference comparison, so recording is
+ * always on. A change is counted as a thread hop, which usually stems from an {@code observeOn} or {@code subscribeOn}.
+ */
+public final class DeliveringThreads {
+
+    private final List<Thread> threads = new ArrayList<Thread>(2);
+    private final List<String> names = new ArrayList<String>(2);
+    private Thread last;
+    private long hops;
+
+    void signal() {
+        Thread current = Thread.currentThread();
+        if (current == last) {
+            return;
+        }
+        if (last != null) {
+            hops++;
+        }
+        last = current;
+        if (!threads.contains(current)) {
+            threads.add(current);
+            names.add(current.getName());
+        }
+    }
+
+    /**
+     * Returns the number of distinct threads that delivered a signal.
+     */
+    public int count() {
+        return names.size();
+    }
+
+    /**
+     * Returns the names of the distinct threads that delivered a signal, in the order they were first seen.
+     */
+    public List<String> names() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Returns how often a signal was delivered on a different thread than the signal before it.
+     */
+    public long hops() {
+        return hops;
+    }
+}
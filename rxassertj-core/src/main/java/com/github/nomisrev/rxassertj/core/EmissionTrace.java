@@ -0,0 +1,265 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The values of a recorded stream with the time each arrived after subscribing, and how the stream ended, so captured
+ * traffic can be written to a file and replayed later with its original timing.
+ * <p>Taken from a {@link Recorder} that retained every value and recorded {@link Recording#withArrivalTimes() arrival times}.
+ * The file stores every time as the variable-length encoded delta to the previous one, followed by the value written by a
+ * {@link Codec}.
+ *
+ * @param <T> the value type
+ */
+public final class EmissionTrace<T> {
+
+    /**
+     * The stream was still running or cancelled when the trace was taken.
+     */
+    public static final int RUNNING = 0;
+    public static final int COMPLETED = 1;
+    public static final int FAILED = 2;
+
+    private static final int MAGIC = 0x52785472;
+    private static final int VERSION = 1;
+
+    private final List<T> values;
+    private final long[] offsets;
+    private final int termination;
+    private final long terminationOffset;
+    private final String errorMessage;
+
+    private EmissionTrace(List<T> values, long[] offsets, int termination, long terminationOffset, String errorMessage) {
+        this.values = Collections.unmodifiableList(values);
+        this.offsets = offsets;
+        this.termination = termination;
+        this.terminationOffset = terminationOffset;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Takes the trace of a recording.
+     *
+     * @throws IllegalStateException if the recorder did not record arrival times or did not retain every value
+     */
+    public static <T> EmissionTrace<T> of(Recorder<T> recorder) {
+        ArrivalTimes times = recorder.arrivalTimes();
+        if (times == null) {
+            throw new IllegalStateException("Arrival times were not recorded, subscribe with Recording.defaults().withArrivalTimes()");
+        }
+        List<T> retained = recorder.values();
+        if (retained.size() != recorder.valueCount()) {
+            throw new IllegalStateException("Only " + retained.size() + " of " + recorder.valueCount() + " values were retained");
+        }
+        int count = times.count();
+        List<T> values = new ArrayList<T>(retained.subList(0, count));
+        long[] offsets = new long[count];
+        long start = times.startTime();
+        for (int i = 0; i < count; i++) {
+            offsets[i] = times.timeAt(i) - start;
+        }
+        List<Throwable> errors = recorder.errors();
+        int termination = RUNNING;
+        String errorMessage = null;
+        if (!errors.isEmpty()) {
+            termination = FAILED;
+            errorMessage = String.valueOf(errors.get(0));
+        } else if (recorder.completions() != 0) {
+            termination = COMPLETED;
+        }
+        long end = times.endTime();
+        long terminationOffset = termination != RUNNING && end >= 0 ? end - start : count > 0 ? offsets[count - 1] : 0;
+        return new EmissionTrace<T>(values, offsets, termination, terminationOffset, errorMessage);
+    }
+
+    /**
+     * Reads a trace written by {@link #writeTo(OutputStream, Codec)}. The stream is buffered and may be read past the end of
+     * the trace, it is not closed.
+     */
+    public static <T> EmissionTrace<T> readFrom(InputStream in, Codec<T> codec) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not an emission trace");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+        int count = (int) readVarLong(data);
+        List<T> values = new ArrayList<T>(count);
+        long[] offsets = new long[count];
+        long offset = 0;
+        for (int i = 0; i < count; i++) {
+            offset += readVarLong(data);
+            offsets[i] = offset;
+            values.add(codec.read(data));
+        }
+        int termination = data.readUnsignedByte();
+        long terminationOffset = offset + readVarLong(data);
+        String errorMessage = termination == FAILED ? data.readUTF() : null;
+        return new EmissionTrace<T>(values, offsets, termination, terminationOffset, errorMessage);
+    }
+
+    /**
+     * Writes the trace in its compact binary form. The stream is flushed but not closed.
+     */
+    public void writeTo(OutputStream out, Codec<? super T> codec) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        writeVarLong(data, values.size());
+        long previous = 0;
+        for (int i = 0; i < values.size(); i++) {
+            writeVarLong(data, offsets[i] - previous);
+            previous = offsets[i];
+            codec.write(values.get(i), data);
+        }
+        data.writeByte(termination);
+        writeVarLong(data, terminationOffset - previous);
+        if (termination == FAILED) {
+            data.writeUTF(errorMessage);
+        }
+        data.flush();
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length number");
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public List<T> values() {
+        return values;
+    }
+
+    /**
+     * Returns the time the value at the given index arrived after subscribing.
+     */
+    public long offsetAt(int index, TimeUnit unit) {
+        if (index < 0 || index >= offsets.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + offsets.length);
+        }
+        return unit.convert(offsets[index], TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns {@link #RUNNING}, {@link #COMPLETED} or {@link #FAILED}.
+     */
+    public int termination() {
+        return termination;
+    }
+
+    /**
+     * Returns the time the stream terminated after subscribing, or the time of the last value if it did not terminate.
+     */
+    public long terminationOffset(TimeUnit unit) {
+        return unit.convert(terminationOffset, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the {@code toString} of the error the stream failed with, or null.
+     */
+    public String errorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "EmissionTrace{values=" + values.size()
+                + ", termination=" + (termination == COMPLETED ? "completed" : termination == FAILED ? "failed" : "running")
+                + ", duration=" + terminationOffset + " ns}";
+    }
+
+    /**
+     * Writes and reads the values of a trace.
+     *
+     * @param <T> the value type
+     */
+    public interface Codec<T> {
+
+        void write(T value, DataOutput out) throws IOException;
+
+        T read(DataInput in) throws IOException;
+    }
+
+    public static final Codec<String> STRINGS = new Codec<String>() {
+        @Override
+        public void write(String value, DataOutput out) throws IOException {
+            out.writeUTF(value);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    };
+
+    public static final Codec<Integer> INTEGERS = new Codec<Integer>() {
+        @Override
+        public void write(Integer value, DataOutput out) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    public static final Codec<Long> LONGS = new Codec<Long>() {
+        @Override
+        public void write(Long value, DataOutput out) throws IOException {
+            out.writeLong(value);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    public static final Codec<byte[]> BYTES = new Codec<byte[]>() {
+        @Override
+        public void write(byte[] value, DataOutput out) throws IOException {
+            writeVarLong(out, value.length);
+            out.write(value);
+        }
+
+        @Override
+        public byte[] read(DataInput in) throws IOException {
+            byte[] value = new byte[(int) readVarLong(in)];
+            in.readFully(value);
+            return value;
+        }
+    };
+}
@@ -0,0 +1,56 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read side of the signals received by a consumer, independent of the RxJava generation that produced them.
+ * <p>Implementations expose their storage directly, none of the accessors copy the recorded values.
+ *
+ * @param <T> the value type
+ */
+public interface EventLog<T> {
+
+    /**
+     * Returns the number of onNext events received.
+     */
+    long valueCount();
+
+    /**
+     * Returns the onNext value received at the given index.
+     *
+     * @param index the position of the value, starting at zero
+     * @throws IndexOutOfBoundsException if no value was received at the given index
+     */
+    T valueAt(int index);
+
+    /**
+     * Returns a read-only, live view of the onNext values received.
+     */
+    List<T> values();
+
+    /**
+     * Returns a read-only, live view of the onError events received.
+     */
+    List<Throwable> errors();
+
+    /**
+     * Returns the number of onComplete events received.
+     */
+    long completions();
+
+    /**
+     * Returns true if an onError or onComplete event was received.
+     */
+    boolean isTerminated();
+
+    /**
+     * Awaits until the recording is done, either by a terminal event or by the consumer cancelling it, or the time elapses.
+     *
+     * @param time the waiting time
+     * @param unit the time unit of the waiting time
+     * @return true if the recording was done within the time
+     * @throws InterruptedException if the wait is interrupted
+     */
+    boolean await(long time, TimeUnit unit) throws InterruptedException;
+}
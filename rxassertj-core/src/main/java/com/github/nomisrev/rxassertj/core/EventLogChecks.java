@@ -0,0 +1,574 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Condition;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The checks behind the RxJava 1 and RxJava 2 assertion classes, written once against {@link EventLog}.
+ * <p>Every check walks the log at most once, reads values by index and stops at the first value that decides the outcome.
+ * Checks comparing individual values fail when the log did not retain every value, see {@link Retention}.
+ */
+public final class EventLogChecks {
+
+    public static void assertComplete(EventLog<?> log) {
+        long completions = log.completions();
+        if (completions == 0) {
+            throw fail(log, "Not completed");
+        }
+        if (completions > 1) {
+            throw fail(log, "Multiple completions: " + completions);
+        }
+    }
+
+    public static void assertNotComplete(EventLog<?> log) {
+        long completions = log.completions();
+        if (completions == 1) {
+            throw fail(log, "Completed!");
+        }
+        if (completions > 1) {
+            throw fail(log, "Multiple completions: " + completions);
+        }
+    }
+
+    public static void assertTerminated(EventLog<?> log) {
+        long completions = log.completions();
+        int errors = log.errors().size();
+        if (completions > 1) {
+            throw fail(log, "Terminated with multiple completions: " + completions);
+        }
+        if (errors > 1) {
+            throw fail(log, "Terminated with multiple errors: " + errors);
+        }
+        if (completions != 0 && errors != 0) {
+            throw fail(log, "Terminated with multiple completions and errors: " + completions);
+        }
+        if (completions == 0 && errors == 0) {
+            throw fail(log, "Subscriber still running!");
+        }
+    }
+
+    public static void assertNotTerminated(EventLog<?> log) {
+        if (log.isTerminated()) {
+            throw fail(log, "Subscriber terminated!");
+        }
+    }
+
+    public static void assertNoErrors(EventLog<?> log) {
+        if (!log.errors().isEmpty()) {
+            throw fail(log, "Error(s) present: " + log.errors());
+        }
+    }
+
+    public static void assertError(EventLog<?> log, Throwable error) {
+        Throwable actual = singleError(log);
+        if (!error.equals(actual)) {
+            throw fail(log, "Error not present, expected " + error + " but was " + actual);
+        }
+    }
+
+    public static void assertError(EventLog<?> log, Class<? extends Throwable> errorClass) {
+        Throwable actual = singleError(log);
+        if (!errorClass.isInstance(actual)) {
+            throw fail(log, "Error not present, expected an instance of " + errorClass.getName() + " but was " + actual);
+        }
+    }
+
+    public static void assertErrorMessage(EventLog<?> log, String message) {
+        String actual = singleError(log).getMessage();
+        if (message == null ? actual != null : !message.equals(actual)) {
+            throw fail(log, "Error message differs; Expected: " + message + ", Actual: " + actual);
+        }
+    }
+
+    /**
+     * Returns the only error of the log, failing if there is none or more than one.
+     */
+    public static Throwable singleError(EventLog<?> log) {
+        List<Throwable> errors = log.errors();
+        if (errors.isEmpty()) {
+            throw fail(log, "No errors");
+        }
+        if (errors.size() > 1) {
+            throw fail(log, "Multiple errors");
+        }
+        return errors.get(0);
+    }
+
+    public static void assertValueCount(EventLog<?> log, long count) {
+        long actual = log.valueCount();
+        if (actual != count) {
+            throw fail(log, "Value counts differ; Expected: " + count + ", Actual: " + actual);
+        }
+    }
+
+    public static <T> void assertValueAt(EventLog<T> log, int index, T value) {
+        T actual = retainedValueAt(log, index);
+        if (!equal(value, actual)) {
+            throw fail(log, "Value at position " + index + " differs; Expected: " + valueAndClass(value) + ", Actual: " + valueAndClass(actual));
+        }
+    }
+
+    /**
+     * Returns the value received at the given index, failing if there is none or if it was not retained.
+     */
+    public static <T> T retainedValueAt(EventLog<T> log, int index) {
+        if (index < 0 || index >= log.valueCount()) {
+            throw fail(log, "Invalid index: " + index);
+        }
+        try {
+            return log.valueAt(index);
+        } catch (IndexOutOfBoundsException ex) {
+            throw fail(log, "Value at position " + index + " was not retained");
+        }
+    }
+
+    public static <T> void assertValues(EventLog<T> log, T... values) {
+        long count = log.valueCount();
+        if (count != values.length) {
+            throw fail(log, "Value count differs; Expected: " + values.length + " " + Arrays.toString(values)
+                    + ", Actual: " + count + " " + log.values());
+        }
+        List<T> actual = allValues(log);
+        for (int i = 0; i < values.length; i++) {
+            T value = actual.get(i);
+            if (!equal(values[i], value)) {
+                throw fail(log, "Values at position " + i + " differ; Expected: " + valueAndClass(values[i]) + ", Actual: " + valueAndClass(value));
+            }
+        }
+    }
+
+    public static <T> void assertValueSequence(EventLog<T> log, Iterable<? extends T> sequence) {
+        List<T> values = allValues(log);
+        int count = values.size();
+        Iterator<? extends T> expected = sequence.iterator();
+        int i = 0;
+        for (; i < count && expected.hasNext(); i++) {
+            T value = expected.next();
+            T actual = values.get(i);
+            if (!equal(value, actual)) {
+                throw fail(log, "Values at position " + i + " differ; Expected: " + valueAndClass(value) + ", Actual: " + valueAndClass(actual));
+            }
+        }
+        if (i < count) {
+            throw fail(log, "More values received than expected (" + i + ")");
+        }
+        if (expected.hasNext()) {
+            throw fail(log, "Fewer values received than expected (" + i + ")");
+        }
+    }
+
+    /**
+     * Checks the values against the lazily produced sequence, reusing the comparison of the recorder if it was comparing this
+     * sequence and walking the retained values in lockstep with the sequence otherwise.
+     */
+    public static <T> void assertValueSequence(Recorder<T> recorder, ExpectedSequence<T> sequence) {
+        ExpectedSequence.Comparison<? super T> comparison = recorder.comparison();
+        if (comparison == null || comparison.sequence() != sequence) {
+            List<T> values = recorder.values();
+            long count = recorder.valueCount();
+            if (values.size() != count) {
+                throw fail(recorder, "Only " + values.size() + " of " + count + " values were retained, subscribe with "
+                        + "Recording.defaults().comparingWith(sequence) to compare the values as they arrive");
+            }
+            comparison = sequence.newComparison();
+            for (int i = 0; i < values.size() && comparison.onNext(values.get(i)); i++) {
+                // stops at the first mismatch
+            }
+        }
+        String mismatch = comparison.mismatch();
+        if (mismatch != null) {
+            throw fail(recorder, mismatch);
+        }
+    }
+
+    public static <T> void assertValueSet(EventLog<T> log, Collection<? extends T> expected) {
+        if (expected.isEmpty()) {
+            long count = log.valueCount();
+            if (count != 0) {
+                throw fail(log, "Expected no values but received " + count);
+            }
+            return;
+        }
+        List<T> values = allValues(log);
+        for (int i = 0, count = values.size(); i < count; i++) {
+            T actual = values.get(i);
+            if (!expected.contains(actual)) {
+                throw fail(log, "Value not in the expected collection: " + valueAndClass(actual));
+            }
+        }
+    }
+
+    public static <T> void assertContains(EventLog<T> log, T... values) {
+        boolean[] found = new boolean[values.length];
+        int missing = values.length;
+        List<T> received = allValues(log);
+        for (int i = 0, count = received.size(); i < count && missing > 0; i++) {
+            T actual = received.get(i);
+            for (int j = 0; j < values.length; j++) {
+                if (!found[j] && equal(values[j], actual)) {
+                    found[j] = true;
+                    missing--;
+                }
+            }
+        }
+        if (missing > 0) {
+            StringBuilder notFound = new StringBuilder();
+            for (int j = 0; j < values.length; j++) {
+                if (!found[j]) {
+                    notFound.append(notFound.length() == 0 ? "" : ", ").append(valueAndClass(values[j]));
+                }
+            }
+            throw fail(log, "Expected values to contain [" + notFound + "] but they were not received");
+        }
+    }
+
+    public static <T> void assertDoesNotContain(EventLog<T> log, T... values) {
+        List<T> received = allValues(log);
+        for (int i = 0, count = received.size(); i < count; i++) {
+            T actual = received.get(i);
+            for (T value : values) {
+                if (equal(value, actual)) {
+                    throw fail(log, "Unexpected value at position " + i + ": " + valueAndClass(actual));
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts that every retained value meets the condition, stopping at the first value that does not.
+     */
+    public static <T> void assertEach(EventLog<T> log, Condition<? super T> condition) {
+        List<T> values = log.values();
+        for (int i = 0, count = values.size(); i < count; i++) {
+            T actual = values.get(i);
+            if (!condition.matches(actual)) {
+                throw fail(log, "Expected each value to be " + condition + " but " + describe(log, i) + " was not: " + valueAndClass(actual));
+            }
+        }
+    }
+
+    /**
+     * Asserts that no retained value meets the condition, stopping at the first value that does.
+     */
+    public static <T> void assertNone(EventLog<T> log, Condition<? super T> condition) {
+        List<T> values = log.values();
+        for (int i = 0, count = values.size(); i < count; i++) {
+            T actual = values.get(i);
+            if (condition.matches(actual)) {
+                throw fail(log, "Expected no value to be " + condition + " but " + describe(log, i) + " was: " + valueAndClass(actual));
+            }
+        }
+    }
+
+    private static String describe(EventLog<?> log, int position) {
+        return log.values().size() == log.valueCount() ? "value at position " + position : "retained value " + position;
+    }
+
+    /**
+     * Asserts that at least {@code times} values meet the condition, stopping as soon as they are found.
+     */
+    public static <T> void assertAtLeast(EventLog<T> log, int times, Condition<? super T> condition) {
+        long matches = countMatches(log, condition, times);
+        if (matches < times) {
+            throw fail(log, "Expected at least " + times + " values to be " + condition + " but found " + matches);
+        }
+    }
+
+    /**
+     * Asserts that at most {@code times} values meet the condition, stopping as soon as one too many is found.
+     */
+    public static <T> void assertAtMost(EventLog<T> log, int times, Condition<? super T> condition) {
+        long matches = countMatches(log, condition, times + 1L);
+        if (matches > times) {
+            throw fail(log, "Expected at most " + times + " values to be " + condition + " but found more");
+        }
+    }
+
+    /**
+     * Asserts that exactly {@code times} values meet the condition, stopping as soon as one too many is found.
+     */
+    public static <T> void assertExactly(EventLog<T> log, int times, Condition<? super T> condition) {
+        long matches = countMatches(log, condition, times + 1L);
+        if (matches > times) {
+            throw fail(log, "Expected exactly " + times + " values to be " + condition + " but found more");
+        }
+        if (matches < times) {
+            throw fail(log, "Expected exactly " + times + " values to be " + condition + " but found " + matches);
+        }
+    }
+
+    public static void assertMeanBetween(Recorder<?> recorder, double min, double max) {
+        double mean = statistics(recorder).mean();
+        if (!(mean >= min && mean <= max)) {
+            throw fail(recorder, "Expected mean between " + min + " and " + max + " but was " + mean);
+        }
+    }
+
+    public static void assertStandardDeviationBelow(Recorder<?> recorder, double limit) {
+        double deviation = statistics(recorder).standardDeviation();
+        if (!(deviation < limit)) {
+            throw fail(recorder, "Expected standard deviation below " + limit + " but was " + deviation);
+        }
+    }
+
+    public static void assertMinAtLeast(Recorder<?> recorder, double limit) {
+        double min = statistics(recorder).min();
+        if (!(min >= limit)) {
+            throw fail(recorder, "Expected minimum of at least " + limit + " but was " + min);
+        }
+    }
+
+    public static void assertMaxAtMost(Recorder<?> recorder, double limit) {
+        double max = statistics(recorder).max();
+        if (!(max <= limit)) {
+            throw fail(recorder, "Expected maximum of at most " + limit + " but was " + max);
+        }
+    }
+
+    /**
+     * Fails unless the estimated value at the quantile is below the limit. The estimate is within
+     * {@link NumericStatistics#QUANTILE_ACCURACY} of the exact value.
+     */
+    public static void assertQuantileBelow(Recorder<?> recorder, double quantile, double limit) {
+        double value = statistics(recorder).quantile(quantile);
+        if (!(value < limit)) {
+            throw fail(recorder, "Expected quantile " + quantile + " below " + limit + " but was " + value);
+        }
+    }
+
+    /**
+     * Returns the statistics of the recorder, failing if they were not recorded or no numeric value was received.
+     */
+    public static NumericStatistics statistics(Recorder<?> recorder) {
+        NumericStatistics statistics = recorder.statistics();
+        if (statistics == null) {
+            throw fail(recorder, "Statistics were not recorded, subscribe with Recording.defaults().withStatistics()");
+        }
+        if (statistics.count() == 0) {
+            throw fail(recorder, "No numeric values were received");
+        }
+        return statistics;
+    }
+
+    public static void assertMaxGapBelow(Recorder<?> recorder, long time, TimeUnit unit) {
+        long gap = arrivalTimes(recorder).maxGap();
+        if (gap >= unit.toNanos(time)) {
+            throw fail(recorder, "Expected every gap between values below " + time + " " + unit + " but the longest was " + gap + " ns");
+        }
+    }
+
+    /**
+     * Fails unless the jitter, the 99th minus the 50th percentile of the gaps between values, is below the given time.
+     */
+    public static void assertJitterBelow(Recorder<?> recorder, long time, TimeUnit unit) {
+        ArrivalTimes arrivalTimes = arrivalTimes(recorder);
+        long p99 = arrivalTimes.gapQuantile(0.99);
+        long p50 = arrivalTimes.gapQuantile(0.5);
+        if (p99 - p50 >= unit.toNanos(time)) {
+            throw fail(recorder, "Expected jitter below " + time + " " + unit + " but it was " + (p99 - p50)
+                    + " ns (p50 = " + p50 + " ns, p99 = " + p99 + " ns)");
+        }
+    }
+
+    /**
+     * Fails if there was a longer time without any signal than the given time, counting from the start of the recording up
+     * to its end.
+     */
+    public static void assertNoStallLongerThan(Recorder<?> recorder, long time, TimeUnit unit) {
+        long stall = arrivalTimes(recorder).longestStall();
+        if (stall > unit.toNanos(time)) {
+            throw fail(recorder, "Expected no stall longer than " + time + " " + unit + " but found one of " + stall + " ns");
+        }
+    }
+
+    /**
+     * Returns the arrival times of the recorder, failing if they were not recorded.
+     */
+    public static ArrivalTimes arrivalTimes(Recorder<?> recorder) {
+        ArrivalTimes arrivalTimes = recorder.arrivalTimes();
+        if (arrivalTimes == null) {
+            throw fail(recorder, "Arrival times were not recorded, subscribe with Recording.defaults().withArrivalTimes()");
+        }
+        return arrivalTimes;
+    }
+
+    public static void assertDeliveredOnThreadsMatching(Recorder<?> recorder, Pattern pattern) {
+        for (String name : recorder.threads().names()) {
+            if (!pattern.matcher(name).matches()) {
+                throw fail(recorder, "Expected every signal to be delivered on a thread matching " + pattern + " but one was delivered on " + name);
+            }
+        }
+    }
+
+    public static void assertAtMostThreads(Recorder<?> recorder, int count) {
+        DeliveringThreads threads = recorder.threads();
+        if (threads.count() > count) {
+            throw fail(recorder, "Expected signals to be delivered on at most " + count + " thread(s) but they were delivered on " + threads.names());
+        }
+    }
+
+    public static void assertAtMostThreadHops(Recorder<?> recorder, long count) {
+        DeliveringThreads threads = recorder.threads();
+        if (threads.hops() > count) {
+            throw fail(recorder, "Expected at most " + count + " thread hop(s) but there were " + threads.hops() + " between " + threads.names());
+        }
+    }
+
+    public static void assertSerialized(Recorder<?> recorder) {
+        SignalOverlaps overlaps = overlaps(recorder);
+        if (overlaps.overlaps() != 0) {
+            throw fail(recorder, "Expected serialized signals but " + overlaps.overlaps() + " signal(s) overlapped with another one, up to "
+                    + overlaps.maxConcurrency() + " at once");
+        }
+    }
+
+    public static void assertOverlappingValues(Recorder<?> recorder, long count) {
+        SignalOverlaps overlaps = overlaps(recorder);
+        if (overlaps.overlappingValues() != count) {
+            throw fail(recorder, "Expected " + count + " concurrent onNext signal(s) but there were " + overlaps.overlappingValues());
+        }
+    }
+
+    private static SignalOverlaps overlaps(Recorder<?> recorder) {
+        SignalOverlaps overlaps = recorder.overlaps();
+        if (overlaps == null) {
+            throw fail(recorder, "Overlapping signals were not recorded, subscribe with Recording.concurrent()");
+        }
+        return overlaps;
+    }
+
+    /**
+     * Checks the signals against the pattern, reusing the matcher of the recorder if it was recording this pattern and walking
+     * the retained values otherwise.
+     */
+    public static <T> void assertMatchesPattern(Recorder<T> recorder, SignalPattern<T> pattern) {
+        SignalPattern.Matcher<? super T> matcher = recorder.matcher();
+        if (matcher == null || matcher.pattern() != pattern) {
+            List<T> values = recorder.values();
+            long count = recorder.valueCount();
+            if (values.size() != count) {
+                throw fail(recorder, "Only " + values.size() + " of " + count + " values were retained, subscribe with "
+                        + "Recording.defaults().matching(pattern) to match the values as they arrive");
+            }
+            matcher = pattern.newMatcher();
+            for (int i = 0; i < values.size(); i++) {
+                matcher.onNext(values.get(i));
+            }
+            List<Throwable> errors = recorder.errors();
+            if (!errors.isEmpty()) {
+                matcher.onError(errors.get(0));
+            } else if (recorder.completions() != 0) {
+                matcher.onComplete();
+            }
+        }
+        String mismatch = matcher.mismatch();
+        if (mismatch != null) {
+            throw fail(recorder, mismatch);
+        }
+    }
+
+    public static <T> void assertOrderedDigest(Recorder<T> recorder, long expected, StreamDigest.Hasher<? super T> hasher) {
+        long actual = digest(recorder, hasher).ordered();
+        if (actual != expected) {
+            throw fail(recorder, "Digests differ; Expected: " + StreamDigest.hex(expected) + ", Actual: " + StreamDigest.hex(actual));
+        }
+    }
+
+    public static <T> void assertUnorderedDigest(Recorder<T> recorder, long expected, StreamDigest.Hasher<? super T> hasher) {
+        long actual = digest(recorder, hasher).unordered();
+        if (actual != expected) {
+            throw fail(recorder, "Unordered digests differ; Expected: " + StreamDigest.hex(expected) + ", Actual: "
+                    + StreamDigest.hex(actual));
+        }
+    }
+
+    /**
+     * Checks that the values have the same ordered digest and count as the reference sequence, which is only iterated once.
+     */
+    public static <T> void assertSequenceDigest(Recorder<T> recorder, Iterable<? extends T> reference,
+                                                StreamDigest.Hasher<? super T> hasher) {
+        StreamDigest<T> actual = digest(recorder, hasher);
+        StreamDigest<T> expected = StreamDigest.of(reference, hasher);
+        if (actual.count() != expected.count() || actual.ordered() != expected.ordered()) {
+            throw fail(recorder, "Digests differ; Expected: " + StreamDigest.hex(expected.ordered()) + " over " + expected.count()
+                    + " values, Actual: " + StreamDigest.hex(actual.ordered()) + " over " + actual.count() + " values");
+        }
+    }
+
+    /**
+     * Returns the digest of the recorder if it was computed with the same hasher while recording, or computes it from the
+     * retained values otherwise.
+     */
+    public static <T> StreamDigest<T> digest(Recorder<T> recorder, StreamDigest.Hasher<? super T> hasher) {
+        StreamDigest<T> digest = recorder.digest();
+        if (digest != null && digest.hasher() == hasher) {
+            return digest;
+        }
+        List<T> values = recorder.values();
+        long count = recorder.valueCount();
+        if (values.size() != count) {
+            throw fail(recorder, "Only " + values.size() + " of " + count + " values were retained, subscribe with "
+                    + "Recording.defaults().withDigest(hasher) to digest the values as they arrive");
+        }
+        return StreamDigest.of(values, hasher);
+    }
+
+    private static <T> long countMatches(EventLog<T> log, Condition<? super T> condition, long limit) {
+        List<T> values = allValues(log);
+        long matches = 0;
+        for (int i = 0, count = values.size(); i < count && matches < limit; i++) {
+            if (condition.matches(values.get(i))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the values of the log, failing if it did not retain every value received.
+     */
+    public static <T> List<T> allValues(EventLog<T> log) {
+        List<T> values = log.values();
+        long count = log.valueCount();
+        if (values.size() != count) {
+            throw fail(log, "Only " + values.size() + " of " + count + " values were retained, this check needs every value");
+        }
+        return values;
+    }
+
+    /**
+     * Creates an {@link AssertionError} with the given message and a summary of the log, with the first error as cause.
+     */
+    public static AssertionError fail(EventLog<?> log, String message) {
+        StringBuilder b = new StringBuilder(64 + message.length());
+        b.append(message)
+                .append(" (values = ").append(log.valueCount())
+                .append(", errors = ").append(log.errors().size())
+                .append(", completions = ").append(log.completions())
+                .append(')');
+        AssertionError error = new AssertionError(b.toString());
+        List<Throwable> errors = log.errors();
+        if (!errors.isEmpty()) {
+            error.initCause(errors.get(0));
+        }
+        return error;
+    }
+
+    public static String valueAndClass(Object value) {
+        return value != null ? value + " (class: " + value.getClass().getSimpleName() + ")" : "null";
+    }
+
+    private static boolean equal(Object expected, Object actual) {
+        return expected == null ? actual == null : expected.equals(actual);
+    }
+
+    private EventLogChecks() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,295 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Condition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable description of the signals a source should emit, built once and verified against any number of sources.
+ * <pre>{@code
+ * Expectation<Integer> expectation = Expectation.<Integer>builder()
+ *         .values(1, 2, 3)
+ *         .each(positive)
+ *         .completes()
+ *         .build();
+ * }</pre>
+ * Every subscription gets its own {@link Verification}, which checks the values as they arrive and keeps only a value counter,
+ * the terminal event and the first failure, so the values themselves are never stored. Subscribe it through
+ * {@code Rx2Assertions.subscriberFor(expectation)} or {@code RxAssertions.subscriberFor(expectation)}.
+ *
+ * @param <T> the value type
+ */
+public final class Expectation<T> {
+
+    private static final int ANY = -1;
+
+    private final Object[] values;
+    private final long valueCount;
+    private final List<Condition<? super T>> conditions;
+    private final boolean completes;
+    private final Class<? extends Throwable> errorClass;
+
+    private Expectation(Builder<T> builder) {
+        this.values = builder.values;
+        this.valueCount = builder.valueCount;
+        this.conditions = Collections.unmodifiableList(new ArrayList<Condition<? super T>>(builder.conditions));
+        this.completes = builder.completes;
+        this.errorClass = builder.errorClass;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<T>();
+    }
+
+    /**
+     * Returns a fresh verification for a single subscription.
+     */
+    public Verification<T> newVerification() {
+        return new Verification<T>(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder("Expectation[");
+        if (values != null) {
+            b.append("values = ").append(Arrays.toString(values));
+        } else if (valueCount != ANY) {
+            b.append("value count = ").append(valueCount);
+        } else {
+            b.append("any values");
+        }
+        for (Condition<? super T> condition : conditions) {
+            b.append(", each ").append(condition);
+        }
+        if (completes) {
+            b.append(", completes");
+        } else if (errorClass != null) {
+            b.append(", fails with ").append(errorClass.getName());
+        }
+        return b.append(']').toString();
+    }
+
+    /**
+     * Builds an {@link Expectation}. Not thread-safe, the built expectation is.
+     *
+     * @param <T> the value type
+     */
+    public static final class Builder<T> {
+
+        private Object[] values;
+        private long valueCount = ANY;
+        private final List<Condition<? super T>> conditions = new ArrayList<Condition<? super T>>();
+        private boolean completes;
+        private Class<? extends Throwable> errorClass;
+
+        Builder() {
+        }
+
+        /**
+         * Expects exactly these values, in this order.
+         */
+        public Builder<T> values(final T... values) {
+            this.values = values.clone();
+            this.valueCount = values.length;
+            return this;
+        }
+
+        /**
+         * Expects exactly this number of values.
+         */
+        public Builder<T> valueCount(final long count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("count >= 0 required but it was " + count);
+            }
+            if (values != null && values.length != count) {
+                throw new IllegalStateException("Already expecting " + values.length + " values");
+            }
+            this.valueCount = count;
+            return this;
+        }
+
+        /**
+         * Expects every value to satisfy the condition.
+         */
+        public Builder<T> each(final Condition<? super T> condition) {
+            if (condition == null) {
+                throw new NullPointerException("condition");
+            }
+            conditions.add(condition);
+            return this;
+        }
+
+        /**
+         * Expects the source to complete.
+         */
+        public Builder<T> completes() {
+            this.completes = true;
+            this.errorClass = null;
+            return this;
+        }
+
+        /**
+         * Expects the source to fail with an instance of the given class.
+         */
+        public Builder<T> failsWith(final Class<? extends Throwable> errorClass) {
+            if (errorClass == null) {
+                throw new NullPointerException("errorClass");
+            }
+            this.errorClass = errorClass;
+            this.completes = false;
+            return this;
+        }
+
+        public Expectation<T> build() {
+            return new Expectation<T>(this);
+        }
+    }
+
+    /**
+     * Checks the signals of one subscription against the {@link Expectation} while they arrive.
+     * <p>The signals must be serialized, as the RxJava protocol guarantees. The outcome can be read from any thread once
+     * {@link #await(long, TimeUnit)} returned true.
+     *
+     * @param <T> the value type
+     */
+    public static final class Verification<T> {
+
+        private final Expectation<T> expectation;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private long count;
+        private long completions;
+        private Throwable error;
+        private volatile String failure;
+
+        Verification(Expectation<T> expectation) {
+            this.expectation = expectation;
+        }
+
+        public void onNext(T value) {
+            long index = count++;
+            if (failure != null) {
+                return;
+            }
+            if (done.getCount() == 0) {
+                failure = "Value after terminal event: " + EventLogChecks.valueAndClass(value);
+                return;
+            }
+            Object[] values = expectation.values;
+            if (values != null) {
+                if (index >= values.length) {
+                    failure = "More values received than expected (" + values.length + ")";
+                    return;
+                }
+                Object expected = values[(int) index];
+                if (expected != null ? !expected.equals(value) : value != null) {
+                    failure = "Values at position " + index + " differ; Expected: " + EventLogChecks.valueAndClass(expected)
+                            + ", Actual: " + EventLogChecks.valueAndClass(value);
+                    return;
+                }
+            } else if (expectation.valueCount != ANY && index >= expectation.valueCount) {
+                failure = "Value counts differ; Expected: " + expectation.valueCount + ", Actual: more";
+                return;
+            }
+            List<Condition<? super T>> conditions = expectation.conditions;
+            for (int i = 0; i < conditions.size(); i++) {
+                Condition<? super T> condition = conditions.get(i);
+                if (!condition.matches(value)) {
+                    failure = "Expected each value to be " + condition + " but value at position " + index + " was not: "
+                            + EventLogChecks.valueAndClass(value);
+                    return;
+                }
+            }
+        }
+
+        public void onError(Throwable error) {
+            if (done.getCount() == 0) {
+                if (failure == null) {
+                    failure = "Error after terminal event: " + error;
+                }
+                return;
+            }
+            this.error = error;
+            done.countDown();
+        }
+
+        public void onComplete() {
+            if (done.getCount() == 0) {
+                if (failure == null) {
+                    failure = "Completion after terminal event";
+                }
+                return;
+            }
+            completions++;
+            done.countDown();
+        }
+
+        /**
+         * Returns true once the source terminated.
+         */
+        public boolean isTerminated() {
+            return done.getCount() == 0;
+        }
+
+        /**
+         * Waits for the source to terminate.
+         *
+         * @return true if it terminated in time
+         */
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            return done.await(time, unit);
+        }
+
+        /**
+         * Throws an {@link AssertionError} describing the first unmet expectation.
+         */
+        public void assertSatisfied() {
+            String message = failure;
+            if (message == null) {
+                message = checkEnd();
+            }
+            if (message != null) {
+                StringBuilder b = new StringBuilder(64 + message.length());
+                b.append(message)
+                        .append(" (values = ").append(count)
+                        .append(", errors = ").append(error != null ? 1 : 0)
+                        .append(", completions = ").append(completions)
+                        .append(')');
+                AssertionError assertion = new AssertionError(b.toString());
+                if (error != null) {
+                    assertion.initCause(error);
+                }
+                throw assertion;
+            }
+        }
+
+        private String checkEnd() {
+            boolean terminated = done.getCount() == 0;
+            if ((expectation.completes || expectation.errorClass != null) && !terminated) {
+                return "Subscriber still running!";
+            }
+            long expectedCount = expectation.valueCount;
+            if (expectedCount != ANY && count != expectedCount) {
+                if (!terminated && count < expectedCount) {
+                    return "Subscriber still running! Fewer values received than expected (" + count + ")";
+                }
+                return expectation.values != null
+                        ? "Fewer values received than expected (" + count + ")"
+                        : "Value counts differ; Expected: " + expectedCount + ", Actual: " + count;
+            }
+            if (expectation.completes && error != null) {
+                return "Error(s) present: [" + error + "]";
+            }
+            if (expectation.errorClass != null && !expectation.errorClass.isInstance(error)) {
+                return "Error not present, expected an instance of " + expectation.errorClass.getName() + " but was "
+                        + (error != null ? error : "completion");
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.Iterator;
+
+/**
+ * An expected sequence of values produced lazily, from an {@link Iterable} or from a {@link Generator} computing the value
+ * expected at each index, so expected outputs like "every long from 0 to 10<sup>8</sup>" are never materialized.
+ * <p>A {@link Comparison} walks the sequence in lockstep with the received values and stops at the first mismatch. Pass the
+ * sequence to {@link Recording#comparingWith(ExpectedSequence)} to compare the values as they arrive, without retaining them.
+ *
+ * @param <T> the value type
+ */
+public final class ExpectedSequence<T> {
+
+    private final Iterable<? extends T> iterable;
+    private final long count;
+    private final Generator<? extends T> generator;
+
+    private ExpectedSequence(Iterable<? extends T> iterable, long count, Generator<? extends T> generator) {
+        this.iterable = iterable;
+        this.count = count;
+        this.generator = generator;
+    }
+
+    /**
+     * Expects the values of the iterable, which is iterated once per comparison.
+     */
+    public static <T> ExpectedSequence<T> of(Iterable<? extends T> iterable) {
+        if (iterable == null) {
+            throw new NullPointerException("iterable is null");
+        }
+        return new ExpectedSequence<T>(iterable, -1, null);
+    }
+
+    /**
+     * Expects {@code count} values, the value at each index being computed by the generator.
+     */
+    public static <T> ExpectedSequence<T> generated(long count, Generator<? extends T> generator) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count >= 0 required but it was " + count);
+        }
+        if (generator == null) {
+            throw new NullPointerException("generator is null");
+        }
+        return new ExpectedSequence<T>(null, count, generator);
+    }
+
+    /**
+     * Starts a comparison of a single stream against the sequence.
+     */
+    public Comparison<T> newComparison() {
+        return new Comparison<T>(this);
+    }
+
+    @Override
+    public String toString() {
+        return iterable != null ? "ExpectedSequence{" + iterable.getClass().getSimpleName() + "}"
+                : "ExpectedSequence{count=" + count + "}";
+    }
+
+    /**
+     * Computes the value expected at an index of the stream.
+     *
+     * @param <T> the value type
+     */
+    public interface Generator<T> {
+        T valueAt(long index);
+    }
+
+    /**
+     * Compares the values of one stream against the {@link ExpectedSequence} as they arrive, keeping only the position and the
+     * first mismatch. Values must be serialized.
+     *
+     * @param <T> the value type
+     */
+    public static final class Comparison<T> {
+
+        private final ExpectedSequence<T> sequence;
+        private final Iterator<? extends T> iterator;
+
+        private long index;
+        private String mismatch;
+
+        Comparison(ExpectedSequence<T> sequence) {
+            this.sequence = sequence;
+            this.iterator = sequence.iterable != null ? sequence.iterable.iterator() : null;
+        }
+
+        public ExpectedSequence<T> sequence() {
+            return sequence;
+        }
+
+        /**
+         * Compares the next value.
+         *
+         * @return false once a value did not match, after which further values are ignored
+         */
+        public boolean onNext(T actual) {
+            if (mismatch != null) {
+                return false;
+            }
+            long i = index++;
+            T expected;
+            if (iterator != null) {
+                if (!iterator.hasNext()) {
+                    mismatch = "More values received than expected (" + i + ")";
+                    return false;
+                }
+                expected = iterator.next();
+            } else {
+                if (i >= sequence.count) {
+                    mismatch = "More values received than expected (" + i + ")";
+                    return false;
+                }
+                expected = sequence.generator.valueAt(i);
+            }
+            if (expected != null ? !expected.equals(actual) : actual != null) {
+                mismatch = "Values at position " + i + " differ; Expected: " + EventLogChecks.valueAndClass(expected)
+                        + ", Actual: " + EventLogChecks.valueAndClass(actual);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Returns the first difference to the expected sequence, or null if the values received so far are the whole
+         * sequence.
+         */
+        public String mismatch() {
+            if (mismatch != null) {
+                return mismatch;
+            }
+            boolean more = iterator != null ? iterator.hasNext() : index < sequence.count;
+            return more ? "Fewer values received than expected (" + index + ")" : null;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a candidate stream with a reference stream while both are running, pairing their values by index and stopping
+ * both at the first difference.
+ * <p>Each side is attached with a {@link Demand} and asked for at most {@code bufferSize} values ahead of the comparison,
+ * so the side running ahead only buffers that many values while waiting for the other one. A side ignoring the requests,
+ * e.g. a source without backpressure, buffers as many values as it runs ahead. Signals of the two sides may arrive on
+ * different threads, each side has to be serialized.
+ *
+ * @param <T> the value type
+ */
+public final class LockstepComparison<T> {
+
+    public static final int CANDIDATE = 0;
+    public static final int REFERENCE = 1;
+
+    private static final String[] NAMES = {"Candidate", "Reference"};
+
+    private final Comparator<? super T> comparator;
+    private final int bufferSize;
+    private final int limit;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    private final Side<T> candidate = new Side<T>();
+    private final Side<T> reference = new Side<T>();
+    private long index;
+    private int consumed;
+    private boolean finished;
+    private String mismatch;
+
+    /**
+     * @param comparator compares the paired values, or null to compare them with {@code equals}
+     * @param bufferSize the number of values requested from each side ahead of the comparison
+     */
+    public LockstepComparison(Comparator<? super T> comparator, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize > 0 required but it was " + bufferSize);
+        }
+        this.comparator = comparator;
+        this.bufferSize = bufferSize;
+        this.limit = bufferSize - (bufferSize >> 2);
+    }
+
+    /**
+     * Attaches the subscription of a side and requests its first values, or cancels it if the comparison already finished.
+     *
+     * @param demand the subscription of the side
+     */
+    public void attach(int side, Demand demand) {
+        boolean cancel;
+        synchronized (this) {
+            side(side).demand = demand;
+            cancel = finished;
+        }
+        if (cancel) {
+            demand.cancel();
+        } else {
+            demand.request(bufferSize);
+        }
+    }
+
+    public void onNext(int side, T value) {
+        long replenish;
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            side(side).values.offer(new Value<T>(value));
+            replenish = drain();
+        }
+        afterDrain(replenish);
+    }
+
+    public void onError(int side, Throwable error) {
+        terminate(side, error);
+    }
+
+    public void onComplete(int side) {
+        terminate(side, null);
+    }
+
+    private void terminate(int side, Throwable error) {
+        long replenish;
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            Side<T> s = side(side);
+            s.terminated = true;
+            s.error = error;
+            replenish = drain();
+        }
+        afterDrain(replenish);
+    }
+
+    /**
+     * Gives up on the comparison after the caller waited long enough, cancelling both sides.
+     */
+    public void timeout(long time, TimeUnit unit) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finish("No verdict within " + time + " " + unit.toString().toLowerCase() + " after " + index
+                    + " equal values; " + state(candidate, CANDIDATE) + ", " + state(reference, REFERENCE));
+        }
+        afterDrain(0);
+    }
+
+    /**
+     * Pairs the buffered values and checks the terminal events, returning the number of values to request from both sides.
+     */
+    private long drain() {
+        long replenish = 0;
+        while (!finished) {
+            Value<T> c = candidate.values.peek();
+            Value<T> r = reference.values.peek();
+            if (c != null && r != null) {
+                candidate.values.poll();
+                reference.values.poll();
+                if (!same(c.value, r.value)) {
+                    finish("Values at position " + index + " differ; Candidate: " + EventLogChecks.valueAndClass(c.value)
+                            + ", Reference: " + EventLogChecks.valueAndClass(r.value));
+                    return 0;
+                }
+                index++;
+                if (++consumed == limit) {
+                    consumed = 0;
+                    replenish += limit;
+                }
+            } else if (c == null && candidate.terminated && r != null) {
+                finish(NAMES[CANDIDATE] + " " + terminal(candidate) + " after " + index + " values, "
+                        + NAMES[REFERENCE] + " emitted " + EventLogChecks.valueAndClass(r.value));
+            } else if (r == null && reference.terminated && c != null) {
+                finish(NAMES[REFERENCE] + " " + terminal(reference) + " after " + index + " values, "
+                        + NAMES[CANDIDATE] + " emitted " + EventLogChecks.valueAndClass(c.value));
+            } else if (c == null && r == null && candidate.terminated && reference.terminated) {
+                boolean same = candidate.error == null ? reference.error == null
+                        : reference.error != null && candidate.error.getClass() == reference.error.getClass();
+                finish(same ? null : "Terminal events differ after " + index + " values; " + NAMES[CANDIDATE] + " "
+                        + terminal(candidate) + ", " + NAMES[REFERENCE] + " " + terminal(reference));
+            } else {
+                return replenish;
+            }
+        }
+        return 0;
+    }
+
+    private boolean same(T candidate, T reference) {
+        if (comparator != null) {
+            return comparator.compare(candidate, reference) == 0;
+        }
+        return candidate != null ? candidate.equals(reference) : reference == null;
+    }
+
+    private void finish(String mismatch) {
+        this.mismatch = mismatch;
+        finished = true;
+        candidate.values.clear();
+        reference.values.clear();
+    }
+
+    /**
+     * Runs outside the lock, as requesting or cancelling may synchronously deliver further signals.
+     */
+    private void afterDrain(long replenish) {
+        Demand c;
+        Demand r;
+        boolean cancel;
+        synchronized (this) {
+            c = candidate.terminated ? null : candidate.demand;
+            r = reference.terminated ? null : reference.demand;
+            cancel = finished;
+        }
+        if (cancel) {
+            if (done.getCount() != 0) {
+                done.countDown();
+                if (c != null) {
+                    c.cancel();
+                }
+                if (r != null) {
+                    r.cancel();
+                }
+            }
+        } else if (replenish != 0) {
+            if (c != null) {
+                c.request(replenish);
+            }
+            if (r != null) {
+                r.request(replenish);
+            }
+        }
+    }
+
+    /**
+     * Blocks until the comparison finished or the time elapses.
+     *
+     * @return false if the time elapsed first
+     */
+    public boolean await(long time, TimeUnit unit) throws InterruptedException {
+        return done.await(time, unit);
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the number of values found equal.
+     */
+    public synchronized long compared() {
+        return index;
+    }
+
+    /**
+     * Returns the first difference between the streams, or null if they were equal. Only meaningful once finished.
+     */
+    public synchronized String mismatch() {
+        return mismatch;
+    }
+
+    private Side<T> side(int side) {
+        return side == CANDIDATE ? candidate : reference;
+    }
+
+    private static String terminal(Side<?> side) {
+        return side.error != null ? "failed with " + side.error : "completed";
+    }
+
+    private static String state(Side<?> side, int which) {
+        return NAMES[which] + (side.terminated ? " " + terminal(side) : " running") + " with " + side.values.size()
+                + " buffered";
+    }
+
+    /**
+     * The subscription of one side.
+     */
+    public interface Demand {
+
+        void request(long n);
+
+        void cancel();
+    }
+
+    private static final class Side<T> {
+        final ArrayDeque<Value<T>> values = new ArrayDeque<Value<T>>();
+        Demand demand;
+        boolean terminated;
+        Throwable error;
+    }
+
+    /**
+     * Wraps a value, as the buffer does not accept nulls.
+     */
+    private static final class Value<T> {
+        final T value;
+
+        Value(T value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A parsed marble diagram, the timeline of a stream written as text, e.g. {@code "-a--b-c|"}.
+ * <ul>
+ * <li>{@code -} lets one frame pass</li>
+ * <li>any letter or digit emits the value it stands for and takes one frame</li>
+ * <li>{@code (ab)} emits the grouped values in the same frame, the group takes one frame</li>
+ * <li>{@code |} completes and {@code #} fails the stream</li>
+ * <li>spaces are ignored and can be used for alignment</li>
+ * </ul>
+ * Parsed diagrams are immutable and cached, so the same diagram used across many tests is only parsed once.
+ */
+public final class MarbleDiagram {
+
+    /**
+     * The virtual time a frame takes, in milliseconds.
+     */
+    public static final long FRAME_MILLIS = 10;
+
+    private static final int CACHE_SIZE = 1024;
+    private static final ConcurrentHashMap<String, MarbleDiagram> CACHE = new ConcurrentHashMap<String, MarbleDiagram>();
+
+    private final String diagram;
+    private final List<Marble> marbles;
+    private final long frames;
+
+    private MarbleDiagram(String diagram, List<Marble> marbles, long frames) {
+        this.diagram = diagram;
+        this.marbles = Collections.unmodifiableList(marbles);
+        this.frames = frames;
+    }
+
+    /**
+     * Parses the diagram, or returns the cached result of an earlier parse.
+     *
+     * @throws IllegalArgumentException if the diagram is malformed
+     */
+    public static MarbleDiagram parse(String diagram) {
+        MarbleDiagram parsed = CACHE.get(diagram);
+        if (parsed == null) {
+            parsed = doParse(diagram);
+            if (CACHE.size() >= CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(diagram, parsed);
+        }
+        return parsed;
+    }
+
+    private static MarbleDiagram doParse(String diagram) {
+        List<Marble> marbles = new ArrayList<Marble>();
+        long frame = 0;
+        boolean grouped = false;
+        boolean terminated = false;
+        for (int i = 0; i < diagram.length(); i++) {
+            char c = diagram.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            if (terminated && c != '-' && c != ')') {
+                throw new IllegalArgumentException("Signal after terminal event at index " + i + " of " + diagram);
+            }
+            switch (c) {
+                case '-':
+                    if (grouped) {
+                        throw new IllegalArgumentException("Time cannot pass in a group, at index " + i + " of " + diagram);
+                    }
+                    break;
+                case '(':
+                    if (grouped) {
+                        throw new IllegalArgumentException("Nested group at index " + i + " of " + diagram);
+                    }
+                    grouped = true;
+                    continue;
+                case ')':
+                    if (!grouped) {
+                        throw new IllegalArgumentException("Unopened group closed at index " + i + " of " + diagram);
+                    }
+                    grouped = false;
+                    break;
+                case '|':
+                    marbles.add(new Marble(frame, Marble.COMPLETE, c));
+                    terminated = true;
+                    break;
+                case '#':
+                    marbles.add(new Marble(frame, Marble.ERROR, c));
+                    terminated = true;
+                    break;
+                default:
+                    if (!Character.isLetterOrDigit(c)) {
+                        throw new IllegalArgumentException("Unknown marble '" + c + "' at index " + i + " of " + diagram);
+                    }
+                    marbles.add(new Marble(frame, Marble.VALUE, c));
+                    break;
+            }
+            if (!grouped) {
+                frame++;
+            }
+        }
+        if (grouped) {
+            throw new IllegalArgumentException("Unclosed group in " + diagram);
+        }
+        return new MarbleDiagram(diagram, marbles, frame);
+    }
+
+    /**
+     * Returns the signals of the diagram in order.
+     */
+    public List<Marble> marbles() {
+        return marbles;
+    }
+
+    /**
+     * Returns the number of frames the diagram spans.
+     */
+    public long frames() {
+        return frames;
+    }
+
+    @Override
+    public String toString() {
+        return diagram;
+    }
+
+    /**
+     * A signal of a {@link MarbleDiagram} and the frame it happens in.
+     */
+    public static final class Marble {
+
+        public static final int VALUE = 0;
+        public static final int ERROR = 1;
+        public static final int COMPLETE = 2;
+
+        private final long frame;
+        private final int kind;
+        private final char symbol;
+
+        Marble(long frame, int kind, char symbol) {
+            this.frame = frame;
+            this.kind = kind;
+            this.symbol = symbol;
+        }
+
+        public long frame() {
+            return frame;
+        }
+
+        /**
+         * Returns {@link #VALUE}, {@link #ERROR} or {@link #COMPLETE}.
+         */
+        public int kind() {
+            return kind;
+        }
+
+        /**
+         * Returns the character of the signal in the diagram, which names the value for {@link #VALUE} signals.
+         */
+        public String symbol() {
+            return String.valueOf(symbol);
+        }
+
+        @Override
+        public String toString() {
+            return symbol + "@" + frame;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.nomisrev.rxassertj.core;
+
+/**
+ * Summary statistics of the numeric values of a stream, updated as each value arrives.
+ * <p>Mean and variance use Welford's algorithm, which stays numerically stable over long streams, and quantiles come from a
+ * bounded-memory sketch with a relative error of at most {@link #QUANTILE_ACCURACY}. None of them needs the values to be
+ * retained. Recorded by a {@link Recorder} when {@link Recording#withStatistics()} is set; values that are not a
+ * {@link Number} are ignored.
+ */
+public final class NumericStatistics {
+
+    /**
+     * The relative error of {@link #quantile(double)}.
+     */
+    public static final double QUANTILE_ACCURACY = 0.01;
+
+    private final QuantileSketch sketch = new QuantileSketch(QUANTILE_ACCURACY);
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void add(double value) {
+        long n = ++count;
+        double delta = value - mean;
+        mean += delta / n;
+        m2 += delta * (value - mean);
+        if (value < min || Double.isNaN(value)) {
+            min = value;
+        }
+        if (value > max || Double.isNaN(value)) {
+            max = value;
+        }
+        sketch.add(value);
+    }
+
+    /**
+     * Returns the number of numeric values.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the arithmetic mean, or NaN if there were no values.
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Returns the sample variance, or NaN if there were less than two values.
+     */
+    public double variance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * Returns the sample standard deviation, or NaN if there were less than two values.
+     */
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * Returns the smallest value, or NaN if there were no values.
+     */
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Returns the largest value, or NaN if there were no values.
+     */
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Returns an estimate of the value at the given quantile of the finite values, within {@link #QUANTILE_ACCURACY} of the
+     * exact value, or NaN if there were no finite values.
+     *
+     * @param quantile the quantile, between 0 and 1, e.g. 0.99 for the 99th percentile
+     */
+    public double quantile(double quantile) {
+        return sketch.quantile(quantile);
+    }
+
+    @Override
+    public String toString() {
+        return "NumericStatistics{count=" + count
+                + ", mean=" + mean()
+                + ", standardDeviation=" + standardDeviation()
+                + ", min=" + min()
+                + ", max=" + max()
+                + '}';
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.nomisrev.rxassertj.core;
+
+/**
+ * The checks behind the protocol probe assertions, written once against {@link ProtocolLog}.
+ */
+public final class ProtocolChecks {
+
+    public static void assertNoViolations(ProtocolLog<?> log) {
+        if (log.violations() != 0) {
+            throw fail(log, "Expected the probed source to follow the Reactive Streams protocol but it violated it "
+                    + log.violations() + " time(s)");
+        }
+    }
+
+    public static void assertNoConditionFailures(ProtocolLog<?> log) {
+        long failures = log.conditionFailures();
+        if (failures != 0) {
+            throw fail(log, failures + " of " + log.sampled() + " sampled value(s) did not match " + log.condition());
+        }
+    }
+
+    public static void assertSampledAtLeast(ProtocolLog<?> log, long count) {
+        long sampled = log.sampled();
+        if (sampled < count) {
+            throw fail(log, "Expected at least " + count + " sampled value(s) but " + sampled + " were sampled");
+        }
+    }
+
+    /**
+     * Creates an {@link AssertionError} with the given message and a summary of the log.
+     */
+    public static AssertionError fail(ProtocolLog<?> log, String message) {
+        return new AssertionError(message + " (" + log + ")");
+    }
+
+    private ProtocolChecks() {
+        throw new AssertionError();
+    }
+}
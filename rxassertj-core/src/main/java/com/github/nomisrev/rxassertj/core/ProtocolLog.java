@@ -0,0 +1,227 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Condition;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the Reactive Streams protocol violations seen at a probed point of a live pipeline, and the sampled values failing
+ * a {@link Condition}.
+ * <p>Fed by the {@code ProtocolProbe} of the RxJava 2 module. Nothing is buffered and nothing is thrown, a violation only
+ * increments a counter, so the probe can stay attached to production streams and the counters be exported as metrics or
+ * checked with {@link ProtocolChecks}. The shared counters are only touched by violations and sampled values, a value
+ * that is neither only updates the state of its own {@link Session}. Safe to update from any thread.
+ *
+ * @param <T> the value type
+ */
+public final class ProtocolLog<T> {
+
+    private final Condition<? super T> condition;
+    private final long sampleEvery;
+
+    private final AtomicLong subscriptions = new AtomicLong();
+    private final AtomicLong duplicateSubscriptions = new AtomicLong();
+    private final AtomicLong signalsAfterTerminal = new AtomicLong();
+    private final AtomicLong demandViolations = new AtomicLong();
+    private final AtomicLong invalidRequests = new AtomicLong();
+    private final AtomicLong sampled = new AtomicLong();
+    private final AtomicLong conditionFailures = new AtomicLong();
+
+    /**
+     * @param condition checked against the sampled values, or null to only check the protocol
+     * @param sampleEvery the condition is checked against every {@code sampleEvery}-th value of each subscription
+     */
+    public ProtocolLog(Condition<? super T> condition, long sampleEvery) {
+        if (sampleEvery <= 0) {
+            throw new IllegalArgumentException("sampleEvery > 0 required but it was " + sampleEvery);
+        }
+        this.condition = condition;
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Counts a subscription to the probed source.
+     *
+     * @return the state of this subscription, to be fed with its signals and requests
+     */
+    public Session newSession() {
+        subscriptions.incrementAndGet();
+        return new Session();
+    }
+
+    public Condition<? super T> condition() {
+        return condition;
+    }
+
+    public long sampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * Returns the number of times the probed source was subscribed to.
+     */
+    public long subscriptions() {
+        return subscriptions.get();
+    }
+
+    /**
+     * Returns the number of {@code onSubscribe} calls received after the first one of a subscription (rule 2.12).
+     */
+    public long duplicateSubscriptions() {
+        return duplicateSubscriptions.get();
+    }
+
+    /**
+     * Returns the number of {@code onNext}, {@code onError} or {@code onComplete} calls received after a terminal event
+     * (rule 1.7).
+     */
+    public long signalsAfterTerminal() {
+        return signalsAfterTerminal.get();
+    }
+
+    /**
+     * Returns the number of values delivered beyond the requested amount, including values delivered before anything was
+     * requested (rule 1.1).
+     */
+    public long demandViolations() {
+        return demandViolations.get();
+    }
+
+    /**
+     * Returns the number of {@code request(n)} calls with {@code n <= 0} (rule 3.9).
+     */
+    public long invalidRequests() {
+        return invalidRequests.get();
+    }
+
+    /**
+     * Returns the sum of all protocol violations.
+     */
+    public long violations() {
+        return duplicateSubscriptions.get() + signalsAfterTerminal.get() + demandViolations.get() + invalidRequests.get();
+    }
+
+    /**
+     * Returns the number of values checked against the condition.
+     */
+    public long sampled() {
+        return sampled.get();
+    }
+
+    /**
+     * Returns the number of sampled values not matching the condition, or throwing while being checked.
+     */
+    public long conditionFailures() {
+        return conditionFailures.get();
+    }
+
+    @Override
+    public String toString() {
+        return "subscriptions = " + subscriptions.get()
+                + ", duplicate subscriptions = " + duplicateSubscriptions.get()
+                + ", signals after terminal = " + signalsAfterTerminal.get()
+                + ", demand violations = " + demandViolations.get()
+                + ", invalid requests = " + invalidRequests.get()
+                + ", sampled = " + sampled.get()
+                + ", condition failures = " + conditionFailures.get();
+    }
+
+    /**
+     * The protocol state of one subscription to the probed source. Its signals are expected to be serialized, as rule 1.3
+     * requires, its requests may come from any thread.
+     */
+    public final class Session {
+
+        private final AtomicLong outstanding = new AtomicLong();
+        private boolean subscribed;
+        private boolean terminated;
+        private long untilSample = sampleEvery;
+
+        Session() {
+        }
+
+        /**
+         * @return false if the session was already subscribed, the new subscription should then be cancelled (rule 2.5)
+         */
+        public boolean onSubscribe() {
+            if (subscribed) {
+                duplicateSubscriptions.incrementAndGet();
+                return false;
+            }
+            subscribed = true;
+            return true;
+        }
+
+        public void onRequest(long n) {
+            if (n <= 0) {
+                invalidRequests.incrementAndGet();
+                return;
+            }
+            for (;;) {
+                long r = outstanding.get();
+                if (r == Long.MAX_VALUE) {
+                    return;
+                }
+                long u = r + n;
+                if (outstanding.compareAndSet(r, u < 0 ? Long.MAX_VALUE : u)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Checks a value against the outstanding demand, and against the condition if it is sampled.
+         *
+         * @return false if the value arrived after a terminal event and should be dropped
+         */
+        public boolean onNext(T value) {
+            if (terminated) {
+                signalsAfterTerminal.incrementAndGet();
+                return false;
+            }
+            for (;;) {
+                long r = outstanding.get();
+                if (r == Long.MAX_VALUE) {
+                    break;
+                }
+                if (r == 0) {
+                    demandViolations.incrementAndGet();
+                    break;
+                }
+                if (outstanding.compareAndSet(r, r - 1)) {
+                    break;
+                }
+            }
+            if (condition != null && --untilSample == 0) {
+                untilSample = sampleEvery;
+                sample(value);
+            }
+            return true;
+        }
+
+        private void sample(T value) {
+            sampled.incrementAndGet();
+            boolean matches;
+            try {
+                matches = condition.matches(value);
+            } catch (RuntimeException ex) {
+                matches = false;
+            }
+            if (!matches) {
+                conditionFailures.incrementAndGet();
+            }
+        }
+
+        /**
+         * @return false if a terminal event was already received and this one should be dropped
+         */
+        public boolean onTerminal() {
+            if (terminated) {
+                signalsAfterTerminal.incrementAndGet();
+                return false;
+            }
+            terminated = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.nomisrev.rxassertj.core;
+
+/**
+ * Bounded-memory quantile estimator with a guaranteed relative error.
+ * <p>Values are counted in logarithmically sized buckets ({@code gamma^(i-1) < |x| <= gamma^i}), one dense array per sign.
+ * A quantile is estimated by the bucket holding the requested rank, which is within {@code relativeAccuracy} of the exact
+ * value. Memory only depends on the dynamic range of the values: with a 1% accuracy, values between 1e-6 and 1e9 need at
+ * most about 1700 buckets per sign, however many values are added. Non-finite values are not counted.
+ */
+final class QuantileSketch {
+
+    private static final double MIN_INDEXABLE = Double.MIN_NORMAL;
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeroCount;
+    private long count;
+
+    QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("0 < relativeAccuracy < 1 required but it was " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+    double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    long count() {
+        return count;
+    }
+
+    void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value >= MIN_INDEXABLE) {
+            positive.increment(index(value));
+        } else if (value <= -MIN_INDEXABLE) {
+            negative.increment(index(-value));
+        } else {
+            zeroCount++;
+        }
+        count++;
+    }
+
+    /**
+     * Returns the estimated value at the given quantile, or NaN if no value was added.
+     *
+     * @param quantile the quantile, between 0 and 1
+     */
+    double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("0 <= quantile <= 1 required but it was " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (quantile * (count - 1));
+        long seen = 0;
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return -value(negative.offset + i);
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return value(positive.offset + i);
+            }
+        }
+        return value(positive.offset + positive.counts.length - 1);
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * Returns the point of bucket {@code index} with the lowest relative error to any value in it.
+     */
+    private double value(int index) {
+        return 2 * Math.exp(index * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    /**
+     * Counts per bucket index, stored densely from the lowest to the highest index seen.
+     */
+    private static final class Buckets {
+
+        long[] counts = new long[0];
+        int offset;
+
+        void increment(int index) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = index - 8;
+            } else if (index < offset) {
+                int shift = Math.max(offset - index, counts.length / 2);
+                long[] grown = new long[counts.length + shift];
+                System.arraycopy(counts, 0, grown, shift, counts.length);
+                counts = grown;
+                offset -= shift;
+            } else if (index >= offset + counts.length) {
+                int extra = Math.max(index - offset - counts.length + 1, counts.length / 2);
+                long[] grown = new long[counts.length + extra];
+                System.arraycopy(counts, 0, grown, 0, counts.length);
+                counts = grown;
+            }
+            counts[index - offset]++;
+        }
+    }
+}
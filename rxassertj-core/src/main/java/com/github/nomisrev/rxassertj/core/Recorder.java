@@ -0,0 +1,401 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the signals of a single subscription into one log.
+ * <p>The RxJava adapters feed their consumers straight into a {@code Recorder}, so both generations share the same storage
+ * and checks. Signals are expected to be serialized; they may be read from another thread once {@link #await(long, TimeUnit)}
+ * returned, or concurrently while recording as the counts are only published after the value is stored.
+ * <p>Which values are kept is decided by the {@link Retention} of the {@link Recording}, counts and terminal events are
+ * always exact.
+ * <p>A {@link Recording#concurrent()} recording accepts values from several threads at once, appending them to a lock-free
+ * store and counting the {@link SignalOverlaps overlaps}; the thread a value was delivered on is then not recorded.
+ * <p>A recorder can be limited to a number of values or {@linkplain #cancel() cancelled}, after which it stops recording
+ * and only counts the signals that still arrive, so sources that ignore cancellation can be detected.
+ *
+ * @param <T> the value type
+ */
+public class Recorder<T> implements EventLog<T> {
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>(1));
+    private final List<T> values = new ValuesView();
+    private final DeliveringThreads threads = new DeliveringThreads();
+
+    private final long limit;
+    private final Recording<? super T> recording;
+    private final ValueStore<T> store;
+    private final NumericStatistics statistics;
+    private final ArrivalTimes arrivalTimes;
+    private final SignalPattern.Matcher<? super T> matcher;
+    private final StreamDigest<T> digest;
+    private final ExpectedSequence.Comparison<? super T> comparison;
+    private final SignalOverlaps overlaps;
+
+    private volatile long count;
+    private volatile long completions;
+    private volatile boolean cancelled;
+    private volatile long lateSignals;
+
+    private List<Runnable> callbacks;
+    private boolean finished;
+
+    /**
+     * Creates a recorder that keeps every value.
+     */
+    public Recorder() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a recorder that keeps every value and stops accepting values once {@code limit} values were recorded.
+     *
+     * @param limit the number of values after which {@link #onNext(Object)} asks for cancellation
+     */
+    public Recorder(long limit) {
+        this(limit, Recording.defaults());
+    }
+
+    /**
+     * Creates a recorder that records as described by the recording and stops accepting values once {@code limit} values
+     * were recorded.
+     *
+     * @param limit     the number of values after which {@link #onNext(Object)} asks for cancellation
+     * @param recording describes what to record
+     */
+    public Recorder(long limit, Recording<? super T> recording) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit > 0 required but it was " + limit);
+        }
+        this.limit = limit;
+        this.recording = recording;
+        this.statistics = recording.recordsStatistics() ? new NumericStatistics() : null;
+        this.arrivalTimes = recording.recordsArrivalTimes() ? new ArrivalTimes(System.nanoTime()) : null;
+        this.matcher = recording.pattern() != null ? recording.pattern().newMatcher() : null;
+        this.digest = recording.digestHasher() != null ? new StreamDigest<T>(recording.digestHasher()) : null;
+        this.comparison = recording.sequence() != null ? recording.sequence().newComparison() : null;
+        if (recording.isConcurrent()) {
+            if (recording.retention() != Retention.all() || statistics != null || arrivalTimes != null || matcher != null
+                    || digest != null || comparison != null) {
+                throw new IllegalArgumentException("A concurrent recording retains every value and records nothing else: " + recording);
+            }
+            this.store = new ValueStore.Concurrent<T>();
+            this.overlaps = new SignalOverlaps();
+        } else {
+            this.store = recording.retention().newStore();
+            this.overlaps = null;
+        }
+    }
+
+    public Recording<? super T> recording() {
+        return recording;
+    }
+
+    /**
+     * Records a value.
+     *
+     * @return false if the upstream should be cancelled, either because the limit was reached, because the value differs
+     * from the expected sequence of the {@link Recording} or because the recorder was already cancelled
+     */
+    public boolean onNext(T value) {
+        if (overlaps != null) {
+            return onNextConcurrently(value);
+        }
+        if (cancelled) {
+            lateSignals++;
+            return false;
+        }
+        if (arrivalTimes != null) {
+            arrivalTimes.add(System.nanoTime());
+        }
+        threads.signal();
+        long c = count;
+        store.add(value, c);
+        if (statistics != null && value instanceof Number) {
+            statistics.add(((Number) value).doubleValue());
+        }
+        if (matcher != null) {
+            matcher.onNext(value);
+        }
+        if (digest != null) {
+            digest.add(value);
+        }
+        boolean more = c + 1 < limit;
+        if (comparison != null && !comparison.onNext(value)) {
+            // the sequence can no longer match, so the rest of the stream is not worth receiving
+            more = false;
+        }
+        count = c + 1;
+        return more;
+    }
+
+    /**
+     * Records a value that may arrive concurrently with other signals, the value count being the size of the lock-free store.
+     */
+    private boolean onNextConcurrently(T value) {
+        overlaps.enter(true);
+        try {
+            if (cancelled) {
+                lateSignal();
+                return false;
+            }
+            store.add(value, 0);
+            return store.size() < limit;
+        } finally {
+            overlaps.exit();
+        }
+    }
+
+    private synchronized void lateSignal() {
+        lateSignals++;
+    }
+
+    public void onError(Throwable error) {
+        if (overlaps != null) {
+            overlaps.enter(false);
+            try {
+                synchronized (this) {
+                    onErrorSerialized(error);
+                }
+            } finally {
+                overlaps.exit();
+            }
+        } else {
+            onErrorSerialized(error);
+        }
+    }
+
+    private void onErrorSerialized(Throwable error) {
+        if (cancelled) {
+            lateSignals++;
+            return;
+        }
+        threads.signal();
+        ended();
+        if (matcher != null) {
+            matcher.onError(error);
+        }
+        errors.add(error);
+        done.countDown();
+        runCallbacks();
+    }
+
+    public void onComplete() {
+        if (overlaps != null) {
+            overlaps.enter(false);
+            try {
+                synchronized (this) {
+                    onCompleteSerialized();
+                }
+            } finally {
+                overlaps.exit();
+            }
+        } else {
+            onCompleteSerialized();
+        }
+    }
+
+    private void onCompleteSerialized() {
+        if (cancelled) {
+            lateSignals++;
+            return;
+        }
+        threads.signal();
+        ended();
+        if (matcher != null) {
+            matcher.onComplete();
+        }
+        completions++;
+        done.countDown();
+        runCallbacks();
+    }
+
+    /**
+     * Marks the recording as cancelled by the consumer: waiters are released and any further signal is only counted as a
+     * late signal. Has no effect once a terminal event was recorded.
+     */
+    public void cancel() {
+        if (isTerminated()) {
+            return;
+        }
+        ended();
+        cancelled = true;
+        done.countDown();
+        runCallbacks();
+    }
+
+    /**
+     * Runs the callback once the recording is done, either by a terminal event or by cancellation, on the thread that ended
+     * it, or right away on the calling thread if it is already done. The callback runs after the signal was recorded, so it
+     * can check the recording without waiting.
+     */
+    public void whenDone(Runnable callback) {
+        synchronized (this) {
+            if (!finished) {
+                if (callbacks == null) {
+                    callbacks = new ArrayList<Runnable>(1);
+                }
+                callbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    private void runCallbacks() {
+        List<Runnable> pending;
+        synchronized (this) {
+            finished = true;
+            pending = callbacks;
+            callbacks = null;
+        }
+        if (pending != null) {
+            for (Runnable callback : pending) {
+                callback.run();
+            }
+        }
+    }
+
+    private void ended() {
+        if (arrivalTimes != null) {
+            arrivalTimes.end(System.nanoTime());
+        }
+    }
+
+    /**
+     * Returns true if the consumer cancelled the recording before a terminal event was received.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the number of signals received after the recording was cancelled.
+     */
+    public long lateSignals() {
+        return lateSignals;
+    }
+
+    /**
+     * Returns the statistics of the numeric values, or null if the {@link Recording} does not record them. They may only be
+     * read once the recording terminated or was cancelled.
+     */
+    public NumericStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the arrival times of the values, or null if the {@link Recording} does not record them. They may only be read
+     * once the recording terminated or was cancelled.
+     */
+    public ArrivalTimes arrivalTimes() {
+        return arrivalTimes;
+    }
+
+    /**
+     * Returns the matcher of the pattern of the {@link Recording}, or null if it does not match one. It may only be read once
+     * the recording terminated or was cancelled.
+     */
+    public SignalPattern.Matcher<? super T> matcher() {
+        return matcher;
+    }
+
+    /**
+     * Returns the digest of the values, or null if the {@link Recording} does not compute one. It may only be read once the
+     * recording terminated or was cancelled.
+     */
+    public StreamDigest<T> digest() {
+        return digest;
+    }
+
+    /**
+     * Returns the comparison with the expected sequence of the {@link Recording}, or null if it does not compare one. It may
+     * only be read once the recording terminated or was cancelled.
+     */
+    public ExpectedSequence.Comparison<? super T> comparison() {
+        return comparison;
+    }
+
+    /**
+     * Returns the overlapping signals detected by a {@link Recording#concurrent()} recording, or null if it is not
+     * concurrent.
+     */
+    public SignalOverlaps overlaps() {
+        return overlaps;
+    }
+
+    /**
+     * Returns the threads that delivered the recorded signals. They may only be read once the recording terminated or was
+     * cancelled.
+     */
+    public DeliveringThreads threads() {
+        return threads;
+    }
+
+    @Override
+    public long valueCount() {
+        return overlaps != null ? store.size() : count;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IndexOutOfBoundsException if no value was received at the given index, or if it was not retained
+     */
+    @Override
+    public T valueAt(int index) {
+        long size = valueCount();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return store.valueAt(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only contains the retained values, in the order of the {@link Retention}.
+     */
+    @Override
+    public List<T> values() {
+        return values;
+    }
+
+    @Override
+    public List<Throwable> errors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    @Override
+    public long completions() {
+        return completions;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return completions != 0 || !errors.isEmpty();
+    }
+
+    @Override
+    public boolean await(long time, TimeUnit unit) throws InterruptedException {
+        return done.await(time, unit);
+    }
+
+    private final class ValuesView extends AbstractList<T> {
+
+        @Override
+        public T get(int index) {
+            return store.get(index);
+        }
+
+        @Override
+        public int size() {
+            return store.size();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.nomisrev.rxassertj.core;
+
+/**
+ * Immutable description of what a {@link Recorder} records for a subscription.
+ * <p>Pass it to the {@code assertThatSubscriberTo} overloads of the RxJava modules, e.g.
+ * <pre>{@code
+ * assertThatSubscriberTo(flowable, Recording.retaining(Retention.reservoir(500)))
+ * }</pre>
+ * <p>The pattern, digest and sequence features consume the values of the recorded source, so a recording of {@code T}
+ * records any source of a subtype of {@code T}, and adding one of them narrows the value type to the one it accepts.
+ *
+ * @param <T> the type of the values the recording accepts
+ */
+public final class Recording<T> {
+
+    private static final Recording<Object> DEFAULTS = new Recording<Object>(Retention.all(), false, false, null, null, null, false);
+
+    private final Retention retention;
+    private final boolean statistics;
+    private final boolean arrivalTimes;
+    private final SignalPattern<? super T> pattern;
+    private final StreamDigest.Hasher<? super T> digest;
+    private final ExpectedSequence<? super T> sequence;
+    private final boolean concurrent;
+
+    private Recording(final Retention retention, final boolean statistics, final boolean arrivalTimes,
+                      final SignalPattern<? super T> pattern, final StreamDigest.Hasher<? super T> digest,
+                      final ExpectedSequence<? super T> sequence,
+                      final boolean concurrent) {
+        this.retention = retention;
+        this.statistics = statistics;
+        this.arrivalTimes = arrivalTimes;
+        this.pattern = pattern;
+        this.digest = digest;
+        this.sequence = sequence;
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Records and keeps every signal.
+     */
+    public static Recording<Object> defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Records every signal, keeping the values selected by the given retention.
+     *
+     * @param retention decides which values are kept
+     */
+    public static Recording<Object> retaining(final Retention retention) {
+        if (retention == null) {
+            throw new NullPointerException("retention is null");
+        }
+        return new Recording<Object>(retention, false, false, null, null, null, false);
+    }
+
+    /**
+     * Records every signal even if the source emits them concurrently, which a source must not do. Values are appended to a
+     * lock-free log, so none is lost, and signals that start while another one is still running are counted as overlaps,
+     * checked with {@code isSerialized()}.
+     * <p>Statistics, arrival times, patterns, digests and sequences are computed by a single writer and can not be combined
+     * with it, every value is retained.
+     */
+    public static Recording<Object> concurrent() {
+        return new Recording<Object>(Retention.all(), false, false, null, null, null, true);
+    }
+
+    /**
+     * Returns a copy of this recording that also keeps {@link NumericStatistics} of the values, computed as they arrive so
+     * they cover every value whatever the retention.
+     */
+    public Recording<T> withStatistics() {
+        return new Recording<T>(retention, true, arrivalTimes, pattern, digest, sequence, concurrent);
+    }
+
+    /**
+     * Returns a copy of this recording that also keeps the {@link ArrivalTimes} of the values, so gaps and stalls between
+     * them can be checked.
+     */
+    public Recording<T> withArrivalTimes() {
+        return new Recording<T>(retention, statistics, true, pattern, digest, sequence, concurrent);
+    }
+
+    /**
+     * Returns a copy of this recording that also matches the values against the pattern as they arrive, so a pattern can be
+     * checked against streams too long to retain.
+     *
+     * @param pattern the pattern to match, checked with {@code matchesPattern(pattern)}
+     */
+    public <U extends T> Recording<U> matching(final SignalPattern<? super U> pattern) {
+        if (pattern == null) {
+            throw new NullPointerException("pattern is null");
+        }
+        return new Recording<U>(retention, statistics, arrivalTimes, pattern, digest, sequence, concurrent);
+    }
+
+    /**
+     * Returns a copy of this recording that also folds the values into a {@link StreamDigest} as they arrive, so the output
+     * of streams too long to retain can be compared with a reference.
+     *
+     * @param hasher hashes each value, checked with {@code hasSameDigestAs(expected, hasher)}
+     */
+    public <U extends T> Recording<U> withDigest(final StreamDigest.Hasher<? super U> hasher) {
+        if (hasher == null) {
+            throw new NullPointerException("hasher is null");
+        }
+        return new Recording<U>(retention, statistics, arrivalTimes, pattern, hasher, sequence, concurrent);
+    }
+
+    /**
+     * Returns a copy of this recording that also compares the values with the expected sequence as they arrive, so neither
+     * side has to be kept in memory. The source is cancelled at the first value differing from the sequence.
+     *
+     * @param sequence the expected values, checked with {@code hasValueSequence(sequence)}
+     */
+    public <U extends T> Recording<U> comparingWith(final ExpectedSequence<? super U> sequence) {
+        if (sequence == null) {
+            throw new NullPointerException("sequence is null");
+        }
+        return new Recording<U>(retention, statistics, arrivalTimes, pattern, digest, sequence, concurrent);
+    }
+
+    public Retention retention() {
+        return retention;
+    }
+
+    public boolean recordsStatistics() {
+        return statistics;
+    }
+
+    public boolean recordsArrivalTimes() {
+        return arrivalTimes;
+    }
+
+    /**
+     * Returns the pattern matched while recording, or null.
+     */
+    public SignalPattern<? super T> pattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the hasher of the digest computed while recording, or null.
+     */
+    public StreamDigest.Hasher<? super T> digestHasher() {
+        return digest;
+    }
+
+    /**
+     * Returns the sequence compared while recording, or null.
+     */
+    public ExpectedSequence<? super T> sequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns true if signals are recorded even when they arrive concurrently.
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * Creates a new recorder for one subscription.
+     */
+    public <U extends T> Recorder<U> newRecorder() {
+        return new Recorder<U>(Long.MAX_VALUE, this);
+    }
+
+    @Override
+    public String toString() {
+        return "Recording{retention=" + retention
+                + ", statistics=" + statistics
+                + ", arrivalTimes=" + arrivalTimes
+                + ", pattern=" + pattern
+                + ", digest=" + (digest != null)
+                + ", sequence=" + sequence
+                + ", concurrent=" + concurrent
+                + '}';
+    }
+}
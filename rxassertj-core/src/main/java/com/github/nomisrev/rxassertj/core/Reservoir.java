@@ -0,0 +1,86 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.Random;
+
+/**
+ * Keeps a uniform random sample of at most {@code capacity} values using reservoir sampling.
+ * <p>Uses Li's "Algorithm L": instead of drawing a random number per value, it computes how many values to skip before the
+ * next replacement, so the cost per value is a single comparison and the number of random draws only grows with
+ * {@code capacity * log(count / capacity)}.
+ */
+final class Reservoir<T> extends ValueStore<T> {
+
+    private final Object[] slots;
+    private final long[] indices;
+    private final Random random;
+
+    private volatile int size;
+    private double w;
+    private long next;
+
+    Reservoir(int capacity, Random random) {
+        this.slots = new Object[capacity];
+        this.indices = new long[capacity];
+        this.random = random;
+        this.w = Math.exp(Math.log(nextDouble()) / capacity);
+        this.next = capacity + skip();
+    }
+
+    @Override
+    void add(T value, long index) {
+        int s = size;
+        if (s < slots.length) {
+            slots[s] = value;
+            indices[s] = index;
+            size = s + 1;
+        } else if (index == next) {
+            int slot = random.nextInt(slots.length);
+            slots[slot] = value;
+            indices[slot] = index;
+            w *= Math.exp(Math.log(nextDouble()) / slots.length);
+            next += skip() + 1;
+        }
+    }
+
+    private long skip() {
+        return (long) Math.floor(Math.log(nextDouble()) / Math.log(1 - w));
+    }
+
+    /**
+     * Returns a random double in (0, 1), as zero would make the logarithms above infinite.
+     */
+    private double nextDouble() {
+        double d;
+        do {
+            d = random.nextDouble();
+        } while (d == 0d);
+        return d;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T get(int position) {
+        int s = size;
+        if (position < 0 || position >= s) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + s);
+        }
+        return (T) slots[position];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    T valueAt(long index) {
+        int s = size;
+        for (int i = 0; i < s; i++) {
+            if (indices[i] == index) {
+                return (T) slots[i];
+            }
+        }
+        throw new IndexOutOfBoundsException("Value at index " + index + " is not in the sample");
+    }
+}
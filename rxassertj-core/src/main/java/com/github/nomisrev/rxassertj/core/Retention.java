@@ -0,0 +1,141 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.Random;
+
+/**
+ * Decides which values a {@link Recorder} keeps. Value counts and terminal events are always recorded exactly.
+ * <p>Checks that compare individual values need every value to be retained and fail otherwise; condition checks such as
+ * {@link EventLogChecks#assertEach(EventLog, org.assertj.core.api.Condition)} run on the retained values.
+ */
+public abstract class Retention {
+
+    private static final Retention ALL = new Retention() {
+        @Override
+        <T> ValueStore<T> newStore() {
+            return new ValueStore.All<T>();
+        }
+
+        @Override
+        public String toString() {
+            return "all";
+        }
+    };
+
+    private static final Retention COUNT_ONLY = new Retention() {
+        @Override
+        <T> ValueStore<T> newStore() {
+            return new ValueStore.None<T>();
+        }
+
+        @Override
+        public String toString() {
+            return "countOnly";
+        }
+    };
+
+    Retention() {
+    }
+
+    abstract <T> ValueStore<T> newStore();
+
+    /**
+     * Keeps every value, in arrival order. This is the default.
+     */
+    public static Retention all() {
+        return ALL;
+    }
+
+    /**
+     * Keeps no value at all, for streams where only the value count and the terminal event matter.
+     */
+    public static Retention countOnly() {
+        return COUNT_ONLY;
+    }
+
+    /**
+     * Keeps the first {@code size} values and drops the rest, so values can still be checked by their index in the stream
+     * as long as it is below {@code size}.
+     *
+     * @param size the number of values to keep
+     */
+    public static Retention first(final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size > 0 required but it was " + size);
+        }
+        return new Retention() {
+            @Override
+            <T> ValueStore<T> newStore() {
+                return new ValueStore.First<T>(size);
+            }
+
+            @Override
+            public String toString() {
+                return "first(" + size + ")";
+            }
+        };
+    }
+
+    /**
+     * Keeps the last {@code size} values in a ring buffer, so the tail of a long stream can be checked by the index of the
+     * values in the stream.
+     *
+     * @param size the number of values to keep
+     */
+    public static Retention last(final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size > 0 required but it was " + size);
+        }
+        return new Retention() {
+            @Override
+            <T> ValueStore<T> newStore() {
+                return new ValueStore.Last<T>(size);
+            }
+
+            @Override
+            public String toString() {
+                return "last(" + size + ")";
+            }
+        };
+    }
+
+    /**
+     * Keeps a uniform random sample of at most {@code size} values, so memory stays O(size) however long the stream runs.
+     * <p>Every received value has the same probability of being in the sample. Checking a condition on the sample catches a
+     * fault affecting a fraction {@code p} of all values with probability {@code 1 - (1 - p)^size}: a sample of 300 values
+     * detects a 1% fault rate with 95% confidence, a sample of 460 with 99% confidence.
+     *
+     * @param size the maximum number of values to keep
+     */
+    public static Retention reservoir(int size) {
+        return reservoir(size, new Random());
+    }
+
+    /**
+     * Keeps a uniform random sample of at most {@code size} values, drawn with a seeded random generator so that the sample
+     * is reproducible for a reproducible stream.
+     *
+     * @param size the maximum number of values to keep
+     * @param seed the seed of the random generator
+     * @see #reservoir(int)
+     */
+    public static Retention reservoir(int size, long seed) {
+        return reservoir(size, new Random(seed));
+    }
+
+    private static Retention reservoir(final int size, final Random seeds) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size > 0 required but it was " + size);
+        }
+        return new Retention() {
+            @Override
+            <T> ValueStore<T> newStore() {
+                return new Reservoir<T>(size, new Random(seeds.nextLong()));
+            }
+
+            @Override
+            public String toString() {
+                return "reservoir(" + size + ")";
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detects signals delivered concurrently to a {@link Recorder}, recorded when {@link Recording#concurrent()} is used.
+ * <p>Every signal increments a counter of running signals when it starts and decrements it when it was recorded. A signal
+ * that starts while another one is running is an overlap: the source broke the rule that signals are serialized. The first
+ * signal of an overlapping pair is not counted, only the ones that arrive while it runs.
+ */
+public final class SignalOverlaps {
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicLong overlappingValues = new AtomicLong();
+    private final AtomicLong overlappingTerminals = new AtomicLong();
+
+    void enter(boolean value) {
+        int r = running.incrementAndGet();
+        if (r > 1) {
+            (value ? overlappingValues : overlappingTerminals).incrementAndGet();
+        }
+        for (;;) {
+            int max = maxRunning.get();
+            if (r <= max || maxRunning.compareAndSet(max, r)) {
+                break;
+            }
+        }
+    }
+
+    void exit() {
+        running.decrementAndGet();
+    }
+
+    /**
+     * Returns the number of signals, values and terminal events, that started while another signal was running.
+     */
+    public long overlaps() {
+        return overlappingValues.get() + overlappingTerminals.get();
+    }
+
+    /**
+     * Returns the number of onNext signals that started while another signal was running.
+     */
+    public long overlappingValues() {
+        return overlappingValues.get();
+    }
+
+    /**
+     * Returns the highest number of signals seen running at the same time, 1 if they were serialized and 0 if there were
+     * none.
+     */
+    public int maxConcurrency() {
+        return maxRunning.get();
+    }
+
+    @Override
+    public String toString() {
+        return "overlaps = " + overlaps() + ", overlapping values = " + overlappingValues() + ", max concurrency = "
+                + maxConcurrency();
+    }
+}
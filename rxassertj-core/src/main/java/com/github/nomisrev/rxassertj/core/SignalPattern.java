@@ -0,0 +1,401 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Condition;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pattern over the signals of a stream, compiled once into a deterministic automaton and matched one signal at a time.
+ * <pre>{@code
+ * SignalPattern<Event> handshake = SignalPattern.<Event>builder()
+ *         .oneOrMore(header)
+ *         .atMost(3, retry)
+ *         .completes()
+ *         .build();
+ * }</pre>
+ * The values are matched against the steps in order, each step accepting between a minimum and maximum number of values
+ * satisfying its condition. Matching keeps only the current state of the automaton, so streams of any length can be
+ * matched while they are recorded, see {@link Recording#matching(SignalPattern)}.
+ * <p>The automaton reads the outcome of every distinct condition for each value, so a pattern may use at most
+ * {@link #MAX_CONDITIONS} distinct conditions. Conditions are told apart by identity.
+ *
+ * @param <T> the value type
+ */
+public final class SignalPattern<T> {
+
+    /**
+     * The maximum number of distinct conditions of a pattern.
+     */
+    public static final int MAX_CONDITIONS = 10;
+
+    /**
+     * The maximum number of states of the compiled automaton.
+     */
+    public static final int MAX_STATES = 10000;
+
+    private static final int DEAD = 0;
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final Condition<? super T>[] conditions;
+    private final int[][] transitions;
+    private final boolean[] accepting;
+    private final int start;
+    private final boolean completes;
+    private final Class<? extends Throwable> errorClass;
+    private final String description;
+
+    @SuppressWarnings("unchecked")
+    private SignalPattern(Builder<T> builder) {
+        this.conditions = builder.conditions.toArray(new Condition[builder.conditions.size()]);
+        this.completes = builder.completes;
+        this.errorClass = builder.errorClass;
+        this.description = builder.describe();
+        Compiler compiler = new Compiler(builder.steps, conditions.length);
+        this.start = compiler.start;
+        this.transitions = compiler.transitions.toArray(new int[compiler.transitions.size()][]);
+        this.accepting = new boolean[transitions.length];
+        for (int i = 0; i < accepting.length; i++) {
+            accepting[i] = compiler.states.get(i).get(compiler.end);
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<T>();
+    }
+
+    /**
+     * Returns a fresh matcher for a single stream.
+     */
+    public Matcher<T> newMatcher() {
+        return new Matcher<T>(this);
+    }
+
+    /**
+     * Returns the number of states of the compiled automaton, including the state reached by a value that does not fit.
+     */
+    public int states() {
+        return transitions.length;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    private int next(int state, T value) {
+        int mask = 0;
+        for (int i = 0; i < conditions.length; i++) {
+            if (conditions[i].matches(value)) {
+                mask |= 1 << i;
+            }
+        }
+        return transitions[state][mask];
+    }
+
+    /**
+     * Builds a {@link SignalPattern}. Not thread-safe, the built pattern is.
+     *
+     * @param <T> the value type
+     */
+    public static final class Builder<T> {
+
+        private final List<Condition<? super T>> conditions = new ArrayList<Condition<? super T>>();
+        private final List<int[]> steps = new ArrayList<int[]>();
+        private final StringBuilder description = new StringBuilder();
+        private boolean completes;
+        private Class<? extends Throwable> errorClass;
+
+        Builder() {
+        }
+
+        /**
+         * Expects exactly one value satisfying the condition.
+         */
+        public Builder<T> one(final Condition<? super T> condition) {
+            return between(1, 1, condition);
+        }
+
+        /**
+         * Expects at most one value satisfying the condition.
+         */
+        public Builder<T> optional(final Condition<? super T> condition) {
+            return between(0, 1, condition);
+        }
+
+        /**
+         * Expects any number of values satisfying the condition.
+         */
+        public Builder<T> zeroOrMore(final Condition<? super T> condition) {
+            return between(0, UNBOUNDED, condition);
+        }
+
+        /**
+         * Expects at least one value satisfying the condition.
+         */
+        public Builder<T> oneOrMore(final Condition<? super T> condition) {
+            return between(1, UNBOUNDED, condition);
+        }
+
+        /**
+         * Expects at most {@code max} values satisfying the condition.
+         */
+        public Builder<T> atMost(final int max, final Condition<? super T> condition) {
+            return between(0, max, condition);
+        }
+
+        /**
+         * Expects exactly {@code count} values satisfying the condition.
+         */
+        public Builder<T> times(final int count, final Condition<? super T> condition) {
+            return between(count, count, condition);
+        }
+
+        /**
+         * Expects between {@code min} and {@code max} values satisfying the condition, {@code Integer.MAX_VALUE} meaning
+         * no upper bound.
+         */
+        public Builder<T> between(final int min, final int max, final Condition<? super T> condition) {
+            if (condition == null) {
+                throw new NullPointerException("condition");
+            }
+            if (min < 0 || max < min || max == 0) {
+                throw new IllegalArgumentException("0 <= min <= max and max > 0 required but they were " + min + " and " + max);
+            }
+            int index = indexOf(condition);
+            if (index < 0) {
+                if (conditions.size() == MAX_CONDITIONS) {
+                    throw new IllegalArgumentException("A pattern can use at most " + MAX_CONDITIONS + " distinct conditions");
+                }
+                index = conditions.size();
+                conditions.add(condition);
+            }
+            steps.add(new int[]{index, min, max});
+            description.append(description.length() == 0 ? "" : ", ")
+                    .append(min == max ? String.valueOf(min) : min + ".." + (max == UNBOUNDED ? "*" : String.valueOf(max)))
+                    .append(" x ").append(condition);
+            return this;
+        }
+
+        private int indexOf(Condition<? super T> condition) {
+            for (int i = 0; i < conditions.size(); i++) {
+                if (conditions.get(i) == condition) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Expects the stream to complete after the values.
+         */
+        public Builder<T> completes() {
+            this.completes = true;
+            this.errorClass = null;
+            return this;
+        }
+
+        /**
+         * Expects the stream to fail with an instance of the given class after the values.
+         */
+        public Builder<T> failsWith(final Class<? extends Throwable> errorClass) {
+            if (errorClass == null) {
+                throw new NullPointerException("errorClass");
+            }
+            this.errorClass = errorClass;
+            this.completes = false;
+            return this;
+        }
+
+        /**
+         * Compiles the pattern.
+         *
+         * @throws IllegalArgumentException if the automaton would have more than {@link #MAX_STATES} states
+         */
+        public SignalPattern<T> build() {
+            return new SignalPattern<T>(this);
+        }
+
+        private String describe() {
+            String separator = description.length() == 0 ? "" : ", ";
+            if (completes) {
+                return description + separator + "complete";
+            }
+            if (errorClass != null) {
+                return description + separator + "error " + errorClass.getSimpleName();
+            }
+            return description.toString();
+        }
+    }
+
+    /**
+     * Turns the steps into a nondeterministic automaton over (step, values matched so far) positions and determinizes it.
+     * An unbounded step stops counting at its minimum. The input symbol is the bit mask of the conditions a value satisfies.
+     */
+    private static final class Compiler {
+
+        private final int[][] steps;
+        private final int[] offsets;
+        private final int end;
+        private final int symbols;
+
+        final List<BitSet> states = new ArrayList<BitSet>();
+        final List<int[]> transitions = new ArrayList<int[]>();
+        final int start;
+
+        Compiler(List<int[]> steps, int conditions) {
+            this.steps = steps.toArray(new int[steps.size()][]);
+            this.offsets = new int[this.steps.length];
+            int positions = 0;
+            for (int i = 0; i < this.steps.length; i++) {
+                offsets[i] = positions;
+                positions += cap(i) + 1;
+            }
+            this.end = positions;
+            this.symbols = 1 << conditions;
+
+            Map<BitSet, Integer> ids = new HashMap<BitSet, Integer>();
+            id(new BitSet(), ids);
+            BitSet initial = new BitSet();
+            initial.set(position(0, 0));
+            this.start = id(closure(initial), ids);
+            for (int state = 0; state < states.size(); state++) {
+                BitSet from = states.get(state);
+                int[] row = new int[symbols];
+                for (int mask = 0; mask < symbols; mask++) {
+                    row[mask] = id(step(from, mask), ids);
+                }
+                transitions.add(row);
+            }
+        }
+
+        private int cap(int step) {
+            int[] s = steps[step];
+            return s[2] == UNBOUNDED ? s[1] : s[2];
+        }
+
+        private int position(int step, int count) {
+            return step == steps.length ? end : offsets[step] + count;
+        }
+
+        private int id(BitSet state, Map<BitSet, Integer> ids) {
+            Integer id = ids.get(state);
+            if (id == null) {
+                if (states.size() == MAX_STATES) {
+                    throw new IllegalArgumentException("Pattern needs more than " + MAX_STATES + " states");
+                }
+                id = states.size();
+                ids.put(state, id);
+                states.add(state);
+            }
+            return id;
+        }
+
+        /**
+         * Adds the start of the next step for every position that matched the minimum of its step.
+         */
+        private BitSet closure(BitSet positions) {
+            for (int step = 0; step < steps.length; step++) {
+                for (int count = steps[step][1]; count <= cap(step); count++) {
+                    if (positions.get(position(step, count))) {
+                        positions.set(position(step + 1, 0));
+                        break;
+                    }
+                }
+            }
+            return positions;
+        }
+
+        private BitSet step(BitSet from, int mask) {
+            BitSet to = new BitSet();
+            for (int step = 0; step < steps.length; step++) {
+                int[] s = steps[step];
+                if ((mask & (1 << s[0])) == 0) {
+                    continue;
+                }
+                for (int count = 0; count <= cap(step); count++) {
+                    if (from.get(position(step, count)) && count < s[2]) {
+                        to.set(position(step, Math.min(count + 1, cap(step))));
+                    }
+                }
+            }
+            return closure(to);
+        }
+    }
+
+    /**
+     * Matches the signals of one stream against the {@link SignalPattern} as they arrive, keeping only the current state.
+     * <p>Signals must be serialized, the outcome may be read from another thread once the stream terminated.
+     *
+     * @param <T> the value type
+     */
+    public static final class Matcher<T> {
+
+        private final SignalPattern<T> pattern;
+
+        private int state;
+        private long count;
+        private long mismatch = -1;
+        private Object mismatchValue;
+        private boolean completed;
+        private Throwable error;
+
+        Matcher(SignalPattern<T> pattern) {
+            this.pattern = pattern;
+            this.state = pattern.start;
+        }
+
+        public SignalPattern<T> pattern() {
+            return pattern;
+        }
+
+        public void onNext(T value) {
+            long index = count++;
+            if (state == DEAD) {
+                return;
+            }
+            state = pattern.next(state, value);
+            if (state == DEAD) {
+                mismatch = index;
+                mismatchValue = value;
+            }
+        }
+
+        public void onError(Throwable error) {
+            if (!completed && this.error == null) {
+                this.error = error;
+            }
+        }
+
+        public void onComplete() {
+            if (this.error == null) {
+                completed = true;
+            }
+        }
+
+        /**
+         * Returns why the signals so far do not match the pattern, or null if they do.
+         */
+        public String mismatch() {
+            if (mismatch >= 0) {
+                return "Value at position " + mismatch + " does not fit pattern [" + pattern + "]: "
+                        + EventLogChecks.valueAndClass(mismatchValue);
+            }
+            if (!pattern.accepting[state]) {
+                return "Pattern [" + pattern + "] is incomplete after " + count + " values";
+            }
+            if (pattern.completes && !completed) {
+                return error != null ? "Pattern [" + pattern + "] expects completion but the stream failed with " + error
+                        : "Pattern [" + pattern + "] expects completion but the stream did not complete";
+            }
+            if (pattern.errorClass != null && !pattern.errorClass.isInstance(error)) {
+                return "Pattern [" + pattern + "] expects an instance of " + pattern.errorClass.getName() + " but the stream "
+                        + (error != null ? "failed with " + error : completed ? "completed" : "did not fail");
+            }
+            return null;
+        }
+    }
+}
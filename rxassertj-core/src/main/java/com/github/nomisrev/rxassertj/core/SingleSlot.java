@@ -0,0 +1,144 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link EventLog} of a source signalling at most one value, like a {@code Single}, {@code Maybe} or
+ * {@code Completable}. Only the first value and error are kept, in fields instead of lists, and there is no latch, a
+ * thread awaiting the terminal event waits on the slot itself.
+ * <p>Consumers of the RxJava generations extend or wrap the slot, which makes subscribing and checking a single value about
+ * as cheap as it gets. A success counts as a value followed by a completion, like it does for a {@code TestObserver}.
+ *
+ * @param <T> the value type
+ */
+public class SingleSlot<T> implements EventLog<T> {
+
+    private T value;
+    private Throwable error;
+    private List<Throwable> moreErrors;
+    private int values;
+    private int completions;
+    private volatile boolean terminated;
+
+    public void onSuccess(T value) {
+        synchronized (this) {
+            if (values++ == 0) {
+                this.value = value;
+            }
+            completions++;
+        }
+        terminate();
+    }
+
+    public void onError(Throwable error) {
+        synchronized (this) {
+            if (this.error == null) {
+                this.error = error;
+            } else {
+                if (moreErrors == null) {
+                    moreErrors = new ArrayList<Throwable>(1);
+                }
+                moreErrors.add(error);
+            }
+        }
+        terminate();
+    }
+
+    public void onComplete() {
+        synchronized (this) {
+            completions++;
+        }
+        terminate();
+    }
+
+    private synchronized void terminate() {
+        terminated = true;
+        notifyAll();
+    }
+
+    /**
+     * Returns true if the source called onSubscribe. Consumers that can not tell are always subscribed.
+     */
+    public boolean isSubscribed() {
+        return true;
+    }
+
+    /**
+     * Returns true if the consumer cancelled its upstream. Consumers that can not tell are never cancelled.
+     */
+    public boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * Cancels the upstream, if the consumer holds one.
+     */
+    public void cancel() {
+    }
+
+    @Override
+    public synchronized long valueCount() {
+        return values;
+    }
+
+    @Override
+    public synchronized T valueAt(int index) {
+        if (index != 0 || values == 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + values);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value, a second one is counted but not retained.
+     */
+    @Override
+    public synchronized List<T> values() {
+        return values != 0 ? Collections.singletonList(value) : Collections.<T>emptyList();
+    }
+
+    @Override
+    public synchronized List<Throwable> errors() {
+        if (error == null) {
+            return Collections.emptyList();
+        }
+        if (moreErrors == null) {
+            return Collections.singletonList(error);
+        }
+        List<Throwable> errors = new ArrayList<Throwable>(1 + moreErrors.size());
+        errors.add(error);
+        errors.addAll(moreErrors);
+        return Collections.unmodifiableList(errors);
+    }
+
+    @Override
+    public synchronized long completions() {
+        return completions;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    @Override
+    public synchronized boolean await(long time, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        while (!terminated) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SingleSlot{values=" + values + ", errors=" + errors().size() + ", completions=" + completions + "}";
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.nomisrev.rxassertj.core;
+
+/**
+ * Rolling digests of a stream, folded value by value so two streams of any length can be compared in constant memory.
+ * <p>Each value is hashed by a {@link Hasher} and mixed into a 64-bit hash. The ordered digest is a polynomial rolling hash
+ * of the mixed hashes and changes when values are reordered, the unordered digest is their sum and only depends on which
+ * values were emitted. Both are probabilistic: different streams collide with a probability of about 2<sup>-64</sup> for
+ * a well distributed hasher.
+ * <p>Recorded by a {@link Recorder} when {@link Recording#withDigest(Hasher)} is set. Not thread-safe, the values are
+ * expected to be serialized.
+ *
+ * @param <T> the value type
+ */
+public final class StreamDigest<T> {
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final Hasher<? super T> hasher;
+    private long ordered;
+    private long unordered;
+    private long count;
+
+    public StreamDigest(Hasher<? super T> hasher) {
+        if (hasher == null) {
+            throw new NullPointerException("hasher is null");
+        }
+        this.hasher = hasher;
+    }
+
+    /**
+     * Computes the digests of the values of the iterable, e.g. a reference output read lazily from a file.
+     */
+    public static <T> StreamDigest<T> of(Iterable<? extends T> values, Hasher<? super T> hasher) {
+        StreamDigest<T> digest = new StreamDigest<T>(hasher);
+        for (T value : values) {
+            digest.add(value);
+        }
+        return digest;
+    }
+
+    public void add(T value) {
+        long h = mix(hasher.hash(value));
+        ordered = ordered * MULTIPLIER + h;
+        unordered += h;
+        count++;
+    }
+
+    /**
+     * The finalizer of SplitMix64, spreading every input bit over the whole hash.
+     */
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    public Hasher<? super T> hasher() {
+        return hasher;
+    }
+
+    /**
+     * Returns the digest depending on the values and their order.
+     */
+    public long ordered() {
+        return ordered;
+    }
+
+    /**
+     * Returns the digest depending only on the values, whatever their order.
+     */
+    public long unordered() {
+        return unordered;
+    }
+
+    /**
+     * Returns the number of values folded into the digests.
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "ordered = " + hex(ordered) + ", unordered = " + hex(unordered) + ", count = " + count;
+    }
+
+    static String hex(long digest) {
+        return String.format("%016x", digest);
+    }
+
+    /**
+     * Hashes a single value to 64 bits.
+     *
+     * @param <T> the value type
+     */
+    public interface Hasher<T> {
+        long hash(T value);
+    }
+
+    /**
+     * Hashes values by their {@code hashCode()}, null hashing to zero. Only as strong as the 32-bit hash codes of the values.
+     */
+    public static final Hasher<Object> HASH_CODES = new Hasher<Object>() {
+        @Override
+        public long hash(Object value) {
+            return value != null ? value.hashCode() : 0;
+        }
+    };
+
+    /**
+     * Hashes the characters of strings with 64-bit FNV-1a.
+     */
+    public static final Hasher<CharSequence> STRINGS = new Hasher<CharSequence>() {
+        @Override
+        public long hash(CharSequence value) {
+            long h = 0xCBF29CE484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            return h;
+        }
+    };
+
+    /**
+     * Hashes the content of byte arrays with 64-bit FNV-1a.
+     */
+    public static final Hasher<byte[]> BYTES = new Hasher<byte[]>() {
+        @Override
+        public long hash(byte[] value) {
+            long h = 0xCBF29CE484222325L;
+            for (byte b : value) {
+                h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+            }
+            return h;
+        }
+    };
+}
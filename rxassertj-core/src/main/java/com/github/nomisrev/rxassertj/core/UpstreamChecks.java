@@ -0,0 +1,58 @@
+package com.github.nomisrev.rxassertj.core;
+
+/**
+ * The checks behind the upstream probe assertions of the RxJava 1 and RxJava 2 modules, written once against
+ * {@link UpstreamLog}.
+ */
+public final class UpstreamChecks {
+
+    public static void assertSubscriptions(UpstreamLog log, long count) {
+        long subscriptions = log.subscriptions();
+        if (subscriptions != count) {
+            throw fail(log, "Expected the upstream to be subscribed " + count + " time(s) but it was subscribed " + subscriptions + " time(s)");
+        }
+    }
+
+    public static void assertSubscriptionsAtMost(UpstreamLog log, long count) {
+        long subscriptions = log.subscriptions();
+        if (subscriptions > count) {
+            throw fail(log, "Expected the upstream to be subscribed at most " + count + " time(s) but it was subscribed " + subscriptions + " time(s)");
+        }
+    }
+
+    public static void assertNoUnboundedRequests(UpstreamLog log) {
+        long unbounded = log.unboundedRequests();
+        if (unbounded != 0) {
+            throw fail(log, "Expected no unbounded request but Long.MAX_VALUE was requested " + unbounded + " time(s)");
+        }
+    }
+
+    public static void assertMaxOutstandingDemandAtMost(UpstreamLog log, long count) {
+        long outstanding = log.maxOutstandingDemand();
+        if (outstanding > count) {
+            throw fail(log, "Expected at most " + count + " outstanding item(s) but up to "
+                    + (outstanding == Long.MAX_VALUE ? "unbounded" : String.valueOf(outstanding)) + " were requested");
+        }
+    }
+
+    public static void assertRequestBatchesAtMost(UpstreamLog log, long count) {
+        if (log.requests() == 0) {
+            throw fail(log, "Expected requests of at most " + count + " item(s) but nothing was requested");
+        }
+        long largest = log.largestRequest();
+        if (largest > count) {
+            throw fail(log, "Expected requests of at most " + count + " item(s) but " + largest + " were requested at once");
+        }
+    }
+
+    /**
+     * Creates an {@link AssertionError} with the given message and a summary of the log.
+     */
+    public static AssertionError fail(UpstreamLog log, String message) {
+        return new AssertionError(message + " (" + log + ")");
+    }
+
+    private UpstreamChecks() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts what happens at a probed point of a pipeline, upstream of the operators under test.
+ * <p>Fed by the {@code UpstreamProbe} of the RxJava modules, which counts every {@code subscribe} call reaching the wrapped
+ * source, including the re-subscriptions of {@code retry} or {@code repeat}, and for backpressured sources every
+ * {@code request(n)} reaching it and every value it delivered. Safe to update from any thread.
+ */
+public final class UpstreamLog {
+
+    private final AtomicLong subscriptions = new AtomicLong();
+
+    private long requests;
+    private long unboundedRequests;
+    private long totalRequested;
+    private long largestRequest;
+    private long maxOutstanding;
+    private long delivered;
+
+    /**
+     * Counts a subscription to the probed source.
+     *
+     * @return the demand of this subscription, to be fed with its requests and deliveries
+     */
+    public Demand onSubscribe() {
+        subscriptions.incrementAndGet();
+        return new Demand();
+    }
+
+    /**
+     * Returns the number of times the probed source was subscribed to.
+     */
+    public long subscriptions() {
+        return subscriptions.get();
+    }
+
+    /**
+     * Returns the number of {@code request(n)} calls.
+     */
+    public synchronized long requests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of requests for {@code Long.MAX_VALUE} items, which turn backpressure off.
+     */
+    public synchronized long unboundedRequests() {
+        return unboundedRequests;
+    }
+
+    /**
+     * Returns the sum of all requests, capped at {@code Long.MAX_VALUE}.
+     */
+    public synchronized long totalRequested() {
+        return totalRequested;
+    }
+
+    /**
+     * Returns the largest single request, or zero if nothing was requested.
+     */
+    public synchronized long largestRequest() {
+        return largestRequest;
+    }
+
+    /**
+     * Returns the highest number of items requested but not yet delivered for any one subscription, which is
+     * {@code Long.MAX_VALUE} once backpressure was turned off.
+     */
+    public synchronized long maxOutstandingDemand() {
+        return maxOutstanding;
+    }
+
+    /**
+     * Returns the number of values the probed source delivered.
+     */
+    public synchronized long delivered() {
+        return delivered;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "subscriptions = " + subscriptions.get()
+                + ", requests = " + requests
+                + ", requested = " + totalRequested
+                + ", delivered = " + delivered;
+    }
+
+    /**
+     * The outstanding demand of one subscription to the probed source.
+     */
+    public final class Demand {
+
+        private long outstanding;
+
+        Demand() {
+        }
+
+        public void onRequest(long n) {
+            synchronized (UpstreamLog.this) {
+                requests++;
+                largestRequest = Math.max(largestRequest, n);
+                totalRequested = add(totalRequested, n);
+                if (n == Long.MAX_VALUE) {
+                    unboundedRequests++;
+                }
+                outstanding = add(outstanding, n);
+                maxOutstanding = Math.max(maxOutstanding, outstanding);
+            }
+        }
+
+        public void onDeliver() {
+            synchronized (UpstreamLog.this) {
+                delivered++;
+                if (outstanding != Long.MAX_VALUE) {
+                    outstanding--;
+                }
+            }
+        }
+
+        private long add(long a, long b) {
+            long sum = a + b;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.github.nomisrev.rxassertj.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Storage for the values kept by a {@link Recorder}, created by a {@link Retention}.
+ * <p>Stores are written by a single thread, except {@link Concurrent}; {@link #size()} is only published after the value
+ * is stored so readers never observe an unset slot.
+ */
+abstract class ValueStore<T> {
+
+    /**
+     * Offers the value received at the given stream index, starting at zero.
+     */
+    abstract void add(T value, long index);
+
+    /**
+     * Returns the number of values currently retained.
+     */
+    abstract int size();
+
+    /**
+     * Returns the retained value at the given position of the store, in the store's own order.
+     */
+    abstract T get(int position);
+
+    /**
+     * Returns the value received at the given stream index.
+     *
+     * @throws IndexOutOfBoundsException if the value at that index is not retained
+     */
+    abstract T valueAt(long index);
+
+    /**
+     * Keeps every value in a growable array, in arrival order.
+     */
+    static final class All<T> extends ValueStore<T> {
+
+        private volatile Object[] buffer = new Object[16];
+        private volatile int size;
+
+        @Override
+        void add(T value, long index) {
+            Object[] b = buffer;
+            int s = size;
+            if (s == b.length) {
+                Object[] grown = new Object[s + (s >> 1)];
+                System.arraycopy(b, 0, grown, 0, s);
+                b = grown;
+            }
+            b[s] = value;
+            buffer = b;
+            size = s + 1;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        T get(int position) {
+            int s = size;
+            if (position < 0 || position >= s) {
+                throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + s);
+            }
+            return (T) buffer[position];
+        }
+
+        @Override
+        T valueAt(long index) {
+            if (index > Integer.MAX_VALUE) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return get((int) index);
+        }
+    }
+
+    /**
+     * Keeps no value, the {@link Recorder} still counts them.
+     */
+    static final class None<T> extends ValueStore<T> {
+
+        @Override
+        void add(T value, long index) {
+        }
+
+        @Override
+        int size() {
+            return 0;
+        }
+
+        @Override
+        T get(int position) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: 0");
+        }
+
+        @Override
+        T valueAt(long index) {
+            throw new IndexOutOfBoundsException("Value at index " + index + " is not retained");
+        }
+    }
+
+    /**
+     * Keeps the first values up to a fixed capacity and drops the rest.
+     */
+    static final class First<T> extends ValueStore<T> {
+
+        private final Object[] slots;
+        private volatile int size;
+
+        First(int capacity) {
+            this.slots = new Object[capacity];
+        }
+
+        @Override
+        void add(T value, long index) {
+            int s = size;
+            if (s < slots.length) {
+                slots[s] = value;
+                size = s + 1;
+            }
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        T get(int position) {
+            int s = size;
+            if (position < 0 || position >= s) {
+                throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + s);
+            }
+            return (T) slots[position];
+        }
+
+        @Override
+        T valueAt(long index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Value at index " + index + " is not retained, only the first "
+                        + slots.length + " values are");
+            }
+            return get((int) index);
+        }
+    }
+
+    /**
+     * Keeps the last values in a ring buffer of fixed capacity, in arrival order.
+     */
+    static final class Last<T> extends ValueStore<T> {
+
+        private final Object[] slots;
+        private volatile long received;
+
+        Last(int capacity) {
+            this.slots = new Object[capacity];
+        }
+
+        @Override
+        void add(T value, long index) {
+            slots[(int) (index % slots.length)] = value;
+            received = index + 1;
+        }
+
+        @Override
+        int size() {
+            return (int) Math.min(received, slots.length);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        T get(int position) {
+            long r = received;
+            int s = (int) Math.min(r, slots.length);
+            if (position < 0 || position >= s) {
+                throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + s);
+            }
+            return (T) slots[(int) ((r - s + position) % slots.length)];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        T valueAt(long index) {
+            long r = received;
+            if (index < r - slots.length || index >= r) {
+                throw new IndexOutOfBoundsException("Value at index " + index + " is not retained, only the last "
+                        + slots.length + " values are");
+            }
+            return (T) slots[(int) (index % slots.length)];
+        }
+    }
+
+    /**
+     * Keeps every value in segments that concurrent writers append to without locking: a writer claims the next index with
+     * an atomic increment and publishes its value into the slot, marking the slot as set. Only allocating a segment, once per
+     * {@link #SEGMENT_SIZE} values, takes a lock.
+     * <p>{@link #size()} counts the published values, a reader may find a slot below it still being written by a slower
+     * writer and waits for it.
+     */
+    static final class Concurrent<T> extends ValueStore<T> {
+
+        static final int SEGMENT_SIZE = 1024;
+        private static final Object NULL = new Object();
+
+        private final AtomicLong claimed = new AtomicLong();
+        private final AtomicLong published = new AtomicLong();
+        private volatile AtomicReferenceArray<Object>[] segments = newSegments(16);
+
+        @SuppressWarnings("unchecked")
+        private static AtomicReferenceArray<Object>[] newSegments(int length) {
+            return new AtomicReferenceArray[length];
+        }
+
+        /**
+         * Appends the value at the next free index, the given index is ignored.
+         */
+        @Override
+        void add(T value, long index) {
+            long i = claimed.getAndIncrement();
+            if (i >= Integer.MAX_VALUE) {
+                throw new IllegalStateException("More than " + Integer.MAX_VALUE + " values");
+            }
+            segment(i, true).set((int) (i % SEGMENT_SIZE), value != null ? value : NULL);
+            published.incrementAndGet();
+        }
+
+        private AtomicReferenceArray<Object> segment(long index, boolean create) {
+            int s = (int) (index / SEGMENT_SIZE);
+            AtomicReferenceArray<Object>[] all = segments;
+            AtomicReferenceArray<Object> segment = s < all.length ? all[s] : null;
+            if (segment == null && create) {
+                synchronized (this) {
+                    all = segments;
+                    if (s >= all.length) {
+                        AtomicReferenceArray<Object>[] grown = newSegments(Math.max(all.length * 2, s + 1));
+                        System.arraycopy(all, 0, grown, 0, all.length);
+                        all = grown;
+                    }
+                    segment = all[s];
+                    if (segment == null) {
+                        segment = new AtomicReferenceArray<Object>(SEGMENT_SIZE);
+                        all[s] = segment;
+                    }
+                    segments = all;
+                }
+            }
+            return segment;
+        }
+
+        @Override
+        int size() {
+            return (int) published.get();
+        }
+
+        @Override
+        T get(int position) {
+            int s = size();
+            if (position < 0 || position >= s) {
+                throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + s);
+            }
+            return valueAt(position);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        T valueAt(long index) {
+            if (index < 0 || index >= claimed.get()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            for (;;) {
+                AtomicReferenceArray<Object> segment = segment(index, false);
+                Object value = segment != null ? segment.get((int) (index % SEGMENT_SIZE)) : null;
+                if (value != null) {
+                    return value != NULL ? (T) value : null;
+                }
+                Thread.yield();
+            }
+        }
+    }
+}
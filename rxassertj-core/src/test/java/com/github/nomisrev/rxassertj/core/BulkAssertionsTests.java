@@ -0,0 +1,74 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BulkAssertionsTests {
+
+    @Test
+    public void shouldRunCheckAgainstEverySource() {
+        final AtomicInteger checked = new AtomicInteger();
+        BulkAssertions.assertAll(range(1000), new AssertionCheck<Integer>() {
+            @Override
+            public void check(Integer source) {
+                checked.incrementAndGet();
+            }
+        }, 4);
+        Assertions.assertThat(checked.get()).isEqualTo(1000);
+    }
+
+    @Test
+    public void shouldAggregateFailuresInSourceOrder() {
+        try {
+            BulkAssertions.assertAll(range(1000), new AssertionCheck<Integer>() {
+                @Override
+                public void check(Integer source) {
+                    if (source % 100 == 99) {
+                        throw new AssertionError("failed " + source);
+                    }
+                }
+            }, 4);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected.getMessage())
+                    .startsWith("10 of 1000 sources failed:\n  [#99] java.lang.AssertionError: failed 99\n  [#199]");
+            Assertions.assertThat(expected.getCause()).hasMessage("failed 99");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void shouldIdentifyMappedSourcesByKey() {
+        Map<String, Integer> sources = new LinkedHashMap<String, Integer>();
+        sources.put("fixture-a", 1);
+        sources.put("fixture-b", 2);
+        try {
+            BulkAssertions.assertAll(sources, new AssertionCheck<Integer>() {
+                @Override
+                public void check(Integer source) throws Exception {
+                    if (source == 2) {
+                        throw new IllegalStateException("broken");
+                    }
+                }
+            }, 2);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessage("1 of 2 sources failed:\n  [fixture-b] java.lang.IllegalStateException: broken");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    private static List<Integer> range(int count) {
+        List<Integer> values = new ArrayList<Integer>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class EmissionTraceTests {
+
+    @Test
+    public void traceShouldSurviveRoundTrip() throws Exception {
+        Recorder<String> recorder = Recording.defaults().withArrivalTimes().newRecorder();
+        recorder.onNext("a");
+        Thread.sleep(5);
+        recorder.onNext("b");
+        recorder.onError(new IOException("boom"));
+        EmissionTrace<String> trace = EmissionTrace.of(recorder);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out, EmissionTrace.STRINGS);
+        EmissionTrace<String> read = EmissionTrace.readFrom(new ByteArrayInputStream(out.toByteArray()), EmissionTrace.STRINGS);
+
+        Assertions.assertThat(read.values()).containsExactly("a", "b");
+        Assertions.assertThat(read.offsetAt(1, TimeUnit.NANOSECONDS)).isEqualTo(trace.offsetAt(1, TimeUnit.NANOSECONDS));
+        Assertions.assertThat(read.offsetAt(1, TimeUnit.MILLISECONDS) - read.offsetAt(0, TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(4);
+        Assertions.assertThat(read.termination()).isEqualTo(EmissionTrace.FAILED);
+        Assertions.assertThat(read.errorMessage()).isEqualTo("java.io.IOException: boom");
+        Assertions.assertThat(read.terminationOffset(TimeUnit.NANOSECONDS)).isEqualTo(trace.terminationOffset(TimeUnit.NANOSECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void traceShouldRequireArrivalTimes() {
+        EmissionTrace.of(new Recorder<String>());
+    }
+
+    @Test(expected = IOException.class)
+    public void readShouldRejectOtherData() throws IOException {
+        EmissionTrace.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}), EmissionTrace.INTEGERS);
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.Condition;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ExpectationTests {
+
+    private final Expectation<Integer> expectation = Expectation.<Integer>builder()
+            .values(1, 2, 3)
+            .each(new Condition<Integer>() {
+                @Override
+                public boolean matches(Integer value) {
+                    return value > 0;
+                }
+            })
+            .completes()
+            .build();
+
+    @Test
+    public void verificationShouldPassForExpectedSignals() {
+        Expectation.Verification<Integer> verification = expectation.newVerification();
+        verification.onNext(1);
+        verification.onNext(2);
+        verification.onNext(3);
+        verification.onComplete();
+        verification.assertSatisfied();
+    }
+
+    @Test
+    public void verificationShouldReportFirstDifferingValue() {
+        Expectation.Verification<Integer> verification = expectation.newVerification();
+        verification.onNext(1);
+        verification.onNext(5);
+        verification.onNext(3);
+        verification.onComplete();
+        try {
+            verification.assertSatisfied();
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessage("Values at position 1 differ; Expected: 2 (class: Integer), "
+                    + "Actual: 5 (class: Integer) (values = 3, errors = 0, completions = 1)");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void verificationsShouldNotShareState() {
+        Expectation.Verification<Integer> first = expectation.newVerification();
+        Expectation.Verification<Integer> second = expectation.newVerification();
+        first.onNext(1);
+        first.onNext(2);
+        first.onNext(3);
+        first.onComplete();
+        second.onNext(1);
+        first.assertSatisfied();
+        Assertions.assertThat(second.isTerminated()).isFalse();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void verificationShouldRequireExpectedError() {
+        Expectation.Verification<Integer> verification = Expectation.<Integer>builder()
+                .valueCount(0)
+                .failsWith(IOException.class)
+                .build()
+                .newVerification();
+        verification.onError(new IllegalStateException());
+        verification.assertSatisfied();
+    }
+
+    @Test
+    public void verificationShouldRequireExpectedValuesFromRunningSource() {
+        Expectation.Verification<Integer> verification = Expectation.<Integer>builder()
+                .values(1, 2, 3)
+                .build()
+                .newVerification();
+        verification.onNext(1);
+        try {
+            verification.assertSatisfied();
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessage("Subscriber still running! Fewer values received than expected (1) "
+                    + "(values = 1, errors = 0, completions = 0)");
+            return;
+        }
+        throw new AssertionError("Expected the missing values to be reported");
+    }
+
+    @Test(expected = AssertionError.class)
+    public void verificationShouldRequireExpectedCountFromRunningSource() {
+        Expectation.Verification<Integer> verification = Expectation.<Integer>builder()
+                .valueCount(3)
+                .build()
+                .newVerification();
+        verification.onNext(1);
+        verification.assertSatisfied();
+    }
+
+    @Test
+    public void verificationShouldPassForRunningSourceWithExpectedValues() {
+        Expectation.Verification<Integer> verification = Expectation.<Integer>builder()
+                .values(1, 2)
+                .build()
+                .newVerification();
+        verification.onNext(1);
+        verification.onNext(2);
+        verification.assertSatisfied();
+    }
+}
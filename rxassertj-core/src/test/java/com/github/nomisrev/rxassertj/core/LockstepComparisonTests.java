@@ -0,0 +1,93 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class LockstepComparisonTests {
+
+    @Test
+    public void equalStreamsShouldFinishWithoutMismatch() {
+        LockstepComparison<Integer> comparison = new LockstepComparison<Integer>(null, 4);
+        for (int i = 0; i < 3; i++) {
+            comparison.onNext(LockstepComparison.CANDIDATE, i);
+        }
+        for (int i = 0; i < 3; i++) {
+            comparison.onNext(LockstepComparison.REFERENCE, i);
+        }
+        comparison.onComplete(LockstepComparison.REFERENCE);
+        Assertions.assertThat(comparison.isFinished()).isFalse();
+        comparison.onComplete(LockstepComparison.CANDIDATE);
+        Assertions.assertThat(comparison.isFinished()).isTrue();
+        Assertions.assertThat(comparison.mismatch()).isNull();
+        Assertions.assertThat(comparison.compared()).isEqualTo(3);
+    }
+
+    @Test
+    public void mismatchShouldReportFirstDifferingIndexAndCancelBothSides() {
+        LockstepComparison<Integer> comparison = new LockstepComparison<Integer>(null, 4);
+        CountingDemand candidate = new CountingDemand();
+        CountingDemand reference = new CountingDemand();
+        comparison.attach(LockstepComparison.CANDIDATE, candidate);
+        comparison.attach(LockstepComparison.REFERENCE, reference);
+        comparison.onNext(LockstepComparison.CANDIDATE, 1);
+        comparison.onNext(LockstepComparison.CANDIDATE, 2);
+        comparison.onNext(LockstepComparison.REFERENCE, 1);
+        comparison.onNext(LockstepComparison.REFERENCE, 3);
+        Assertions.assertThat(comparison.mismatch())
+                .isEqualTo("Values at position 1 differ; Candidate: 2 (class: Integer), Reference: 3 (class: Integer)");
+        Assertions.assertThat(candidate.cancelled).isTrue();
+        Assertions.assertThat(reference.cancelled).isTrue();
+    }
+
+    @Test
+    public void sidesShouldOnlyBeAskedForValuesAheadOfTheComparison() {
+        LockstepComparison<Integer> comparison = new LockstepComparison<Integer>(null, 4);
+        CountingDemand candidate = new CountingDemand();
+        CountingDemand reference = new CountingDemand();
+        comparison.attach(LockstepComparison.CANDIDATE, candidate);
+        comparison.attach(LockstepComparison.REFERENCE, reference);
+        for (int i = 0; i < 4; i++) {
+            comparison.onNext(LockstepComparison.CANDIDATE, i);
+        }
+        Assertions.assertThat(candidate.requested).isEqualTo(4);
+        for (int i = 0; i < 3; i++) {
+            comparison.onNext(LockstepComparison.REFERENCE, i);
+        }
+        Assertions.assertThat(candidate.requested).isEqualTo(7);
+        Assertions.assertThat(reference.requested).isEqualTo(7);
+    }
+
+    @Test
+    public void earlierTerminationShouldBeReported() {
+        LockstepComparison<String> comparison = new LockstepComparison<String>(String.CASE_INSENSITIVE_ORDER, 4);
+        comparison.onNext(LockstepComparison.CANDIDATE, "a");
+        comparison.onNext(LockstepComparison.REFERENCE, "A");
+        comparison.onComplete(LockstepComparison.CANDIDATE);
+        comparison.onNext(LockstepComparison.REFERENCE, "b");
+        Assertions.assertThat(comparison.mismatch())
+                .isEqualTo("Candidate completed after 1 values, Reference emitted b (class: String)");
+    }
+
+    @Test
+    public void differentTerminalEventsShouldBeReported() {
+        LockstepComparison<String> comparison = new LockstepComparison<String>(null, 4);
+        comparison.onError(LockstepComparison.CANDIDATE, new IllegalStateException());
+        comparison.onComplete(LockstepComparison.REFERENCE);
+        Assertions.assertThat(comparison.mismatch()).startsWith("Terminal events differ after 0 values; Candidate failed with");
+    }
+
+    private static final class CountingDemand implements LockstepComparison.Demand {
+        long requested;
+        boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class MarbleDiagramTests {
+
+    @Test
+    public void diagramShouldPlaceSignalsInFrames() {
+        MarbleDiagram diagram = MarbleDiagram.parse("-a--b-c|");
+        Assertions.assertThat(diagram.marbles().toString()).isEqualTo("[a@1, b@4, c@6, |@7]");
+        Assertions.assertThat(diagram.frames()).isEqualTo(8);
+    }
+
+    @Test
+    public void groupShouldEmitInOneFrame() {
+        MarbleDiagram diagram = MarbleDiagram.parse("a (bc) -#");
+        Assertions.assertThat(diagram.marbles().toString()).isEqualTo("[a@0, b@1, c@1, #@3]");
+        Assertions.assertThat(diagram.marbles().get(3).kind()).isEqualTo(MarbleDiagram.Marble.ERROR);
+    }
+
+    @Test
+    public void parsedDiagramsShouldBeCached() {
+        Assertions.assertThat(MarbleDiagram.parse("--x|")).isSameAs(MarbleDiagram.parse("--x|"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void signalAfterTerminalEventShouldBeRejected() {
+        MarbleDiagram.parse("-a|-b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unclosedGroupShouldBeRejected() {
+        MarbleDiagram.parse("-(ab");
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.Condition;
+import org.junit.Test;
+
+public class ProtocolLogTests {
+
+    private static final Condition<Integer> EVEN = new Condition<Integer>("even") {
+        @Override
+        public boolean matches(Integer value) {
+            return value % 2 == 0;
+        }
+    };
+
+    @Test
+    public void wellBehavedSessionShouldCountNothing() {
+        ProtocolLog<Integer> log = new ProtocolLog<Integer>(null, 1);
+        ProtocolLog<Integer>.Session session = log.newSession();
+        Assertions.assertThat(session.onSubscribe()).isTrue();
+        session.onRequest(2);
+        Assertions.assertThat(session.onNext(1)).isTrue();
+        Assertions.assertThat(session.onNext(2)).isTrue();
+        Assertions.assertThat(session.onTerminal()).isTrue();
+        Assertions.assertThat(log.subscriptions()).isEqualTo(1);
+        Assertions.assertThat(log.sampled()).isZero();
+        ProtocolChecks.assertNoViolations(log);
+    }
+
+    @Test
+    public void violationsShouldBeCountedPerRule() {
+        ProtocolLog<Integer> log = new ProtocolLog<Integer>(null, 1);
+        ProtocolLog<Integer>.Session session = log.newSession();
+        session.onSubscribe();
+        Assertions.assertThat(session.onSubscribe()).isFalse();
+        session.onRequest(0);
+        session.onRequest(1);
+        session.onNext(1);
+        session.onNext(2);
+        session.onTerminal();
+        Assertions.assertThat(session.onNext(3)).isFalse();
+        Assertions.assertThat(session.onTerminal()).isFalse();
+        Assertions.assertThat(log.duplicateSubscriptions()).isEqualTo(1);
+        Assertions.assertThat(log.invalidRequests()).isEqualTo(1);
+        Assertions.assertThat(log.demandViolations()).isEqualTo(1);
+        Assertions.assertThat(log.signalsAfterTerminal()).isEqualTo(2);
+        Assertions.assertThat(log.violations()).isEqualTo(5);
+        try {
+            ProtocolChecks.assertNoViolations(log);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageContaining("violated it 5 time(s)");
+            return;
+        }
+        throw new AssertionError("Expected the violations to be reported");
+    }
+
+    @Test
+    public void unboundedDemandShouldNeverBeViolated() {
+        ProtocolLog<Integer> log = new ProtocolLog<Integer>(null, 1);
+        ProtocolLog<Integer>.Session session = log.newSession();
+        session.onSubscribe();
+        session.onRequest(Long.MAX_VALUE - 1);
+        session.onRequest(5);
+        for (int i = 0; i < 100; i++) {
+            session.onNext(i);
+        }
+        Assertions.assertThat(log.demandViolations()).isZero();
+    }
+
+    @Test
+    public void conditionShouldOnlySeeSampledValues() {
+        ProtocolLog<Integer> log = new ProtocolLog<Integer>(EVEN, 3);
+        ProtocolLog<Integer>.Session session = log.newSession();
+        session.onSubscribe();
+        session.onRequest(Long.MAX_VALUE);
+        for (int i = 1; i <= 10; i++) {
+            session.onNext(i);
+        }
+        Assertions.assertThat(log.sampled()).isEqualTo(3);
+        Assertions.assertThat(log.conditionFailures()).isEqualTo(2);
+        ProtocolChecks.assertSampledAtLeast(log, 3);
+        try {
+            ProtocolChecks.assertNoConditionFailures(log);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageContaining("2 of 3 sampled value(s) did not match even");
+            return;
+        }
+        throw new AssertionError("Expected the condition failures to be reported");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sampleIntervalShouldBePositive() {
+        new ProtocolLog<Integer>(EVEN, 0);
+    }
+}
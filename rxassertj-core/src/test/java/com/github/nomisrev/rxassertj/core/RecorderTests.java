@@ -0,0 +1,451 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.Condition;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RecorderTests {
+
+    private static Condition<Integer> EVEN = new Condition<Integer>("even") {
+        @Override
+        public boolean matches(Integer value) {
+            return value % 2 == 0;
+        }
+    };
+
+    private Recorder<Integer> recorder;
+
+    @Before
+    public void setUp() {
+        recorder = new Recorder<Integer>();
+    }
+
+    @Test
+    public void recorderShouldGrowBeyondInitialCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            recorder.onNext(i);
+        }
+        Assertions.assertThat(recorder.valueCount()).isEqualTo(1000);
+        Assertions.assertThat(recorder.valueAt(999)).isEqualTo(999);
+        Assertions.assertThat(recorder.values()).hasSize(1000).startsWith(0, 1, 2);
+    }
+
+    @Test
+    public void valuesShouldBeALiveView() {
+        List<Integer> values = recorder.values();
+        recorder.onNext(1);
+        recorder.onNext(2);
+        Assertions.assertThat(values).containsExactly(1, 2);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void valuesShouldBeReadOnly() {
+        recorder.values().add(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void valueAtShouldRejectUnrecordedIndex() {
+        recorder.onNext(1);
+        recorder.valueAt(1);
+    }
+
+    @Test
+    public void terminalEventShouldReleaseAwait() throws InterruptedException {
+        Assertions.assertThat(recorder.await(1, TimeUnit.MILLISECONDS)).isFalse();
+        recorder.onComplete();
+        Assertions.assertThat(recorder.await(1, TimeUnit.MILLISECONDS)).isTrue();
+        Assertions.assertThat(recorder.isTerminated()).isTrue();
+        Assertions.assertThat(recorder.completions()).isEqualTo(1);
+    }
+
+    @Test
+    public void limitedRecorderShouldAskForCancellationAtLimit() {
+        Recorder<Integer> limited = new Recorder<Integer>(2);
+        Assertions.assertThat(limited.onNext(1)).isTrue();
+        Assertions.assertThat(limited.onNext(2)).isFalse();
+    }
+
+    @Test
+    public void cancelledRecorderShouldOnlyCountLateSignals() throws InterruptedException {
+        recorder.onNext(1);
+        recorder.cancel();
+        Assertions.assertThat(recorder.onNext(2)).isFalse();
+        recorder.onComplete();
+
+        Assertions.assertThat(recorder.await(1, TimeUnit.MILLISECONDS)).isTrue();
+        Assertions.assertThat(recorder.isCancelled()).isTrue();
+        Assertions.assertThat(recorder.isTerminated()).isFalse();
+        Assertions.assertThat(recorder.values()).containsExactly(1);
+        Assertions.assertThat(recorder.lateSignals()).isEqualTo(2);
+    }
+
+    @Test
+    public void cancelShouldBeIgnoredAfterTermination() {
+        recorder.onComplete();
+        recorder.cancel();
+        Assertions.assertThat(recorder.isCancelled()).isFalse();
+    }
+
+    @Test
+    public void reservoirShouldKeepBoundedSampleAndExactCount() {
+        Recorder<Integer> sampled = Recording.retaining(Retention.reservoir(10, 42L)).newRecorder();
+        for (int i = 0; i < 100000; i++) {
+            sampled.onNext(i);
+        }
+        Assertions.assertThat(sampled.valueCount()).isEqualTo(100000);
+        Assertions.assertThat(sampled.values()).hasSize(10).doesNotHaveDuplicates();
+        for (Integer value : sampled.values()) {
+            Assertions.assertThat(sampled.valueAt(value)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void reservoirShouldSampleUniformly() {
+        Retention retention = Retention.reservoir(10, 7L);
+        int[] hits = new int[100];
+        for (int run = 0; run < 2000; run++) {
+            Recorder<Integer> sampled = new Recorder<Integer>(Long.MAX_VALUE, Recording.retaining(retention));
+            for (int i = 0; i < hits.length; i++) {
+                sampled.onNext(i);
+            }
+            for (Integer value : sampled.values()) {
+                hits[value]++;
+            }
+        }
+        // every value is expected in 10% of the samples: 200 hits with a standard deviation of ~13.4
+        for (int i = 0; i < hits.length; i++) {
+            Assertions.assertThat(hits[i]).as("hits of value %s", i).isBetween(130, 270);
+        }
+    }
+
+    @Test
+    public void countOnlyShouldKeepNoValues() {
+        Recorder<Integer> counting = Recording.retaining(Retention.countOnly()).newRecorder();
+        for (int i = 0; i < 1000; i++) {
+            counting.onNext(i);
+        }
+        counting.onComplete();
+        Assertions.assertThat(counting.valueCount()).isEqualTo(1000);
+        Assertions.assertThat(counting.values()).isEmpty();
+        EventLogChecks.assertValueCount(counting, 1000);
+        EventLogChecks.assertComplete(counting);
+    }
+
+    @Test
+    public void firstShouldKeepLeadingValues() {
+        Recorder<Integer> leading = Recording.retaining(Retention.first(3)).newRecorder();
+        for (int i = 0; i < 10; i++) {
+            leading.onNext(i);
+        }
+        Assertions.assertThat(leading.values()).containsExactly(0, 1, 2);
+        EventLogChecks.assertValueAt(leading, 2, 2);
+        try {
+            EventLogChecks.assertValueAt(leading, 3, 3);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Value at position 3 was not retained");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void lastShouldKeepTrailingValuesByStreamIndex() {
+        Recorder<Integer> trailing = Recording.retaining(Retention.last(3)).newRecorder();
+        for (int i = 0; i < 10; i++) {
+            trailing.onNext(i);
+        }
+        Assertions.assertThat(trailing.values()).containsExactly(7, 8, 9);
+        Assertions.assertThat(trailing.valueAt(7)).isEqualTo(7);
+        Assertions.assertThat(trailing.valueAt(9)).isEqualTo(9);
+        try {
+            trailing.valueAt(6);
+        } catch (IndexOutOfBoundsException expected) {
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void generatedSequenceShouldBeComparedLazily() {
+        Recorder<Long> recorder = new Recorder<Long>();
+        for (long i = 0; i < 100; i++) {
+            recorder.onNext(i);
+        }
+        EventLogChecks.assertValueSequence(recorder, ExpectedSequence.generated(100, new ExpectedSequence.Generator<Long>() {
+            @Override
+            public Long valueAt(long index) {
+                return index;
+            }
+        }));
+    }
+
+    @Test
+    public void sequenceComparisonShouldStopAtFirstMismatch() {
+        final int[] generated = new int[1];
+        ExpectedSequence<Long> sequence = ExpectedSequence.generated(1000000, new ExpectedSequence.Generator<Long>() {
+            @Override
+            public Long valueAt(long index) {
+                generated[0]++;
+                return index;
+            }
+        });
+        Recorder<Long> recorder = Recording.retaining(Retention.countOnly()).comparingWith(sequence).newRecorder();
+        for (long i = 0; i < 1000; i++) {
+            recorder.onNext(i == 10 ? -1L : i);
+        }
+        try {
+            EventLogChecks.assertValueSequence(recorder, sequence);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Values at position 10 differ; Expected: 10 (class: Long), Actual: -1");
+            Assertions.assertThat(generated[0]).isEqualTo(11);
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void doneCallbacksShouldRunOnceRecordingEnds() throws Exception {
+        Recorder<Integer> recorder = new Recorder<Integer>();
+        final int[] runs = new int[1];
+        Runnable callback = new Runnable() {
+            @Override
+            public void run() {
+                runs[0]++;
+            }
+        };
+        recorder.whenDone(callback);
+        recorder.onNext(1);
+        Assertions.assertThat(runs[0]).isEqualTo(0);
+        recorder.cancel();
+        Assertions.assertThat(runs[0]).isEqualTo(1);
+        recorder.whenDone(callback);
+        Assertions.assertThat(runs[0]).isEqualTo(2);
+        AssertionFuture future = AssertionFuture.whenDone(recorder, recorder, null);
+        Assertions.assertThat(future.isDone()).isTrue();
+        Assertions.assertThat(future.get()).isNull();
+    }
+
+    @Test
+    public void concurrentRecordingShouldKeepEveryValue() throws InterruptedException {
+        final Recorder<Integer> recorder = Recording.concurrent().newRecorder();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t * 50000;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    for (int i = 0; i < 50000; i++) {
+                        recorder.onNext(offset + i);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        recorder.onComplete();
+        Assertions.assertThat(recorder.valueCount()).isEqualTo(200000);
+        Assertions.assertThat(new HashSet<Integer>(recorder.values())).hasSize(200000);
+        Assertions.assertThat(recorder.overlaps().overlappingValues()).isEqualTo(recorder.overlaps().overlaps());
+        Assertions.assertThat(recorder.overlaps().maxConcurrency()).isBetween(1, 4);
+    }
+
+    @Test
+    public void serializedSignalsShouldHaveNoOverlaps() {
+        Recorder<Integer> recorder = Recording.concurrent().newRecorder();
+        recorder.onNext(1);
+        recorder.onNext(null);
+        recorder.onComplete();
+        EventLogChecks.assertSerialized(recorder);
+        EventLogChecks.assertOverlappingValues(recorder, 0);
+        Assertions.assertThat(recorder.values()).containsExactly(1, null);
+        Assertions.assertThat(recorder.overlaps().maxConcurrency()).isEqualTo(1);
+    }
+
+    @Test
+    public void concurrentRecordingShouldReadValuesByIndex() {
+        Recorder<Integer> recorder = Recording.concurrent().newRecorder();
+        recorder.onNext(1);
+        recorder.onNext(2);
+        Assertions.assertThat(recorder.valueAt(0)).isEqualTo(1);
+        Assertions.assertThat(recorder.valueAt(1)).isEqualTo(2);
+        EventLogChecks.assertValueAt(recorder, 0, 1);
+        EventLogChecks.assertValueAt(recorder, 1, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void concurrentRecordingShouldRejectSingleWriterOptions() {
+        Recording.concurrent().withStatistics().newRecorder();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void valueChecksShouldFailWhenValuesWereSampled() {
+        Recorder<Integer> sampled = Recording.retaining(Retention.reservoir(1)).newRecorder();
+        sampled.onNext(1);
+        sampled.onNext(2);
+        EventLogChecks.assertValues(sampled, 1, 2);
+    }
+
+    @Test
+    public void checksShouldPassOnMatchingLog() {
+        recorder.onNext(1);
+        recorder.onNext(2);
+        recorder.onNext(4);
+        recorder.onComplete();
+
+        EventLogChecks.assertValues(recorder, 1, 2, 4);
+        EventLogChecks.assertValueSequence(recorder, Arrays.asList(1, 2, 4));
+        EventLogChecks.assertValueSet(recorder, Arrays.asList(4, 2, 1));
+        EventLogChecks.assertContains(recorder, 4, 1);
+        EventLogChecks.assertDoesNotContain(recorder, 3);
+        EventLogChecks.assertValueAt(recorder, 1, 2);
+        EventLogChecks.assertExactly(recorder, 2, EVEN);
+        EventLogChecks.assertAtMost(recorder, 2, EVEN);
+        EventLogChecks.assertAtLeast(recorder, 1, EVEN);
+        EventLogChecks.assertComplete(recorder);
+        EventLogChecks.assertTerminated(recorder);
+        EventLogChecks.assertNoErrors(recorder);
+    }
+
+    @Test
+    public void statisticsShouldMatchExactValuesWithoutRetainingThem() {
+        Recorder<Double> recorder = Recording.retaining(Retention.reservoir(1)).withStatistics().newRecorder();
+        for (int i = 1; i <= 1000; i++) {
+            recorder.onNext((double) i);
+        }
+        NumericStatistics statistics = recorder.statistics();
+        Assertions.assertThat(recorder.values()).hasSize(1);
+        Assertions.assertThat(statistics.count()).isEqualTo(1000);
+        Assertions.assertThat(statistics.mean()).isCloseTo(500.5, Assertions.within(1e-9));
+        Assertions.assertThat(statistics.variance()).isCloseTo(83416.666, Assertions.within(1e-3));
+        Assertions.assertThat(statistics.min()).isEqualTo(1);
+        Assertions.assertThat(statistics.max()).isEqualTo(1000);
+    }
+
+    @Test
+    public void quantilesShouldStayWithinRelativeAccuracy() {
+        Recorder<Double> recorder = Recording.defaults().withStatistics().newRecorder();
+        for (int i = 0; i < 10000; i++) {
+            recorder.onNext(i % 2 == 0 ? -i / 100d : i * 1000d);
+        }
+        NumericStatistics statistics = recorder.statistics();
+        double[] sorted = new double[10000];
+        for (int i = 0; i < 10000; i++) {
+            sorted[i] = recorder.valueAt(i);
+        }
+        Arrays.sort(sorted);
+        for (double q : new double[]{0, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1}) {
+            double exact = sorted[(int) (q * 9999)];
+            Assertions.assertThat(statistics.quantile(q))
+                    .isCloseTo(exact, Assertions.within(Math.abs(exact) * NumericStatistics.QUANTILE_ACCURACY));
+        }
+    }
+
+    @Test
+    public void statisticsShouldNotBeRecordedByDefault() {
+        recorder.onNext(1);
+        Assertions.assertThat(recorder.statistics()).isNull();
+        try {
+            EventLogChecks.assertMeanBetween(recorder, 0, 2);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Statistics were not recorded");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void arrivalTimesShouldMeasureGapsAndStalls() {
+        ArrivalTimes times = new ArrivalTimes(0);
+        for (long time : new long[]{50, 60, 70, 80, 200, 210}) {
+            times.add(time);
+        }
+        times.end(240);
+        Assertions.assertThat(times.count()).isEqualTo(6);
+        Assertions.assertThat(times.maxGap()).isEqualTo(120);
+        Assertions.assertThat(times.gapQuantile(0.5)).isEqualTo(10);
+        Assertions.assertThat(times.gapQuantile(0.99)).isEqualTo(120);
+        Assertions.assertThat(times.longestStall()).isEqualTo(120);
+        times.end(1000);
+        Assertions.assertThat(times.longestStall()).isEqualTo(120);
+    }
+
+    @Test
+    public void recorderShouldStopArrivalTimesOnTermination() {
+        Recorder<Integer> recorder = Recording.defaults().withArrivalTimes().newRecorder();
+        recorder.onNext(1);
+        recorder.onComplete();
+        long stall = recorder.arrivalTimes().longestStall();
+        Assertions.assertThat(recorder.arrivalTimes().count()).isEqualTo(1);
+        Assertions.assertThat(recorder.arrivalTimes().longestStall()).isEqualTo(stall);
+    }
+
+    @Test
+    public void threadsShouldCountDistinctThreadsAndHops() throws InterruptedException {
+        recorder.onNext(1);
+        Thread other = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                recorder.onNext(2);
+            }
+        }, "other");
+        other.start();
+        other.join();
+        recorder.onNext(3);
+        recorder.onComplete();
+        DeliveringThreads threads = recorder.threads();
+        Assertions.assertThat(threads.names()).containsExactly(Thread.currentThread().getName(), "other");
+        Assertions.assertThat(threads.count()).isEqualTo(2);
+        Assertions.assertThat(threads.hops()).isEqualTo(2);
+    }
+
+    @Test
+    public void failureShouldSummarizeLogAndKeepErrorAsCause() {
+        IllegalStateException error = new IllegalStateException("boom");
+        recorder.onNext(1);
+        recorder.onError(error);
+        try {
+            EventLogChecks.assertNoErrors(recorder);
+            Assertions.fail("assertNoErrors should have failed");
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageEndingWith("(values = 1, errors = 1, completions = 0)");
+            Assertions.assertThat(expected.getCause()).isSameAs(error);
+        }
+    }
+
+    @Test(expected = AssertionError.class)
+    public void valueSequenceCheckShouldFailOnShorterLog() {
+        recorder.onNext(1);
+        EventLogChecks.assertValueSequence(recorder, Arrays.asList(1, 2));
+    }
+
+    @Test(expected = AssertionError.class)
+    public void containsCheckShouldFailOnMissingValue() {
+        recorder.onNext(1);
+        EventLogChecks.assertContains(recorder, 1, 2);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void atMostCheckShouldFailOnTooManyMatches() {
+        recorder.onNext(2);
+        recorder.onNext(4);
+        EventLogChecks.assertAtMost(recorder, 1, EVEN);
+    }
+}
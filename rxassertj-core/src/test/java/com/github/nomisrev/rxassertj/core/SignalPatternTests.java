@@ -0,0 +1,85 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.Condition;
+import org.junit.Test;
+
+public class SignalPatternTests {
+
+    private final Condition<Integer> even = new Condition<Integer>("even") {
+        @Override
+        public boolean matches(Integer value) {
+            return value % 2 == 0;
+        }
+    };
+
+    private final Condition<Integer> odd = new Condition<Integer>("odd") {
+        @Override
+        public boolean matches(Integer value) {
+            return value % 2 != 0;
+        }
+    };
+
+    private final SignalPattern<Integer> pattern = SignalPattern.<Integer>builder()
+            .oneOrMore(even)
+            .atMost(3, odd)
+            .completes()
+            .build();
+
+    @Test
+    public void patternShouldMatchBoundedRepetitions() {
+        Assertions.assertThat(match(pattern, true, 2, 4, 6, 1, 3, 5)).isNull();
+        Assertions.assertThat(match(pattern, true, 2)).isNull();
+    }
+
+    @Test
+    public void patternShouldReportFirstValueThatDoesNotFit() {
+        Assertions.assertThat(match(pattern, true, 2, 1, 3, 5, 7))
+                .isEqualTo("Value at position 4 does not fit pattern [1..* x even, 0..3 x odd, complete]: 7 (class: Integer)");
+        Assertions.assertThat(match(pattern, true, 1)).startsWith("Value at position 0 does not fit");
+    }
+
+    @Test
+    public void patternShouldRequireMinimumAndTerminalEvent() {
+        Assertions.assertThat(match(pattern, true)).isEqualTo("Pattern [1..* x even, 0..3 x odd, complete] is incomplete after 0 values");
+        Assertions.assertThat(match(pattern, false, 2))
+                .isEqualTo("Pattern [1..* x even, 0..3 x odd, complete] expects completion but the stream did not complete");
+    }
+
+    @Test
+    public void patternShouldHandleOverlappingConditions() {
+        Condition<Integer> any = new Condition<Integer>("any") {
+            @Override
+            public boolean matches(Integer value) {
+                return true;
+            }
+        };
+        SignalPattern<Integer> overlapping = SignalPattern.<Integer>builder()
+                .zeroOrMore(any)
+                .times(2, even)
+                .build();
+        Assertions.assertThat(match(overlapping, false, 1, 2, 3, 4, 6)).isNull();
+        Assertions.assertThat(match(overlapping, false, 2, 4, 1)).isEqualTo("Pattern [0..* x any, 2 x even] is incomplete after 3 values");
+    }
+
+    @Test
+    public void recorderShouldMatchPatternWithoutRetainingValues() {
+        Recorder<Integer> recorder = Recording.retaining(Retention.reservoir(10)).matching(pattern).newRecorder();
+        for (int i = 0; i < 100000; i++) {
+            recorder.onNext(i * 2);
+        }
+        recorder.onComplete();
+        EventLogChecks.assertMatchesPattern(recorder, pattern);
+    }
+
+    private static String match(SignalPattern<Integer> pattern, boolean complete, Integer... values) {
+        SignalPattern.Matcher<Integer> matcher = pattern.newMatcher();
+        for (Integer value : values) {
+            matcher.onNext(value);
+        }
+        if (complete) {
+            matcher.onComplete();
+        }
+        return matcher.mismatch();
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class SingleSlotTests {
+
+    @Test
+    public void successShouldCountAsValueAndCompletion() {
+        SingleSlot<String> slot = new SingleSlot<String>();
+        slot.onSuccess("a");
+        Assertions.assertThat(slot.isTerminated()).isTrue();
+        Assertions.assertThat(slot.values()).containsExactly("a");
+        Assertions.assertThat(slot.completions()).isEqualTo(1);
+        EventLogChecks.assertValues(slot, "a");
+        EventLogChecks.assertComplete(slot);
+    }
+
+    @Test
+    public void secondSignalShouldBeCountedButNotRetained() {
+        SingleSlot<String> slot = new SingleSlot<String>();
+        slot.onSuccess("a");
+        slot.onSuccess("b");
+        Assertions.assertThat(slot.valueCount()).isEqualTo(2);
+        Assertions.assertThat(slot.values()).containsExactly("a");
+        try {
+            EventLogChecks.assertComplete(slot);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Multiple completions: 2");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void awaitShouldWakeUpOnTerminalEvent() throws InterruptedException {
+        final SingleSlot<Object> slot = new SingleSlot<Object>();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                slot.onError(new IllegalStateException());
+            }
+        }).start();
+        Assertions.assertThat(slot.await(5, TimeUnit.SECONDS)).isTrue();
+        EventLogChecks.assertError(slot, IllegalStateException.class);
+    }
+
+    @Test
+    public void awaitShouldTimeOutWithoutTerminalEvent() throws InterruptedException {
+        Assertions.assertThat(new SingleSlot<Object>().await(10, TimeUnit.MILLISECONDS)).isFalse();
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class StreamDigestTests {
+
+    @Test
+    public void orderedDigestShouldDependOnOrder() {
+        StreamDigest<String> abc = StreamDigest.of(Arrays.asList("a", "b", "c"), StreamDigest.STRINGS);
+        StreamDigest<String> cba = StreamDigest.of(Arrays.asList("c", "b", "a"), StreamDigest.STRINGS);
+        Assertions.assertThat(abc.ordered()).isNotEqualTo(cba.ordered());
+        Assertions.assertThat(abc.unordered()).isEqualTo(cba.unordered());
+        Assertions.assertThat(abc.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void digestShouldBeReproducible() {
+        StreamDigest<Object> first = StreamDigest.of(Arrays.<Object>asList(1, 2, 3), StreamDigest.HASH_CODES);
+        StreamDigest<Object> second = StreamDigest.of(Arrays.<Object>asList(1, 2, 3), StreamDigest.HASH_CODES);
+        Assertions.assertThat(first.ordered()).isEqualTo(second.ordered());
+        Assertions.assertThat(StreamDigest.of(Arrays.<Object>asList(1, 2), StreamDigest.HASH_CODES).ordered())
+                .isNotEqualTo(first.ordered());
+    }
+
+    @Test
+    public void recorderShouldDigestWithoutRetainingValues() {
+        Recorder<Integer> recorder = Recording.retaining(Retention.countOnly()).withDigest(StreamDigest.HASH_CODES).newRecorder();
+        StreamDigest<Object> reference = new StreamDigest<Object>(StreamDigest.HASH_CODES);
+        for (int i = 0; i < 100000; i++) {
+            recorder.onNext(i);
+            reference.add(i);
+        }
+        recorder.onComplete();
+        EventLogChecks.assertOrderedDigest(recorder, reference.ordered(), StreamDigest.HASH_CODES);
+        EventLogChecks.assertUnorderedDigest(recorder, reference.unordered(), StreamDigest.HASH_CODES);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void digestCheckShouldFailWithoutRetainedValuesOrDigest() {
+        Recorder<Integer> recorder = Recording.retaining(Retention.countOnly()).newRecorder();
+        recorder.onNext(1);
+        EventLogChecks.assertOrderedDigest(recorder, 0, StreamDigest.HASH_CODES);
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.nomisrev.rxassertj.core;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class UpstreamLogTests {
+
+    @Test
+    public void demandShouldTrackOutstandingPerSubscription() {
+        UpstreamLog log = new UpstreamLog();
+        UpstreamLog.Demand first = log.onSubscribe();
+        first.onRequest(10);
+        for (int i = 0; i < 8; i++) {
+            first.onDeliver();
+        }
+        first.onRequest(8);
+        UpstreamLog.Demand second = log.onSubscribe();
+        second.onRequest(4);
+        Assertions.assertThat(log.subscriptions()).isEqualTo(2);
+        Assertions.assertThat(log.requests()).isEqualTo(3);
+        Assertions.assertThat(log.totalRequested()).isEqualTo(22);
+        Assertions.assertThat(log.largestRequest()).isEqualTo(10);
+        Assertions.assertThat(log.maxOutstandingDemand()).isEqualTo(10);
+        Assertions.assertThat(log.delivered()).isEqualTo(8);
+        UpstreamChecks.assertNoUnboundedRequests(log);
+        UpstreamChecks.assertRequestBatchesAtMost(log, 10);
+    }
+
+    @Test
+    public void unboundedRequestsShouldSaturate() {
+        UpstreamLog log = new UpstreamLog();
+        UpstreamLog.Demand demand = log.onSubscribe();
+        demand.onRequest(5);
+        demand.onRequest(Long.MAX_VALUE);
+        demand.onDeliver();
+        Assertions.assertThat(log.unboundedRequests()).isEqualTo(1);
+        Assertions.assertThat(log.totalRequested()).isEqualTo(Long.MAX_VALUE);
+        Assertions.assertThat(log.maxOutstandingDemand()).isEqualTo(Long.MAX_VALUE);
+        try {
+            UpstreamChecks.assertMaxOutstandingDemandAtMost(log, 128);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageContaining("unbounded");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+}
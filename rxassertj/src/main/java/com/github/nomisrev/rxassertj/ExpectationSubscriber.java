@@ -0,0 +1,63 @@
+package com.github.nomisrev.rxassertj;
+
+import com.github.nomisrev.rxassertj.core.Expectation;
+import rx.Subscriber;
+import rx.exceptions.Exceptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscriber that verifies the signals of one subscription against an {@link Expectation} while they arrive, without recording
+ * them. Create one per subscription with {@link RxAssertions#subscriberFor(Expectation)}, the expectation itself can be
+ * shared between any number of them.
+ * <pre>{@code
+ * ExpectationSubscriber<Integer> subscriber = RxAssertions.subscriberFor(expectation);
+ * source.subscribe(subscriber);
+ * subscriber.awaitSatisfied(5, TimeUnit.SECONDS);
+ * }</pre>
+ */
+public final class ExpectationSubscriber<T> extends Subscriber<T> {
+
+    private final Expectation.Verification<T> verification;
+
+    ExpectationSubscriber(final Expectation<T> expectation) {
+        this.verification = expectation.newVerification();
+    }
+
+    @Override
+    public void onNext(T value) {
+        verification.onNext(value);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        verification.onError(error);
+    }
+
+    @Override
+    public void onCompleted() {
+        verification.onComplete();
+    }
+
+    /**
+     * Throws an {@link AssertionError} if the signals received so far do not satisfy the expectation.
+     */
+    public void assertSatisfied() {
+        verification.assertSatisfied();
+    }
+
+    /**
+     * Waits for the source to terminate and verifies the expectation. Unsubscribes if the source did not terminate in time.
+     */
+    public void awaitSatisfied(long time, TimeUnit unit) {
+        try {
+            if (!verification.await(time, unit)) {
+                unsubscribe();
+            }
+        } catch (InterruptedException ex) {
+            unsubscribe();
+            throw Exceptions.propagate(ex);
+        }
+        verification.assertSatisfied();
+    }
+}
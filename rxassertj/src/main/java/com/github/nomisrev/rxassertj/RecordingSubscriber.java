@@ -0,0 +1,138 @@
+package com.github.nomisrev.rxassertj;
+
+import com.github.nomisrev.rxassertj.core.Recorder;
+import rx.Producer;
+import rx.Subscriber;
+import rx.observers.TestSubscriber;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscriber used by {@link RxAssertions} that feeds every value straight into a {@link Recorder}.
+ * <p>It shares its subscription list and producer with the {@link TestSubscriber} behind the assertion, which only
+ * receives the terminal event, so values are stored once while unsubscription and backpressure behave as before.
+ * <p>The producer of the source is handed on behind a {@link ReleasingProducer}, so the TestSubscriber does not keep the
+ * upstream reachable once the source terminated or was unsubscribed.
+ */
+final class RecordingSubscriber<T> extends Subscriber<T> {
+
+    private final Recorder<T> recorder;
+    private final TestSubscriber<T> subscriber;
+
+    private volatile WeakReference<Object> upstream;
+    private volatile String upstreamName;
+    private volatile ReleasingProducer producer;
+
+    RecordingSubscriber(final Recorder<T> recorder, final TestSubscriber<T> subscriber) {
+        super(subscriber);
+        this.recorder = recorder;
+        this.subscriber = subscriber;
+    }
+
+    Recorder<T> recorder() {
+        return recorder;
+    }
+
+    RxAssertions.TestSubscriberAssert<T> assertion() {
+        return assertion(null);
+    }
+
+    RxAssertions.TestSubscriberAssert<T> assertion(VirtualTime virtualTime) {
+        return new RxAssertions.TestSubscriberAssert<T>(subscriber, this, virtualTime);
+    }
+
+    /**
+     * Returns a weak reference to the producer received from the source, or null if the source did not set one.
+     */
+    WeakReference<Object> upstream() {
+        return upstream;
+    }
+
+    /**
+     * Returns the class name of the upstream, which stays available once it was collected.
+     */
+    String upstreamName() {
+        return upstreamName;
+    }
+
+    @Override
+    public void setProducer(Producer p) {
+        upstream = new WeakReference<Object>(p);
+        upstreamName = p.getClass().getName();
+        ReleasingProducer releasing = new ReleasingProducer(p);
+        producer = releasing;
+        super.setProducer(releasing);
+    }
+
+    private void release() {
+        ReleasingProducer p = producer;
+        if (p != null) {
+            p.actual = null;
+        }
+    }
+
+    /**
+     * Cancels the recording and unsubscribes, which also unsubscribes the TestSubscriber sharing the subscription list.
+     */
+    void stop() {
+        unsubscribe();
+        release();
+        recorder.cancel();
+    }
+
+    /**
+     * Blocks until the recording is done or the time elapses, in which case the recording is stopped.
+     */
+    void stopAfter(long time, TimeUnit unit) {
+        try {
+            if (!recorder.await(time, unit)) {
+                stop();
+            }
+        } catch (InterruptedException ex) {
+            stop();
+            throw new RuntimeException("Interrupted", ex);
+        }
+    }
+
+    @Override
+    public void onNext(T value) {
+        if (!recorder.onNext(value) && !recorder.isCancelled()) {
+            stop();
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        release();
+        recorder.onError(error);
+        subscriber.onError(error);
+    }
+
+    @Override
+    public void onCompleted() {
+        release();
+        recorder.onComplete();
+        subscriber.onCompleted();
+    }
+
+    /**
+     * Forwards requests to the producer of the source until it is released.
+     */
+    static final class ReleasingProducer implements Producer {
+
+        volatile Producer actual;
+
+        ReleasingProducer(final Producer actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            Producer p = actual;
+            if (p != null) {
+                p.request(n);
+            }
+        }
+    }
+}
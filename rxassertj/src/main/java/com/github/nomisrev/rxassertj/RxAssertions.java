@@ -1,15 +1,34 @@
 package com.github.nomisrev.rxassertj;
 
+import com.github.nomisrev.rxassertj.core.AbstractSingleSlotAssert;
+import com.github.nomisrev.rxassertj.core.AbstractSingleValueAssert;
+import com.github.nomisrev.rxassertj.core.AssertionCheck;
+import com.github.nomisrev.rxassertj.core.AssertionFuture;
+import com.github.nomisrev.rxassertj.core.Collectability;
+import com.github.nomisrev.rxassertj.core.EventLog;
+import com.github.nomisrev.rxassertj.core.EventLogChecks;
+import com.github.nomisrev.rxassertj.core.Expectation;
+import com.github.nomisrev.rxassertj.core.Recorder;
+import com.github.nomisrev.rxassertj.core.Recording;
+import com.github.nomisrev.rxassertj.core.SignalPattern;
+import com.github.nomisrev.rxassertj.core.SingleSlot;
+import com.github.nomisrev.rxassertj.core.StreamDigest;
+import com.github.nomisrev.rxassertj.core.UpstreamChecks;
 import org.assertj.core.api.*;
 
 import rx.Completable;
 import rx.Observable;
 import rx.Single;
 import rx.Subscriber;
+import rx.functions.Func0;
 import rx.observables.BlockingObservable;
 import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
 
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 public final class RxAssertions {
 
@@ -17,10 +36,14 @@ public final class RxAssertions {
         return new TestSubscriberAssert<T>(subscriber);
     }
 
+    public static UpstreamProbeAssert assertThat(final UpstreamProbe probe) {
+        return new UpstreamProbeAssert(probe);
+    }
+
     public static <T> TestSubscriberAssert<T> assertThatSubscriberTo(final Observable<T> observable) {
-        TestSubscriber<T> subscriber = new TestSubscriber<T>();
+        RecordingSubscriber<T> subscriber = new RecordingSubscriber<T>(new Recorder<T>(), new TestSubscriber<T>());
         observable.subscribe(subscriber);
-        return new TestSubscriberAssert<T>(subscriber);
+        return subscriber.assertion();
     }
 
     public static <T> TestSubscriberAssert<T> assertThat(final Observable<T> observable) {
@@ -28,41 +51,143 @@ public final class RxAssertions {
     }
 
     public static <T> TestSubscriberAssert<T> assertThatSubscriberTo(final BlockingObservable<T> observable) {
-        TestSubscriber<T> subscriber = new TestSubscriber<T>();
+        RecordingSubscriber<T> subscriber = new RecordingSubscriber<T>(new Recorder<T>(), new TestSubscriber<T>());
         observable.subscribe(subscriber);
-        return new TestSubscriberAssert<T>(subscriber);
+        return subscriber.assertion();
     }
 
     public static <T> TestSubscriberAssert<T> assertThat(final BlockingObservable<T> observable) {
         return assertThatSubscriberTo(observable);
     }
 
-    public static <T> TestSubscriberAssert<T> assertThatSubscriberTo(final Completable completable) {
-        TestSubscriber<T> subscriber = new TestSubscriber<T>();
+    /**
+     * Subscribes to the {@code Completable} with a subscriber that only keeps its terminal event.
+     */
+    public static CompletableAssert assertThatSubscriberTo(final Completable completable) {
+        SingleSlotSubscriber<Object> subscriber = new SingleSlotSubscriber<Object>();
         completable.subscribe(subscriber);
-        return new TestSubscriberAssert<T>(subscriber);
+        return new CompletableAssert(subscriber.slot());
     }
 
-    public static <T> TestSubscriberAssert<T> assertThat(final Completable completable) {
+    public static CompletableAssert assertThat(final Completable completable) {
         return assertThatSubscriberTo(completable);
     }
 
-    public static <T> TestSubscriberAssert<T> assertThatSubscriberTo(final Single<T> single) {
-        TestSubscriber<T> subscriber = new TestSubscriber<T>();
+    /**
+     * Subscribes to the {@code Single} with a subscriber that only keeps its value or error.
+     */
+    public static <T> SingleAssert<T> assertThatSubscriberTo(final Single<T> single) {
+        SingleSlotSubscriber<T> subscriber = new SingleSlotSubscriber<T>();
         single.subscribe(subscriber);
-        TestSubscriberAssert<T> testSubscriberAssert = new TestSubscriberAssert<T>(subscriber);
-        return testSubscriberAssert;
+        return new SingleAssert<T>(subscriber.slot());
     }
 
-    public static <T> TestSubscriberAssert<T> assertThat(final Single<T> single) {
+    public static <T> SingleAssert<T> assertThat(final Single<T> single) {
         return assertThatSubscriberTo(single);
     }
 
+    /**
+     * Subscribes to the {@code Observable}, recording its signals as described by the given recording, e.g. only keeping a
+     * sample of the values of a long running stream.
+     *
+     * @param recording describes what to record
+     */
+    public static <T> TestSubscriberAssert<T> assertThatSubscriberTo(final Observable<T> observable, final Recording<? super T> recording) {
+        RecordingSubscriber<T> subscriber = new RecordingSubscriber<T>(recording.<T>newRecorder(), new TestSubscriber<T>());
+        observable.subscribe(subscriber);
+        return subscriber.assertion();
+    }
+
+    /**
+     * Subscribes to the {@code Observable}, requests and records only its first {@code count} values, after which it
+     * unsubscribes. Use it on infinite or hot sources instead of adding a {@code take} to the pipeline under test.
+     *
+     * @param count the number of values to request and record, must be positive
+     * @see TestSubscriberAssert#respectsUnsubscription()
+     */
+    public static <T> TestSubscriberAssert<T> assertThatFirst(final int count, final Observable<T> observable) {
+        RecordingSubscriber<T> subscriber = new RecordingSubscriber<T>(new Recorder<T>(count), new TestSubscriber<T>(count));
+        observable.subscribe(subscriber);
+        return subscriber.assertion();
+    }
+
+    /**
+     * Subscribes to the {@code Observable} and records it until it terminates or the time elapses, after which it
+     * unsubscribes. Blocks the calling thread for at most the given time.
+     *
+     * @param time the recording time
+     * @param unit the time unit of the recording time
+     * @see TestSubscriberAssert#respectsUnsubscription()
+     */
+    public static <T> TestSubscriberAssert<T> assertThatWithin(final long time, final TimeUnit unit, final Observable<T> observable) {
+        RecordingSubscriber<T> subscriber = new RecordingSubscriber<T>(new Recorder<T>(), new TestSubscriber<T>());
+        observable.subscribe(subscriber);
+        subscriber.stopAfter(time, unit);
+        return subscriber.assertion();
+    }
+
+    /**
+     * Subscribes to the {@code Observable} created by the factory on virtual time. The computation, io and newThread schedulers
+     * are replaced by a fresh {@link TestScheduler} while the source is created and subscribed, and again during every
+     * {@link TestSubscriberAssert#advanceTimeBy(long, TimeUnit)} step.
+     *
+     * @param factory creates the {@code Observable} under test, called once with the virtual time schedulers installed
+     */
+    public static <T> TestSubscriberAssert<T> assertThatInVirtualTime(final Func0<? extends Observable<T>> factory) {
+        return assertThatInVirtualTime(factory, new TestScheduler());
+    }
+
+    /**
+     * Subscribes to the {@code Observable} created by the factory on virtual time driven by the given {@link TestScheduler}.
+     *
+     * @param factory   creates the {@code Observable} under test, called once with the virtual time schedulers installed
+     * @param scheduler the scheduler that replaces the computation, io and newThread schedulers
+     * @see #assertThatInVirtualTime(Func0)
+     */
+    public static <T> TestSubscriberAssert<T> assertThatInVirtualTime(final Func0<? extends Observable<T>> factory, final TestScheduler scheduler) {
+        final VirtualTime virtualTime = new VirtualTime(scheduler);
+        final RecordingSubscriber<T> subscriber = new RecordingSubscriber<T>(new Recorder<T>(), new TestSubscriber<T>());
+        virtualTime.call(new Func0<Void>() {
+            @Override
+            public Void call() {
+                factory.call().subscribe(subscriber);
+                return null;
+            }
+        });
+        return subscriber.assertion(virtualTime);
+    }
+
+    /**
+     * Returns a subscriber verifying a single subscription against the expectation while the signals arrive. The expectation
+     * is only built once and can back any number of subscribers, also concurrently.
+     *
+     * @param expectation the expected signals
+     * @see ExpectationSubscriber#awaitSatisfied(long, TimeUnit)
+     */
+    public static <T> ExpectationSubscriber<T> subscriberFor(final Expectation<T> expectation) {
+        return new ExpectationSubscriber<T>(expectation);
+    }
 
     public static class TestSubscriberAssert<T> extends AbstractObjectAssert<TestSubscriberAssert<T>, TestSubscriber<T>> {
 
+        protected final EventLog<T> log;
+        private final RecordingSubscriber<T> recording;
+        private final VirtualTime virtualTime;
+
         public TestSubscriberAssert(final TestSubscriber<T> actual) {
+            this(actual, new TestSubscriberLog<T>(actual), null, null);
+        }
+
+        TestSubscriberAssert(final TestSubscriber<T> actual, final RecordingSubscriber<T> recording, final VirtualTime virtualTime) {
+            this(actual, recording.recorder(), recording, virtualTime);
+        }
+
+        private TestSubscriberAssert(final TestSubscriber<T> actual, final EventLog<T> log, final RecordingSubscriber<T> recording,
+                                     final VirtualTime virtualTime) {
             super(actual, TestSubscriberAssert.class);
+            this.log = log;
+            this.recording = recording;
+            this.virtualTime = virtualTime;
         }
 
         /**
@@ -75,13 +200,28 @@ public final class RxAssertions {
             return this;
         }
 
+        /**
+         * Asserts that the source stopped signalling once it was unsubscribed, e.g. by {@link RxAssertions#assertThatFirst(int, Observable)}
+         * or {@link RxAssertions#assertThatWithin(long, TimeUnit, Observable)}.
+         * <p>Only available on assertions created through {@link RxAssertions}, as it relies on the signals being recorded.
+         *
+         * @throws AssertionError if any signal was received after unsubscribing
+         */
+        public TestSubscriberAssert<T> respectsUnsubscription() {
+            long lateSignals = recorder().lateSignals();
+            if (lateSignals != 0) {
+                throw EventLogChecks.fail(log, "Received " + lateSignals + " signal(s) after unsubscribing");
+            }
+            return this;
+        }
+
         /**
          * Asserts that there is exactly one completion event.
          *
          * @throws AssertionError if there were zero, or more than one, onCompleted events
          */
         public TestSubscriberAssert<T> isCompleted() {
-            actual.assertCompleted();
+            EventLogChecks.assertComplete(log);
             return this;
         }
 
@@ -100,7 +240,7 @@ public final class RxAssertions {
          * @throws AssertionError if there were one or more than one onCompleted events
          */
         public TestSubscriberAssert<T> isNotCompleted() {
-            actual.assertNotCompleted();
+            EventLogChecks.assertNotComplete(log);
             return this;
         }
 
@@ -108,7 +248,7 @@ public final class RxAssertions {
          * Asserts that a single terminal event occurred, either {@link Subscriber#onCompleted()} or {@link Subscriber#onError(Throwable)}
          */
         public final TestSubscriberAssert<T> isTerminated() {
-            actual.assertTerminalEvent();
+            EventLogChecks.assertTerminated(log);
             return this;
         }
 
@@ -116,7 +256,7 @@ public final class RxAssertions {
          * Asserts that there are no onError and onCompleted events.
          */
         public final TestSubscriberAssert<T> isNotTerminated() {
-            actual.assertNoTerminalEvent();
+            EventLogChecks.assertNotTerminated(log);
             return this;
         }
 
@@ -126,7 +266,7 @@ public final class RxAssertions {
          * @throws AssertionError if this {@code Subscriber} has received one or more {@code onError} notifications
          */
         public TestSubscriberAssert<T> hasNoErrors() {
-            actual.assertNoErrors();
+            EventLogChecks.assertNoErrors(log);
             return this;
         }
 
@@ -147,7 +287,7 @@ public final class RxAssertions {
          * @see #hasError(Class)
          */
         public final TestSubscriberAssert<T> hasError(Throwable error) {
-            actual.assertError(error);
+            EventLogChecks.assertError(log, error);
             return this;
         }
 
@@ -158,7 +298,7 @@ public final class RxAssertions {
          * @throws AssertionError if there were zero, or more than one, onError events, or if the single onError event did not carry an error of a subclass of the given class
          */
         public TestSubscriberAssert<T> hasError(final Class<? extends Throwable> clazz) {
-            actual.assertError(clazz);
+            EventLogChecks.assertError(log, clazz);
             return this;
         }
 
@@ -168,8 +308,7 @@ public final class RxAssertions {
          * @return an AssertJ assertion class to preform assertions on the error message.
          */
         public final AbstractCharSequenceAssert<?, String> hasErrorMessageThat() {
-            Assertions.assertThat(this.actual.getOnErrorEvents().get(0)).isNotNull();
-            return Assertions.assertThat(this.actual.getOnErrorEvents().get(0).getMessage());
+            return Assertions.assertThat(EventLogChecks.singleError(log).getMessage());
         }
 
         /**
@@ -178,7 +317,7 @@ public final class RxAssertions {
          * @return an AssertJ assertion class to preform assertions on the error.
          */
         public final AbstractThrowableAssert hasErrorThat() {
-            return Assertions.assertThat(this.actual.getOnErrorEvents().get(0)).isNotNull();
+            return Assertions.assertThat(EventLogChecks.singleError(log));
         }
 
         /**
@@ -187,8 +326,7 @@ public final class RxAssertions {
          * @param value the value to expect
          */
         public final TestSubscriberAssert<T> hasSingleValue(T value) {
-            actual.assertValue(value);
-            actual.assertValueCount(1);
+            EventLogChecks.assertValues(log, value);
             return this;
         }
 
@@ -198,7 +336,7 @@ public final class RxAssertions {
          * @param values the expected values to be contained in the stream.
          */
         public final TestSubscriberAssert<T> contains(T... values) {
-            Assertions.assertThat(actual.getOnNextEvents()).contains(values);
+            EventLogChecks.assertContains(log, values);
             return this;
         }
 
@@ -208,7 +346,7 @@ public final class RxAssertions {
          * @param values the expected values to be not contained in the stream.
          */
         public final TestSubscriberAssert<T> doesNotContain(T... values) {
-            Assertions.assertThat(actual.getOnNextEvents()).doesNotContain(values);
+            EventLogChecks.assertDoesNotContain(log, values);
             return this;
         }
 
@@ -220,12 +358,12 @@ public final class RxAssertions {
          * @param value the value that should be received in the onNext value on the given index
          */
         public final TestSubscriberAssert<T> hasValueAt(int index, T value) {
-            Assertions.assertThat(actual.getOnNextEvents().get(index)).isEqualTo(value);
+            EventLogChecks.assertValueAt(log, index, value);
             return this;
         }
 
         public TestSubscriberAssert<T> hasValueCount(final int count) {
-            actual.assertValueCount(count);
+            EventLogChecks.assertValueCount(log, count);
             return this;
         }
 
@@ -236,7 +374,7 @@ public final class RxAssertions {
          * @throws AssertionError if the items emitted do not exactly match those specified by {@code values}
          */
         public TestSubscriberAssert<T> hasValues(final T... values) {
-            actual.assertValues(values);
+            EventLogChecks.assertValues(log, values);
             return this;
         }
 
@@ -246,7 +384,7 @@ public final class RxAssertions {
          * @throws AssertionError if there were any onNext events
          */
         public TestSubscriberAssert<T> hasNoValues() {
-            actual.assertNoValues();
+            EventLogChecks.assertValueCount(log, 0);
             return this;
         }
 
@@ -268,17 +406,281 @@ public final class RxAssertions {
          * @throws RuntimeException wrapping an InterruptedException if the wait is interrupted
          */
         public final TestSubscriberAssert<T> awaitDone(long time, TimeUnit unit) {
-            actual.awaitTerminalEvent(time, unit);
+            try {
+                log.await(time, unit);
+            } catch (InterruptedException ex) {
+                throw new RuntimeException("Interrupted", ex);
+            }
+            return this;
+        }
+
+        /**
+         * Runs the assertions once the source terminated or the recording was stopped, without blocking the calling thread.
+         * They run on the thread that ended the recording, or right away if it already ended.
+         * <p>Only available on assertions created through {@link RxAssertions}, as it relies on the signals being recorded.
+         *
+         * @param assertions the assertions to run against this assertion
+         * @return a future failing with the {@link AssertionError} of the assertions
+         */
+        public final Future<Void> whenDone(final AssertionCheck<? super TestSubscriberAssert<T>> assertions) {
+            return AssertionFuture.whenDone(recorder(), this, assertions);
+        }
+
+        /**
+         * Returns a future completing once the source terminated or the recording was stopped, without blocking the calling
+         * thread.
+         *
+         * @see #whenDone(AssertionCheck)
+         */
+        public final Future<Void> toFuture() {
+            return AssertionFuture.whenDone(recorder(), this, null);
+        }
+
+        /**
+         * Asserts that every gap between two consecutive values is shorter than the given time.
+         * <p>Needs the subscription to be recorded with {@link Recording#withArrivalTimes()}.
+         *
+         * @param time the exclusive upper bound
+         * @param unit the unit of the time
+         */
+        public TestSubscriberAssert<T> hasMaxGapBelow(long time, TimeUnit unit) {
+            EventLogChecks.assertMaxGapBelow(recorder(), time, unit);
+            return this;
+        }
+
+        /**
+         * Asserts that the jitter, the 99th minus the 50th percentile of the gaps between consecutive values, is below the
+         * given time.
+         *
+         * @param time the exclusive upper bound
+         * @param unit the unit of the time
+         * @see #hasMaxGapBelow(long, TimeUnit)
+         */
+        public TestSubscriberAssert<T> hasJitterBelow(long time, TimeUnit unit) {
+            EventLogChecks.assertJitterBelow(recorder(), time, unit);
+            return this;
+        }
+
+        /**
+         * Asserts that no signal took longer than the given time to arrive, including the first value after subscribing and
+         * the terminal event after the last value. An unfinished stream is measured up to now.
+         *
+         * @param time the inclusive upper bound
+         * @param unit the unit of the time
+         * @see #hasMaxGapBelow(long, TimeUnit)
+         */
+        public TestSubscriberAssert<T> hasNoStallLongerThan(long time, TimeUnit unit) {
+            EventLogChecks.assertNoStallLongerThan(recorder(), time, unit);
+            return this;
+        }
+
+        /**
+         * Asserts that every signal was delivered on a thread whose name matches the given regular expression, e.g.
+         * {@code "RxComputationScheduler-\\d+"}.
+         * <p>Only available on assertions created through {@link RxAssertions}, as it relies on the signals being recorded.
+         *
+         * @param pattern the regular expression the thread names need to match
+         */
+        public TestSubscriberAssert<T> deliversOnThreadMatching(String pattern) {
+            EventLogChecks.assertDeliveredOnThreadsMatching(recorder(), Pattern.compile(pattern));
+            return this;
+        }
+
+        /**
+         * Asserts that the signals were delivered on at most the given number of distinct threads.
+         *
+         * @param count the maximum number of threads
+         * @see #deliversOnThreadMatching(String)
+         */
+        public TestSubscriberAssert<T> usesAtMostThreads(int count) {
+            EventLogChecks.assertAtMostThreads(recorder(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that a signal was delivered on another thread than the signal before it at most the given number of
+         * times.
+         *
+         * @param count the maximum number of thread hops
+         * @see #deliversOnThreadMatching(String)
+         */
+        public TestSubscriberAssert<T> hasAtMostThreadHops(long count) {
+            EventLogChecks.assertAtMostThreadHops(recorder(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that no signal started while another one was still being delivered. Only available on assertions
+         * subscribed with {@link Recording#concurrent()}.
+         *
+         * @see #hasConcurrentOnNextCount(long)
+         */
+        public TestSubscriberAssert<T> isSerialized() {
+            EventLogChecks.assertSerialized(recorder());
+            return this;
+        }
+
+        /**
+         * Asserts that exactly {@code count} onNext signals started while another signal was still being delivered.
+         *
+         * @param count the expected number of overlapping onNext signals
+         */
+        public TestSubscriberAssert<T> hasConcurrentOnNextCount(long count) {
+            EventLogChecks.assertOverlappingValues(recorder(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that the signals match the pattern. Walks the recorded values, which must all be retained, unless the
+         * subscription was recorded with {@link Recording#matching(SignalPattern)} for the same pattern.
+         *
+         * @param pattern the compiled pattern
+         */
+        public TestSubscriberAssert<T> matchesPattern(SignalPattern<T> pattern) {
+            EventLogChecks.assertMatchesPattern(recorder(), pattern);
+            return this;
+        }
+
+        /**
+         * Asserts that the ordered digest of the values equals the expected one. Compared in constant memory when the
+         * subscription was recorded with {@link Recording#withDigest(StreamDigest.Hasher)} for the same hasher, otherwise
+         * every value must be retained.
+         *
+         * @param expected the expected {@link StreamDigest#ordered()} digest
+         * @param hasher   hashes each value
+         */
+        public TestSubscriberAssert<T> hasSameDigestAs(long expected, StreamDigest.Hasher<? super T> hasher) {
+            EventLogChecks.assertOrderedDigest(recorder(), expected, hasher);
+            return this;
+        }
+
+        /**
+         * Asserts that the unordered digest of the values equals the expected one.
+         *
+         * @param expected the expected {@link StreamDigest#unordered()} digest
+         * @param hasher   hashes each value
+         */
+        public TestSubscriberAssert<T> hasSameUnorderedDigestAs(long expected, StreamDigest.Hasher<? super T> hasher) {
+            EventLogChecks.assertUnorderedDigest(recorder(), expected, hasher);
+            return this;
+        }
+
+        /**
+         * Asserts that the values have the same ordered digest and count as the reference sequence, iterated once.
+         *
+         * @param reference the expected values
+         * @param hasher    hashes each value
+         */
+        public TestSubscriberAssert<T> emitsSequenceWithDigest(Iterable<? extends T> reference, StreamDigest.Hasher<? super T> hasher) {
+            EventLogChecks.assertSequenceDigest(recorder(), reference, hasher);
             return this;
         }
 
+        /**
+         * Returns the digests of the values, to be kept as reference.
+         */
+        public StreamDigest<T> digest(StreamDigest.Hasher<? super T> hasher) {
+            return EventLogChecks.digest(recorder(), hasher);
+        }
+
+        /**
+         * Asserts that the pipeline released its upstream once it terminated or was unsubscribed: the producer received from
+         * the source is garbage collected within {@link Collectability#ATTEMPTS} collections. Passes for sources that set no
+         * producer, as there is no upstream reference to release.
+         * <p>Only available on assertions created through {@link RxAssertions}, as it relies on the signals being recorded.
+         */
+        public TestSubscriberAssert<T> releasesUpstreamAfterTermination() {
+            RecordingSubscriber<T> recording = requireRecording();
+            if (!log.isTerminated() && !recording.recorder().isCancelled()) {
+                throw EventLogChecks.fail(log, "Expected the source to be terminated or unsubscribed before checking its release");
+            }
+            WeakReference<Object> upstream = recording.upstream();
+            if (upstream != null && !Collectability.isCollected(upstream)) {
+                throw EventLogChecks.fail(log, "Expected the upstream to be released after termination but " + recording.upstreamName()
+                        + " is still reachable after " + Collectability.ATTEMPTS + " garbage collections");
+            }
+            return this;
+        }
+
+        /**
+         * Unsubscribes and asserts that the weakly referenced object is garbage collected within
+         * {@link Collectability#ATTEMPTS} collections, e.g. a listener captured by an operator of the pipeline.
+         * <p>Pass a {@link WeakReference} and drop every strong reference to the object before, as a reference held by the
+         * test itself keeps it reachable.
+         *
+         * @param referent a weak reference to the object that should be released
+         */
+        public TestSubscriberAssert<T> isCollectableAfterDispose(WeakReference<?> referent) {
+            requireRecording().stop();
+            if (!Collectability.isCollected(referent)) {
+                throw EventLogChecks.fail(log, "Expected the referent to be collected after unsubscribing but it is still reachable after "
+                        + Collectability.ATTEMPTS + " garbage collections");
+            }
+            return this;
+        }
+
+        /**
+         * Moves the virtual clock forward by the given amount of time, running every action scheduled up to that point.
+         * <p>Only available on assertions created through {@link RxAssertions#assertThatInVirtualTime(Func0)}.
+         *
+         * @param delayTime the amount of time to move the clock forward
+         * @param unit      the time unit of the delay
+         */
+        public TestSubscriberAssert<T> advanceTimeBy(long delayTime, TimeUnit unit) {
+            requireVirtualTime().advanceTimeBy(delayTime, unit);
+            return this;
+        }
+
+        /**
+         * Moves the virtual clock to the given point in time, running every action scheduled up to that point.
+         * <p>Only available on assertions created through {@link RxAssertions#assertThatInVirtualTime(Func0)}.
+         *
+         * @param delayTime the point in time to move the clock to
+         * @param unit      the time unit of the point in time
+         */
+        public TestSubscriberAssert<T> advanceTimeTo(long delayTime, TimeUnit unit) {
+            requireVirtualTime().advanceTimeTo(delayTime, unit);
+            return this;
+        }
+
+        /**
+         * Runs every action that is due at the current virtual time, without moving the clock.
+         * <p>Only available on assertions created through {@link RxAssertions#assertThatInVirtualTime(Func0)}.
+         */
+        public TestSubscriberAssert<T> triggerActions() {
+            requireVirtualTime().triggerActions();
+            return this;
+        }
+
+        private RecordingSubscriber<T> requireRecording() {
+            if (recording == null) {
+                failWithMessage("Expected the signals to be recorded by RxAssertions, subscribe through assertThatSubscriberTo instead of assertThat(TestSubscriber)");
+            }
+            return recording;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Recorder<T> recorder() {
+            if (!(log instanceof Recorder)) {
+                failWithMessage("Expected the signals to be recorded by RxAssertions, subscribe through assertThatSubscriberTo instead of assertThat(TestSubscriber)");
+            }
+            return (Recorder<T>) log;
+        }
+
+        private VirtualTime requireVirtualTime() {
+            if (virtualTime == null) {
+                failWithMessage("Expected a subscription running on virtual time, use RxAssertions.assertThatInVirtualTime to create one");
+            }
+            return virtualTime;
+        }
+
         /**
          * Assert that all emitted items meet a {@link Condition}.
          *
          * @param condition the AssertJ {@link Condition} to check
          */
         public TestSubscriberAssert<T> eachItemMatches(final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).are(condition);
+            EventLogChecks.assertEach(log, condition);
             return this;
         }
 
@@ -288,7 +690,7 @@ public final class RxAssertions {
          * @param condition the AssertJ {@link Condition} to check
          */
         public TestSubscriberAssert<T> noItemMatches(final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).areNot(condition);
+            EventLogChecks.assertNone(log, condition);
             return this;
         }
 
@@ -298,7 +700,7 @@ public final class RxAssertions {
          * @param condition the AssertJ {@link Condition} to check
          */
         public TestSubscriberAssert<T> atLeastOneItemMatches(final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).areAtLeastOne(condition);
+            EventLogChecks.assertAtLeast(log, 1, condition);
             return this;
         }
 
@@ -309,7 +711,7 @@ public final class RxAssertions {
          * @param condition the AssertJ {@link Condition} to check
          */
         public final TestSubscriberAssert<T> haveAtLeast(final int times, final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).haveAtLeast(times, condition);
+            EventLogChecks.assertAtLeast(log, times, condition);
             return this;
         }
 
@@ -320,7 +722,7 @@ public final class RxAssertions {
          * @param condition the AssertJ {@link Condition} to check
          */
         public TestSubscriberAssert<T> areAtLeast(final int times, final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).areAtLeast(times, condition);
+            EventLogChecks.assertAtLeast(log, times, condition);
             return this;
         }
 
@@ -331,7 +733,7 @@ public final class RxAssertions {
          * @param condition the AssertJ {@link Condition} to check
          */
         public final TestSubscriberAssert<T> haveAtMost(final int times, final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).haveAtMost(times, condition);
+            EventLogChecks.assertAtMost(log, times, condition);
             return this;
         }
 
@@ -342,7 +744,7 @@ public final class RxAssertions {
          * @param condition the AssertJ {@link Condition} to check
          */
         public TestSubscriberAssert<T> areAtMost(final int times, final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).areAtMost(times, condition);
+            EventLogChecks.assertAtMost(log, times, condition);
             return this;
         }
 
@@ -353,7 +755,7 @@ public final class RxAssertions {
          * @param condition the AssertJ {@link Condition} to check
          */
         public final TestSubscriberAssert<T> haveExactly(final int times, final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).haveExactly(times, condition);
+            EventLogChecks.assertExactly(log, times, condition);
             return this;
         }
 
@@ -364,11 +766,149 @@ public final class RxAssertions {
          * @param condition the AssertJ {@link Condition} to check
          */
         public TestSubscriberAssert<T> areExactly(final int times, final Condition<? super T> condition) {
-            Assertions.assertThat(actual.getOnNextEvents()).areExactly(times, condition);
+            EventLogChecks.assertExactly(log, times, condition);
             return this;
         }
     }
 
+    public static class SingleAssert<T> extends AbstractSingleValueAssert<SingleAssert<T>, T> {
+
+        public SingleAssert(final SingleSlot<T> actual) {
+            super(actual, SingleAssert.class);
+        }
+
+        /**
+         * Assert that the {@code Single} succeeded with a value satisfying the condition.
+         *
+         * @param condition the condition the value has to satisfy
+         */
+        public SingleAssert<T> hasSingleValueSatisfying(Condition<? super T> condition) {
+            EventLogChecks.assertValueCount(actual, 1);
+            Assertions.assertThat(actual.valueAt(0)).is(condition);
+            return this;
+        }
+
+        /**
+         * Assert that the {@code Single} succeeded exactly once.
+         */
+        public SingleAssert<T> isCompleted() {
+            return isComplete();
+        }
+
+        /**
+         * Asserts that the subscriber is unsubscribed, which it is once the {@code Single} terminated or was unsubscribed from.
+         *
+         * @throws AssertionError if the subscriber is not unsubscribed
+         */
+        public SingleAssert<T> isUnsubscribed() {
+            assertUnsubscribed(actual);
+            return this;
+        }
+    }
+
+    public static class CompletableAssert extends AbstractSingleSlotAssert<CompletableAssert, Object> {
+
+        public CompletableAssert(final SingleSlot<Object> actual) {
+            super(actual, CompletableAssert.class);
+        }
+
+        /**
+         * Assert that the {@code Completable} completed exactly once.
+         */
+        public CompletableAssert isCompleted() {
+            return isComplete();
+        }
+
+        /**
+         * Assert that the {@code Completable} did not complete.
+         */
+        public CompletableAssert isNotCompleted() {
+            return isNotComplete();
+        }
+
+        /**
+         * Asserts that the subscriber is unsubscribed, which it is once the {@code Completable} terminated or was
+         * unsubscribed from.
+         *
+         * @throws AssertionError if the subscriber is not unsubscribed
+         */
+        public CompletableAssert isUnsubscribed() {
+            assertUnsubscribed(actual);
+            return this;
+        }
+    }
+
+    /**
+     * Like a {@code TestSubscriber}, which is unsubscribed by the {@code SafeSubscriber} wrapping it once the source
+     * terminated, the slot is unsubscribed after its terminal event.
+     */
+    private static void assertUnsubscribed(final SingleSlot<?> slot) {
+        if (!slot.isCancelled() && !slot.isTerminated()) {
+            throw EventLogChecks.fail(slot, "Not unsubscribed");
+        }
+    }
+
+    public static class UpstreamProbeAssert extends AbstractObjectAssert<UpstreamProbeAssert, UpstreamProbe> {
+
+        public UpstreamProbeAssert(final UpstreamProbe actual) {
+            super(actual, UpstreamProbeAssert.class);
+        }
+
+        /**
+         * Asserts that the probed source was subscribed to exactly the given number of times, counting re-subscriptions
+         * such as those of {@code retry} or {@code repeat}. A source shared through {@code cache()} or {@code share()} is
+         * subscribed to once however many consumers there are.
+         *
+         * @param count the expected number of subscriptions
+         */
+        public UpstreamProbeAssert subscribedUpstreamExactly(long count) {
+            UpstreamChecks.assertSubscriptions(actual.log(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that the probed source was subscribed to at most the given number of times.
+         *
+         * @param count the maximum number of subscriptions
+         * @see #subscribedUpstreamExactly(long)
+         */
+        public UpstreamProbeAssert subscribedUpstreamAtMost(long count) {
+            UpstreamChecks.assertSubscriptionsAtMost(actual.log(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that no request for {@code Long.MAX_VALUE} items reached the probed source, which would turn its
+         * backpressure off.
+         */
+        public UpstreamProbeAssert neverRequestsUnbounded() {
+            UpstreamChecks.assertNoUnboundedRequests(actual.log());
+            return this;
+        }
+
+        /**
+         * Asserts that the items requested from the probed source but not yet delivered never exceeded the given number,
+         * for any one subscription. This bounds what the source may buffer for the pipeline.
+         *
+         * @param count the maximum outstanding demand
+         */
+        public UpstreamProbeAssert maxOutstandingDemandAtMost(long count) {
+            UpstreamChecks.assertMaxOutstandingDemandAtMost(actual.log(), count);
+            return this;
+        }
+
+        /**
+         * Asserts that the probed source was requested from, and never for more than the given number of items at once,
+         * e.g. {@code requestBatchesOf(128)} for an {@code observeOn} with the default prefetch, which replenishes in
+         * smaller batches after its first request.
+         *
+         * @param count the largest allowed request
+         */
+        public UpstreamProbeAssert requestBatchesOf(long count) {
+            UpstreamChecks.assertRequestBatchesAtMost(actual.log(), count);
+            return this;
+        }
+    }
 
     private RxAssertions() {
         throw new AssertionError();
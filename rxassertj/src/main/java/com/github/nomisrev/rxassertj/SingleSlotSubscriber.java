@@ -0,0 +1,49 @@
+package com.github.nomisrev.rxassertj;
+
+import com.github.nomisrev.rxassertj.core.SingleSlot;
+import rx.CompletableSubscriber;
+import rx.SingleSubscriber;
+import rx.Subscription;
+
+/**
+ * Subscriber used by {@link RxAssertions} for a {@code Single} or {@code Completable}, only keeping the signals in a
+ * {@link SingleSlot} instead of the lists of a {@code TestSubscriber}.
+ */
+final class SingleSlotSubscriber<T> extends SingleSubscriber<T> implements CompletableSubscriber {
+
+    private final SingleSlot<T> slot = new SingleSlot<T>() {
+        @Override
+        public boolean isCancelled() {
+            return isUnsubscribed();
+        }
+
+        @Override
+        public void cancel() {
+            unsubscribe();
+        }
+    };
+
+    SingleSlot<T> slot() {
+        return slot;
+    }
+
+    @Override
+    public void onSuccess(T value) {
+        slot.onSuccess(value);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        slot.onError(error);
+    }
+
+    @Override
+    public void onCompleted() {
+        slot.onComplete();
+    }
+
+    @Override
+    public void onSubscribe(Subscription d) {
+        add(d);
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.nomisrev.rxassertj;
+
+import com.github.nomisrev.rxassertj.core.EventLog;
+import rx.observers.TestSubscriber;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EventLog} view over the lists of a {@link TestSubscriber} that was subscribed by the caller.
+ */
+final class TestSubscriberLog<T> implements EventLog<T> {
+
+    private final TestSubscriber<T> subscriber;
+
+    TestSubscriberLog(final TestSubscriber<T> subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    @Override
+    public long valueCount() {
+        return subscriber.getValueCount();
+    }
+
+    @Override
+    public T valueAt(int index) {
+        return subscriber.getOnNextEvents().get(index);
+    }
+
+    @Override
+    public List<T> values() {
+        return subscriber.getOnNextEvents();
+    }
+
+    @Override
+    public List<Throwable> errors() {
+        return subscriber.getOnErrorEvents();
+    }
+
+    @Override
+    public long completions() {
+        return subscriber.getCompletions();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return subscriber.getCompletions() != 0 || !subscriber.getOnErrorEvents().isEmpty();
+    }
+
+    @Override
+    public boolean await(long time, TimeUnit unit) {
+        subscriber.awaitTerminalEvent(time, unit);
+        return isTerminated();
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.nomisrev.rxassertj;
+
+import com.github.nomisrev.rxassertj.core.UpstreamLog;
+import rx.Completable;
+import rx.Observable;
+import rx.Single;
+import rx.functions.Action1;
+import rx.functions.Func0;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Wraps a source to count what reaches it from the pipeline built on top of it, checked with
+ * {@link RxAssertions#assertThat(UpstreamProbe)}.
+ * <pre>{@code
+ * UpstreamProbe probe = new UpstreamProbe();
+ * Observable<User> user = repository.user(probe.wrap(api.fetchUser()));
+ * assertThatSubscriberTo(user.concatWith(user)).isCompleted();
+ * assertThat(probe).subscribedUpstreamExactly(1);
+ * }</pre>
+ */
+public final class UpstreamProbe {
+
+    private final UpstreamLog log = new UpstreamLog();
+
+    public UpstreamLog log() {
+        return log;
+    }
+
+    /**
+     * Wraps the {@code Observable}, also counting the requests that reach it and the values it delivers.
+     */
+    public <T> Observable<T> wrap(final Observable<T> source) {
+        return Observable.defer(new Func0<Observable<T>>() {
+            @Override
+            public Observable<T> call() {
+                final UpstreamLog.Demand demand = log.onSubscribe();
+                return source
+                        .doOnNext(new Action1<T>() {
+                            @Override
+                            public void call(T value) {
+                                demand.onDeliver();
+                            }
+                        })
+                        .doOnRequest(new Action1<Long>() {
+                            @Override
+                            public void call(Long n) {
+                                demand.onRequest(n);
+                            }
+                        });
+            }
+        });
+    }
+
+    public <T> Single<T> wrap(final Single<T> source) {
+        return Single.defer(new Callable<Single<T>>() {
+            @Override
+            public Single<T> call() {
+                log.onSubscribe();
+                return source;
+            }
+        });
+    }
+
+    public Completable wrap(final Completable source) {
+        return Completable.defer(new Func0<Completable>() {
+            @Override
+            public Completable call() {
+                log.onSubscribe();
+                return source;
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.nomisrev.rxassertj;
+
+import rx.Scheduler;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.plugins.RxJavaHooks;
+import rx.schedulers.TestScheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes the computation, io and newThread schedulers to a single {@link TestScheduler} through {@link RxJavaHooks}.
+ * <p>The hooks are only installed while assembling/subscribing the source and while advancing the clock, so schedulers
+ * that are resolved lazily (e.g. inside a {@code flatMap}) still end up on virtual time, without leaking the hooks into
+ * other tests.
+ */
+final class VirtualTime {
+
+    private final TestScheduler scheduler;
+
+    private final Func1<Scheduler, Scheduler> hook = new Func1<Scheduler, Scheduler>() {
+        @Override
+        public Scheduler call(Scheduler ignored) {
+            return scheduler;
+        }
+    };
+
+    VirtualTime(final TestScheduler scheduler) {
+        if (scheduler == null) {
+            throw new NullPointerException("scheduler is null");
+        }
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Runs the given action with the virtual time hooks installed, restoring the previous hooks afterwards.
+     */
+    <R> R call(final Func0<R> action) {
+        if (RxJavaHooks.isLockdown()) {
+            throw new IllegalStateException("RxJavaHooks are locked down, virtual time can not be installed");
+        }
+        Func1<Scheduler, Scheduler> computation = RxJavaHooks.getOnComputationScheduler();
+        Func1<Scheduler, Scheduler> io = RxJavaHooks.getOnIOScheduler();
+        Func1<Scheduler, Scheduler> newThread = RxJavaHooks.getOnNewThreadScheduler();
+        RxJavaHooks.setOnComputationScheduler(hook);
+        RxJavaHooks.setOnIOScheduler(hook);
+        RxJavaHooks.setOnNewThreadScheduler(hook);
+        try {
+            return action.call();
+        } finally {
+            RxJavaHooks.setOnComputationScheduler(computation);
+            RxJavaHooks.setOnIOScheduler(io);
+            RxJavaHooks.setOnNewThreadScheduler(newThread);
+        }
+    }
+
+    void advanceTimeBy(final long delayTime, final TimeUnit unit) {
+        call(new Func0<Void>() {
+            @Override
+            public Void call() {
+                scheduler.advanceTimeBy(delayTime, unit);
+                return null;
+            }
+        });
+    }
+
+    void advanceTimeTo(final long delayTime, final TimeUnit unit) {
+        call(new Func0<Void>() {
+            @Override
+            public Void call() {
+                scheduler.advanceTimeTo(delayTime, unit);
+                return null;
+            }
+        });
+    }
+
+    void triggerActions() {
+        call(new Func0<Void>() {
+            @Override
+            public Void call() {
+                scheduler.triggerActions();
+                return null;
+            }
+        });
+    }
+}
@@ -1,5 +1,12 @@
 package com.github.nomisrev.rxassertj;
 
+import com.github.nomisrev.rxassertj.core.AssertionCheck;
+import com.github.nomisrev.rxassertj.core.BulkAssertions;
+import com.github.nomisrev.rxassertj.core.Expectation;
+import com.github.nomisrev.rxassertj.core.Recording;
+import com.github.nomisrev.rxassertj.core.Retention;
+import com.github.nomisrev.rxassertj.core.SignalPattern;
+import com.github.nomisrev.rxassertj.core.StreamDigest;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.Condition;
 import org.assertj.core.api.exception.RuntimeIOException;
@@ -8,11 +15,22 @@ import org.junit.Test;
 import rx.Completable;
 import rx.Observable;
 import rx.Single;
+import rx.Subscriber;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static com.github.nomisrev.rxassertj.RxAssertions.assertThatSubscriberTo;
@@ -270,6 +288,403 @@ public class RxAssertionsTests {
                 .isCompleted();
     }
 
+    @Test
+    public void firstShouldUnsubscribeFromInfiniteObservableOnceQuotaIsMet() {
+        RxAssertions.assertThatFirst(3, Observable.interval(1, TimeUnit.MILLISECONDS))
+                .awaitDone(1, TimeUnit.SECONDS)
+                .hasValues(0L, 1L, 2L)
+                .isNotTerminated()
+                .isUnsubscribed()
+                .respectsUnsubscription();
+    }
+
+    @Test
+    public void firstShouldUnsubscribeFromHotObservableOnceQuotaIsMet() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        RxAssertions.TestSubscriberAssert<Integer> assertion = RxAssertions.assertThatFirst(2, subject);
+        subject.onNext(1);
+        subject.onNext(2);
+        subject.onNext(3);
+        assertion.hasValues(1, 2)
+                .isUnsubscribed()
+                .respectsUnsubscription();
+        Assertions.assertThat(subject.hasObservers()).isFalse();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void sourceIgnoringUnsubscriptionShouldFailRespectsUnsubscription() {
+        RxAssertions.assertThatFirst(1, Observable.unsafeCreate(new Observable.OnSubscribe<Integer>() {
+            @Override
+            public void call(Subscriber<? super Integer> subscriber) {
+                subscriber.onNext(1);
+                subscriber.onNext(2);
+                subscriber.onCompleted();
+            }
+        }))
+                .hasValues(1)
+                .respectsUnsubscription();
+    }
+
+    @Test
+    public void withinShouldUnsubscribeFromSourceThatDoesNotTerminateInTime() {
+        RxAssertions.assertThatWithin(50, TimeUnit.MILLISECONDS, Observable.never())
+                .hasNoValues()
+                .isNotTerminated()
+                .isUnsubscribed()
+                .respectsUnsubscription();
+    }
+
+    @Test
+    public void withinShouldRecordSourceThatTerminatesInTime() {
+        RxAssertions.assertThatWithin(1, TimeUnit.SECONDS, Observable.just(1).delay(10, TimeUnit.MILLISECONDS))
+                .hasValues(1)
+                .isCompleted();
+    }
+
+    @Test(expected = AssertionError.class)
+    public void respectsUnsubscriptionShouldFailWithoutRecording() {
+        RxAssertions.assertThat(new TestSubscriber<Integer>())
+                .respectsUnsubscription();
+    }
+
+    @Test
+    public void arrivalTimesShouldPassForSteadySource() {
+        RxAssertions.assertThatSubscriberTo(Observable.interval(1, TimeUnit.MILLISECONDS).take(20), Recording.defaults().withArrivalTimes())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(20)
+                .hasMaxGapBelow(1, TimeUnit.SECONDS)
+                .hasJitterBelow(1, TimeUnit.SECONDS)
+                .hasNoStallLongerThan(1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void maxGapCheckShouldFailOnStall() {
+        Observable<Integer> stalling = Observable.just(1, 2).concatWith(Observable.just(3).delay(100, TimeUnit.MILLISECONDS));
+        RxAssertions.assertThatSubscriberTo(stalling, Recording.defaults().withArrivalTimes())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(3)
+                .hasMaxGapBelow(50, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void arrivalTimeChecksShouldFailWithoutArrivalTimeRecording() {
+        assertThatSubscriberTo(Observable.just(1, 2))
+                .hasMaxGapBelow(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void observeOnShouldDeliverOnOneComputationThread() {
+        assertThatSubscriberTo(Observable.range(0, 100).observeOn(Schedulers.computation()))
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(100)
+                .deliversOnThreadMatching("RxComputationScheduler-\\d+")
+                .usesAtMostThreads(1)
+                .hasAtMostThreadHops(0);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void threadHopCheckShouldFailWhenDeliveryMovesThreads() {
+        Observable<Integer> hopping = Observable.just(1).concatWith(Observable.just(2).subscribeOn(Schedulers.io()));
+        assertThatSubscriberTo(hopping)
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValues(1, 2)
+                .hasAtMostThreadHops(0);
+    }
+
+    @Test
+    public void probeShouldCountEverySubscription() {
+        UpstreamProbe probe = new UpstreamProbe();
+        Observable<Integer> call = probe.wrap(Observable.just(1));
+        assertThatSubscriberTo(call.concatWith(call))
+                .hasValues(1, 1);
+        RxAssertions.assertThat(probe)
+                .subscribedUpstreamExactly(2);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void probeShouldCountRepeats() {
+        UpstreamProbe probe = new UpstreamProbe();
+        assertThatSubscriberTo(probe.wrap(Single.just(1)).toObservable().repeat(3))
+                .hasValueCount(3);
+        RxAssertions.assertThat(probe)
+                .subscribedUpstreamAtMost(1);
+    }
+
+    @Test
+    public void probeShouldAccountDemandBehindObserveOn() {
+        UpstreamProbe probe = new UpstreamProbe();
+        assertThatSubscriberTo(probe.wrap(Observable.range(0, 1000)).observeOn(Schedulers.computation()))
+                .awaitDone(5, TimeUnit.SECONDS)
+                .hasValueCount(1000);
+        RxAssertions.assertThat(probe)
+                .neverRequestsUnbounded()
+                .requestBatchesOf(128)
+                .maxOutstandingDemandAtMost(128);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void probeShouldDetectUnboundedRequest() {
+        UpstreamProbe probe = new UpstreamProbe();
+        assertThatSubscriberTo(probe.wrap(Observable.range(0, 10)))
+                .hasValueCount(10);
+        RxAssertions.assertThat(probe)
+                .neverRequestsUnbounded();
+    }
+
+    @Test
+    public void terminatedSourceShouldReleaseUpstream() {
+        assertThatSubscriberTo(Observable.just(1))
+                .isCompleted()
+                .releasesUpstreamAfterTermination();
+    }
+
+    @Test
+    public void unsubscribedPipelineShouldReleaseCapturedObject() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        List<WeakReference<Object>> captured = new ArrayList<WeakReference<Object>>();
+        assertThatSubscriberTo(capturingPipeline(subject, captured))
+                .isCollectableAfterDispose(captured.get(0));
+        Assertions.assertThat(subject.hasObservers()).isFalse();
+    }
+
+    private static Observable<Integer> capturingPipeline(Observable<Integer> source, List<WeakReference<Object>> captured) {
+        final Object listener = new Object();
+        captured.add(new WeakReference<Object>(listener));
+        return source.map(new Func1<Integer, Integer>() {
+            @Override
+            public Integer call(Integer value) {
+                return listener.hashCode();
+            }
+        });
+    }
+
+    @Test(expected = AssertionError.class)
+    public void bulkAssertionsShouldFailForAnyFailingObservable() {
+        List<Observable<Integer>> fixtures = new ArrayList<Observable<Integer>>();
+        for (int i = 0; i < 100; i++) {
+            fixtures.add(Observable.just(i));
+        }
+        BulkAssertions.assertAll(fixtures, new AssertionCheck<Observable<Integer>>() {
+            @Override
+            public void check(Observable<Integer> fixture) {
+                assertThatSubscriberTo(fixture)
+                        .isCompleted()
+                        .hasValues(50);
+            }
+        });
+    }
+
+    @Test
+    public void expectationShouldVerifySingleAsSubscriber() {
+        Expectation<String> expectation = Expectation.<String>builder()
+                .values("a")
+                .completes()
+                .build();
+        ExpectationSubscriber<String> subscriber = RxAssertions.subscriberFor(expectation);
+        Single.just("a").subscribeOn(Schedulers.computation()).subscribe(subscriber);
+        subscriber.awaitSatisfied(5, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void expectationShouldFailForMissingCompletion() {
+        Expectation<Integer> expectation = Expectation.<Integer>builder()
+                .valueCount(1)
+                .completes()
+                .build();
+        ExpectationSubscriber<Integer> subscriber = RxAssertions.subscriberFor(expectation);
+        Observable.just(1).concatWith(Observable.<Integer>never()).subscribe(subscriber);
+        subscriber.awaitSatisfied(10, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void matchesPatternShouldMatchValuesAndCompletion() {
+        Condition<String> header = new Condition<String>("header") {
+            @Override
+            public boolean matches(String value) {
+                return value.startsWith("#");
+            }
+        };
+        Condition<String> body = new Condition<String>("body") {
+            @Override
+            public boolean matches(String value) {
+                return !value.startsWith("#");
+            }
+        };
+        SignalPattern<String> pattern = SignalPattern.<String>builder()
+                .one(header)
+                .oneOrMore(body)
+                .completes()
+                .build();
+        assertThatSubscriberTo(Observable.just("#title", "a", "b"))
+                .matchesPattern(pattern);
+        try {
+            assertThatSubscriberTo(Observable.just("#title", "#again"))
+                    .matchesPattern(pattern);
+        } catch (AssertionError expected) {
+            Assertions.assertThat(expected).hasMessageStartingWith("Value at position 1 does not fit pattern");
+            return;
+        }
+        throw new AssertionError("Expected failure");
+    }
+
+    @Test
+    public void countOnlyRetentionShouldKeepCountsAndTerminalEvent() {
+        assertThatSubscriberTo(Observable.range(0, 100000), Recording.retaining(Retention.countOnly()))
+                .hasValueCount(100000)
+                .isCompleted()
+                .hasNoErrors();
+    }
+
+    @Test
+    public void digestShouldMatchReferenceSequence() {
+        assertThatSubscriberTo(Observable.range(0, 1000), Recording.retaining(Retention.last(1)).withDigest(StreamDigest.HASH_CODES))
+                .isCompleted()
+                .emitsSequenceWithDigest(Observable.range(0, 1000).toBlocking().toIterable(), StreamDigest.HASH_CODES);
+    }
+
+    @Test
+    public void singleSlotAssertsShouldCoverSingleAndCompletable() {
+        RxAssertions.assertThat(Single.just("a"))
+                .isCompleted()
+                .hasSingleValue("a")
+                .hasSingleValueSatisfying(new Condition<String>("one character") {
+                    @Override
+                    public boolean matches(String value) {
+                        return value.length() == 1;
+                    }
+                });
+        RxAssertions.assertThat(Completable.error(new IllegalStateException()))
+                .isNotCompleted()
+                .hasError(IllegalStateException.class);
+    }
+
+    @Test
+    public void singleSlotAssertsShouldKeepTestSubscriberChecks() {
+        RxAssertions.assertThat(Single.just("a"))
+                .isUnsubscribed()
+                .hasValueAt(0, "a")
+                .eachItemMatches(new Condition<String>("one character") {
+                    @Override
+                    public boolean matches(String value) {
+                        return value.length() == 1;
+                    }
+                });
+        RxAssertions.assertThat(Completable.error(new IllegalStateException("boom")))
+                .isUnsubscribed()
+                .hasFailureAndMessage(IllegalStateException.class, "boom");
+    }
+
+    @Test(expected = AssertionError.class)
+    public void singleSlotShouldNotBeUnsubscribedWhileRunning() {
+        RxAssertions.assertThatSubscriberTo(Completable.never())
+                .isUnsubscribed();
+    }
+
+    @Test
+    public void toFutureShouldCompleteOnceStreamTerminates() throws Exception {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        RxAssertions.TestSubscriberAssert<Integer> assertion = RxAssertions.assertThatSubscriberTo(subject);
+        Future<Void> done = assertion.toFuture();
+        Assertions.assertThat(done.isDone()).isFalse();
+        subject.onNext(1);
+        subject.onCompleted();
+        done.get(1, TimeUnit.SECONDS);
+        assertion.isCompleted().hasValues(1);
+    }
+
+    @Test
+    public void concurrentRecordingShouldCheckSerialization() {
+        RxAssertions.assertThatSubscriberTo(Observable.range(0, 100).observeOn(Schedulers.computation()), Recording.concurrent())
+                .awaitDone(5, TimeUnit.SECONDS)
+                .isSerialized()
+                .hasConcurrentOnNextCount(0)
+                .hasValueCount(100);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void serializationCheckShouldRequireConcurrentRecording() {
+        RxAssertions.assertThatSubscriberTo(Observable.just(1)).isSerialized();
+    }
+
+    @Test
+    public void virtualTimeShouldCompleteDelayedObservableWithoutWaiting() {
+        RxAssertions.assertThatInVirtualTime(new Func0<Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call() {
+                return Observable.just(1).delay(1, TimeUnit.HOURS);
+            }
+        })
+                .isNotCompleted()
+                .advanceTimeBy(59, TimeUnit.MINUTES)
+                .hasNoValues()
+                .advanceTimeBy(1, TimeUnit.MINUTES)
+                .hasValues(1)
+                .isCompleted();
+    }
+
+    @Test
+    public void virtualTimeShouldApplyToSchedulersResolvedWhileAdvancing() {
+        RxAssertions.assertThatInVirtualTime(new Func0<Observable<Long>>() {
+            @Override
+            public Observable<Long> call() {
+                return Observable.interval(1, TimeUnit.SECONDS, Schedulers.io())
+                        .take(2)
+                        .concatMap(new Func1<Long, Observable<Long>>() {
+                            @Override
+                            public Observable<Long> call(final Long value) {
+                                return Observable.timer(1, TimeUnit.MINUTES).map(new Func1<Long, Long>() {
+                                    @Override
+                                    public Long call(Long ignored) {
+                                        return value;
+                                    }
+                                });
+                            }
+                        });
+            }
+        })
+                .advanceTimeTo(61, TimeUnit.SECONDS)
+                .hasValues(0L)
+                .advanceTimeTo(121, TimeUnit.SECONDS)
+                .hasValues(0L, 1L)
+                .isCompleted();
+    }
+
+    @Test
+    public void virtualTimeShouldUseProvidedScheduler() {
+        TestScheduler scheduler = new TestScheduler();
+        RxAssertions.assertThatInVirtualTime(new Func0<Observable<Long>>() {
+            @Override
+            public Observable<Long> call() {
+                return Observable.timer(5, TimeUnit.SECONDS);
+            }
+        }, scheduler)
+                .advanceTimeBy(5, TimeUnit.SECONDS)
+                .hasValues(0L);
+        Assertions.assertThat(scheduler.now()).isEqualTo(5000L);
+    }
+
+    @Test
+    public void virtualTimeShouldNotLeakIntoOtherSubscriptions() {
+        final TestScheduler scheduler = new TestScheduler();
+        RxAssertions.assertThatInVirtualTime(new Func0<Observable<Long>>() {
+            @Override
+            public Observable<Long> call() {
+                return Observable.timer(5, TimeUnit.SECONDS);
+            }
+        }, scheduler)
+                .triggerActions()
+                .isNotCompleted();
+        Assertions.assertThat(Schedulers.computation()).isNotSameAs(scheduler);
+        Assertions.assertThat(Schedulers.io()).isNotSameAs(scheduler);
+        Assertions.assertThat(Schedulers.newThread()).isNotSameAs(scheduler);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void advancingTimeWithoutVirtualTimeShouldFail() {
+        assertThatSubscriberTo(Observable.just(1))
+                .advanceTimeBy(1, TimeUnit.SECONDS);
+    }
+
     @Test
     public void singleItemObservableShouldEmitOneValue() {
         assertThatSubscriberTo(Observable.just("one"))